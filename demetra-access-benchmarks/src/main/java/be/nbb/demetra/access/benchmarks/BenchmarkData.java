@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package be.nbb.demetra.access.benchmarks;
+
+import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.DatabaseBuilder;
+import com.healthmarketscience.jackcess.DateTimeType;
+import com.healthmarketscience.jackcess.Table;
+import com.healthmarketscience.jackcess.TableBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generated Access files shared by benchmarks.
+ * <p>
+ * A file contains a single table of monthly series identified by two
+ * dimensions. It is generated once per size in the temporary directory and
+ * reused by subsequent runs.
+ *
+ * @author Philippe Charles
+ */
+final class BenchmarkData {
+
+    static final String TABLE = "Data";
+    static final String DIM0 = "Country";
+    static final String DIM1 = "Sector";
+    static final String PERIOD = "Period";
+    static final String VALUE = "Value";
+    static final List<String> DIMS = Arrays.asList(DIM0, DIM1);
+
+    static final int PERIODS = 120;
+    static final int COUNTRIES = 10;
+
+    private BenchmarkData() {
+        // static class
+    }
+
+    static File getFile(int rows) throws IOException {
+        File dir = new File(System.getProperty("java.io.tmpdir"), "demetra-access-benchmarks");
+        File result = new File(dir, "data-" + rows + ".accdb");
+        if (!result.exists()) {
+            Files.createDirectories(dir.toPath());
+            File tmp = File.createTempFile("data-" + rows, ".tmp", dir);
+            try {
+                generate(tmp, rows);
+                Files.move(tmp.toPath(), result.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp.toPath());
+            }
+        }
+        return result;
+    }
+
+    static Database open(File file) throws IOException {
+        Database result = new DatabaseBuilder(file).setReadOnly(true).open();
+        result.setDateTimeType(DateTimeType.DATE);
+        return result;
+    }
+
+    static String getCountry(int series) {
+        return String.format("C%02d", series % COUNTRIES);
+    }
+
+    static String getSector(int series) {
+        return String.format("S%06d", series / COUNTRIES);
+    }
+
+    static Date[] getPeriods() {
+        Date[] result = new Date[PERIODS];
+        Calendar cal = new GregorianCalendar(2000, 0, 1);
+        for (int i = 0; i < result.length; i++) {
+            result[i] = cal.getTime();
+            cal.add(Calendar.MONTH, 1);
+        }
+        return result;
+    }
+
+    private static void generate(File file, int rows) throws IOException {
+        try (Database db = new DatabaseBuilder(file).setFileFormat(Database.FileFormat.V2010).create()) {
+            db.setDateTimeType(DateTimeType.DATE);
+            Table table = new TableBuilder(TABLE)
+                    .addColumn(new ColumnBuilder(DIM0, DataType.TEXT))
+                    .addColumn(new ColumnBuilder(DIM1, DataType.TEXT))
+                    .addColumn(new ColumnBuilder(PERIOD, DataType.SHORT_DATE_TIME))
+                    .addColumn(new ColumnBuilder(VALUE, DataType.DOUBLE))
+                    .toTable(db);
+            Date[] periods = getPeriods();
+            Random random = new Random(rows);
+            List<Object[]> bulk = new ArrayList<>();
+            for (int i = 0; i < rows; i++) {
+                int series = i / PERIODS;
+                bulk.add(new Object[]{getCountry(series), getSector(series), periods[i % PERIODS], random.nextDouble() * 1000});
+                if (bulk.size() == 10000) {
+                    table.addRows(bulk);
+                    bulk.clear();
+                }
+            }
+            table.addRows(bulk);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package be.nbb.demetra.access.benchmarks;
+
+import static be.nbb.demetra.access.benchmarks.BenchmarkData.*;
+import ec.tss.tsproviders.HasFilePaths;
+import ec.tss.tsproviders.cube.CubeId;
+import ec.tss.tsproviders.cube.TableAsCubeAccessor;
+import ec.tss.tsproviders.cube.TableDataParams;
+import ec.tss.tsproviders.utils.DataFormat;
+import ec.tss.tsproviders.utils.ObsGathering;
+import internal.demetra.jackcess.JackcessTableAsCubeResource;
+import internal.jackcess.JackcessDatabasePool;
+import internal.jackcess.JackcessPageCache;
+import internal.jackcess.JackcessStatementOptions;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cursors of the cube resource as consumed by the cube accessor.
+ *
+ * @author Philippe Charles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CubeCursorBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    private JackcessTableAsCubeResource resource;
+    private CubeId root;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        File file = getFile(rows);
+        TableDataParams tdp = TableDataParams.builder()
+                .periodColumn(PERIOD)
+                .valueColumn(VALUE)
+                .versionColumn("")
+                .obsFormat(DataFormat.DEFAULT)
+                .build();
+        resource = JackcessTableAsCubeResource.create(HasFilePaths.of(() -> {
+        }), file, TABLE, DIMS, tdp, ObsGathering.DEFAULT, "", JackcessStatementOptions.DEFAULT, snapshot);
+        root = resource.getRoot();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        JackcessDatabasePool.getDefault().clear();
+        JackcessPageCache.getDefault().clear();
+    }
+
+    @Benchmark
+    public void children(Blackhole bh) throws Exception {
+        TableAsCubeAccessor.ChildrenCursor cursor = resource.getChildrenCursor(root);
+        try {
+            while (cursor.nextRow()) {
+                bh.consume(cursor.getChild());
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Benchmark
+    public void allSeries(Blackhole bh) throws Exception {
+        TableAsCubeAccessor.AllSeriesCursor cursor = resource.getAllSeriesCursor(root);
+        try {
+            while (cursor.nextRow()) {
+                bh.consume(cursor.getDimValues());
+                bh.consume(cursor.getLabel());
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Benchmark
+    public void allSeriesWithData(Blackhole bh) throws Exception {
+        TableAsCubeAccessor.AllSeriesWithDataCursor<?> cursor = resource.getAllSeriesWithDataCursor(root.child(getCountry(0)));
+        try {
+            while (cursor.nextRow()) {
+                bh.consume(cursor.getDimValues());
+                bh.consume(cursor.getPeriod());
+                bh.consume(cursor.getValue());
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Benchmark
+    public void seriesWithData(Blackhole bh) throws Exception {
+        TableAsCubeAccessor.SeriesWithDataCursor<?> cursor = resource.getSeriesWithDataCursor(root.child(getCountry(0), getSector(0)));
+        try {
+            while (cursor.nextRow()) {
+                bh.consume(cursor.getPeriod());
+                bh.consume(cursor.getValue());
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package be.nbb.demetra.access.benchmarks;
+
+import static be.nbb.demetra.access.benchmarks.BenchmarkData.PERIODS;
+import static be.nbb.demetra.access.benchmarks.BenchmarkData.getCountry;
+import static be.nbb.demetra.access.benchmarks.BenchmarkData.getPeriods;
+import static be.nbb.demetra.access.benchmarks.BenchmarkData.getSector;
+import ec.tss.tsproviders.utils.IteratorWithIO;
+import internal.xdb.DbRawDataUtil;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * In-memory distinct and sort on rows shaped like the generated table. Rows
+ * are shuffled so that the input order doesn't help the sort.
+ *
+ * @author Philippe Charles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class RawDataBenchmark {
+
+    private static final ToIntFunction<Integer> TO_INDEX = o -> o;
+    private static final Function<Integer, DbRawDataUtil.SuperDataType> TO_DATA_TYPE = o -> DbRawDataUtil.SuperDataType.COMPARABLE;
+    private static final List<Integer> SERIES_COLUMNS = Arrays.asList(0, 1);
+    private static final List<Integer> DATA_COLUMNS = Arrays.asList(0, 1, 2);
+
+    @Param({"100000", "1000000", "10000000"})
+    public int rows;
+
+    private Object[][] data;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Date[] periods = getPeriods();
+        data = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            int series = i / PERIODS;
+            data[i] = new Object[]{getCountry(series), getSector(series), periods[i % PERIODS], (double) i};
+        }
+        Collections.shuffle(Arrays.asList(data), new Random(rows));
+    }
+
+    @Benchmark
+    public void distinct(Blackhole bh) throws IOException {
+        consume(bh, DbRawDataUtil.distinct(rows(), SERIES_COLUMNS, TO_INDEX, TO_DATA_TYPE, DbRawDataUtil.NO_AGGREGATION));
+    }
+
+    @Benchmark
+    public void sort(Blackhole bh) throws IOException {
+        consume(bh, DbRawDataUtil.sort(rows(), DATA_COLUMNS, TO_INDEX, TO_DATA_TYPE));
+    }
+
+    private IteratorWithIO<Object[]> rows() {
+        return IteratorWithIO.from(Arrays.asList(data).iterator());
+    }
+
+    private static void consume(Blackhole bh, IteratorWithIO<Object[]> rows) throws IOException {
+        try {
+            while (rows.hasNext()) {
+                bh.consume(rows.next());
+            }
+        } finally {
+            rows.close();
+        }
+    }
+}
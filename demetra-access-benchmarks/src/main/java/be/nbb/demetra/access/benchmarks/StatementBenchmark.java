@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package be.nbb.demetra.access.benchmarks;
+
+import static be.nbb.demetra.access.benchmarks.BenchmarkData.*;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Range;
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.RowId;
+import internal.jackcess.JackcessResultSet;
+import internal.jackcess.JackcessStatement;
+import internal.xdb.DbBasicSelect;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Statement engine on each query shape used by the cube resource, with and
+ * without the row id range of the requested node.
+ *
+ * @author Philippe Charles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatementBenchmark {
+
+    public enum Shape {
+        CHILDREN, ALL_SERIES, ALL_SERIES_WITH_DATA, SERIES_WITH_DATA
+    }
+
+    @Param({"100000", "1000000", "10000000"})
+    public int rows;
+
+    @Param
+    public Shape shape;
+
+    @Param({"false", "true"})
+    public boolean ranged;
+
+    private Database database;
+    private DbBasicSelect query;
+    private Range<RowId> range;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        database = open(getFile(rows));
+        query = getQuery(shape);
+        range = ranged ? getRange(database, query.getFilterItems()) : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        database.close();
+    }
+
+    @Benchmark
+    public void executeQuery(Blackhole bh) throws IOException {
+        try (JackcessStatement stmt = new JackcessStatement(database, range)) {
+            try (JackcessResultSet rs = stmt.executeQuery(query)) {
+                int columns = query.getSelectColumns().size();
+                while (rs.next()) {
+                    for (int i = 0; i < columns; i++) {
+                        bh.consume(rs.getValue(i));
+                    }
+                }
+            }
+        }
+    }
+
+    static DbBasicSelect getQuery(Shape shape) {
+        switch (shape) {
+            case CHILDREN:
+                return DbBasicSelect.from(TABLE).distinct(true).select(DIM0).orderBy(DIM0).build();
+            case ALL_SERIES:
+                return DbBasicSelect.from(TABLE).distinct(true).select(DIM0, DIM1).orderBy(DIM0, DIM1).build();
+            case ALL_SERIES_WITH_DATA:
+                return DbBasicSelect.from(TABLE).select(DIM1, PERIOD, VALUE).filter(ImmutableMap.of(DIM0, getCountry(0))).orderBy(DIM1, PERIOD).build();
+            case SERIES_WITH_DATA:
+                return DbBasicSelect.from(TABLE).select(PERIOD, VALUE).filter(ImmutableMap.of(DIM0, getCountry(0), DIM1, getSector(0))).orderBy(PERIOD).build();
+            default:
+                throw new IllegalArgumentException(shape.name());
+        }
+    }
+
+    /**
+     * Gets the range of the rows matching a filter, as the cube resource does
+     * from a previous query on the parent node. Queries without filter are
+     * ranged on the whole table.
+     */
+    private static Range<RowId> getRange(Database database, Map<String, String> filter) throws IOException {
+        if (filter.isEmpty()) {
+            return Range.all();
+        }
+        String[] columns = filter.keySet().toArray(new String[filter.size()]);
+        DbBasicSelect query = DbBasicSelect.from(TABLE).distinct(true).select(columns).filter(filter).build();
+        try (JackcessStatement stmt = new JackcessStatement(database, null)) {
+            try (JackcessResultSet rs = stmt.executeQuery(query)) {
+                return rs.next() ? rs.getRange() : Range.all();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package be.nbb.demetra.access.benchmarks;
+
+import static be.nbb.demetra.access.benchmarks.BenchmarkData.PERIODS;
+import static be.nbb.demetra.access.benchmarks.BenchmarkData.getCountry;
+import static be.nbb.demetra.access.benchmarks.BenchmarkData.getSector;
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.Table;
+import ec.tss.TsCollectionInformation;
+import ec.tss.TsInformation;
+import ec.tss.TsInformationType;
+import ec.tss.TsMoniker;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import ec.tstoolkit.timeseries.simplets.TsFrequency;
+import internal.demetra.jackcess.JackcessTsExport;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Export of a collection of monthly series into a new table, either with a
+ * primary key maintained on each batch or with a primary key built after a
+ * bulk load.
+ *
+ * @author Philippe Charles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TsExportBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean bulkLoad;
+
+    private TsCollectionInformation col;
+    private File file;
+    private Database database;
+    private Table table;
+    private JackcessTsExport.RowWriter writer;
+
+    @Setup(Level.Trial)
+    public void setupData() {
+        Random random = new Random(rows);
+        col = new TsCollectionInformation();
+        for (int series = 0; series < rows / PERIODS; series++) {
+            double[] values = new double[PERIODS];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextDouble() * 1000;
+            }
+            TsInformation ts = new TsInformation(getCountry(series) + getSector(series), new TsMoniker(), TsInformationType.All);
+            ts.data = new TsData(TsFrequency.Monthly, 2000, 0, values, false);
+            col.items.add(ts);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupTable() throws IOException {
+        file = File.createTempFile("export", ".accdb");
+        Files.delete(file.toPath());
+        database = JackcessTsExport.getDatabase(file, Database.FileFormat.V2010, JackcessTsExport.WriteOption.TRUNCATE_EXISTING);
+        if (!bulkLoad) {
+            table = JackcessTsExport.getTable(database, JackcessTsExport.WriteOption.TRUNCATE_EXISTING, "Export", "Series", "Period", "Value", "");
+            writer = JackcessTsExport.getRowWriter(table, true, "Series", "Period", "Value", "");
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownTable() throws IOException {
+        database.close();
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Benchmark
+    public void writeContent() throws IOException {
+        if (bulkLoad) {
+            JackcessTsExport.bulkLoad(database, "Export", true, "Series", "Period", "Value", "", col, 10000);
+        } else {
+            JackcessTsExport.writeContent(table, writer, col, 10000);
+        }
+    }
+}
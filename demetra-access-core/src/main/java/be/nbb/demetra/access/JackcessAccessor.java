@@ -17,16 +17,19 @@
 package be.nbb.demetra.access;
 
 import internal.demetra.jackcess.JackcessFunc;
+import internal.demetra.jackcess.JackcessSeriesRouter;
 import static internal.demetra.jackcess.JackcessFunc.*;
+import internal.jackcess.FileVersion;
+import internal.jackcess.JackcessDatabasePool;
+import internal.jackcess.JackcessFileWatcher;
+import internal.jackcess.JackcessQueryExecutor;
+import internal.jackcess.JackcessRangeIndex;
 import internal.jackcess.JackcessResultSet;
 import internal.jackcess.JackcessStatement;
+import internal.jackcess.JackcessStatementOptions;
 import internal.xdb.DbBasicSelect;
 import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Range;
-import com.healthmarketscience.jackcess.Database;
-import com.healthmarketscience.jackcess.DatabaseBuilder;
-import com.healthmarketscience.jackcess.DateTimeType;
 import com.healthmarketscience.jackcess.RowId;
 import ec.tss.tsproviders.db.DbAccessor;
 import ec.tss.tsproviders.db.DbSeries;
@@ -35,11 +38,17 @@ import ec.tss.tsproviders.db.DbUtil;
 import ec.tstoolkit.design.VisibleForTesting;
 import ec.tstoolkit.utilities.LastModifiedFileCache;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,11 +61,20 @@ final class JackcessAccessor extends DbAccessor.Commander<JackcessBean> {
     private static final Logger LOGGER = LoggerFactory.getLogger(JackcessAccessor.class);
 
     @VisibleForTesting
-    final Cache<DbSetId, Range<RowId>> rangeIndex;
+    final JackcessRangeIndex rangeIndex;
+    private final JackcessStatementOptions options;
+    private final List<Cache<?, ?>> watchedCaches;
+    // strongly referenced here since the watcher only keeps a weak reference
+    private final Runnable fileListener;
+    private final boolean watched;
 
     public JackcessAccessor(JackcessBean dbBean) {
         super(dbBean);
-        this.rangeIndex = LastModifiedFileCache.from(dbBean.getFile(), CacheBuilder.newBuilder().<DbSetId, Range<RowId>>build());
+        this.watchedCaches = new CopyOnWriteArrayList<>();
+        this.fileListener = this::invalidateCaches;
+        this.watched = JackcessFileWatcher.getDefault().watch(dbBean.getFile(), fileListener);
+        this.options = toStatementOptions(dbBean);
+        this.rangeIndex = JackcessRangeIndex.of(dbBean.getTableName(), Arrays.asList(dbBean.getDimArray()), options.isPersistentRangeIndex());
     }
 
     @Override
@@ -83,7 +101,7 @@ final class JackcessAccessor extends DbAccessor.Commander<JackcessBean> {
                         boolean result = rs.next();
                         if (result) {
                             dimValues = toDimValues.apply(rs);
-                            rangeIndex.put(ref.child(dimValues), rs.getRange());
+                            putRange(ref.child(dimValues), rs.getRange());
                         }
                         return result;
                     }
@@ -112,7 +130,7 @@ final class JackcessAccessor extends DbAccessor.Commander<JackcessBean> {
 
             @Override
             protected List<DbSeries> process(JackcessResultSet rs) throws IOException {
-                JackcessFunc<String[]> toDimValues = onGetStringArray(0, ref.getDepth());
+                JackcessFunc<String[]> toDimValues = onGetStringArrayIfChanged(0, ref.getDepth());
                 JackcessFunc<java.util.Date> toPeriod = onDate(rs, ref.getDepth(), dateParser);
                 JackcessFunc<Number> toValue = onNumber(rs, ref.getDepth() + 1, numberParser);
 
@@ -200,7 +218,7 @@ final class JackcessAccessor extends DbAccessor.Commander<JackcessBean> {
                         boolean result = rs.next();
                         if (result) {
                             child = toChild.apply(rs);
-                            rangeIndex.put(ref.child(child), rs.getRange());
+                            putRange(ref.child(child), rs.getRange());
                             return true;
                         }
                         return false;
@@ -212,21 +230,169 @@ final class JackcessAccessor extends DbAccessor.Commander<JackcessBean> {
         };
     }
 
+    /**
+     * Gets the data of several series in a single pass on the table instead
+     * of one filtered query per series.
+     *
+     * @param ids some series ids
+     * @return a map of series by id; ids without rows are absent from it
+     * @throws IOException
+     */
+    public Map<DbSetId, DbSeries> getSeriesWithData(Collection<DbSetId> ids) throws IOException {
+        for (DbSetId id : ids) {
+            if (!id.isSeries()) {
+                throw new IllegalArgumentException("Not a series: '" + id + "'");
+            }
+        }
+        Map<DbSetId, List<String>> tuples = new HashMap<>();
+        for (DbSetId id : ids) {
+            tuples.put(id, toKey(id));
+        }
+        if (tuples.isEmpty()) {
+            return new HashMap<>();
+        }
+        return new JackcessQuery<Map<DbSetId, DbSeries>>(getRoot()) {
+            @Override
+            protected Range<RowId> getQueryRange() {
+                return getSpan(version, tuples.keySet());
+            }
+
+            @Override
+            protected DbBasicSelect getQuery() {
+                return DbBasicSelect
+                        .from(dbBean.getTableName())
+                        .select(ref.selectColumns()).select(dbBean.getPeriodColumn(), dbBean.getValueColumn()).select(dbBean.getVersionColumn())
+                        .build();
+            }
+
+            @Override
+            protected Map<DbSetId, DbSeries> process(JackcessResultSet rs) throws IOException {
+                int periodIndex = ref.getDepth();
+                int versionIndex = !dbBean.getVersionColumn().isEmpty() ? periodIndex + 2 : -1;
+                JackcessFunc<String[]> toDimValues = onGetStringArrayIfChanged(0, periodIndex);
+                JackcessFunc<java.util.Date> toPeriod = onDate(rs, periodIndex, dateParser);
+                JackcessFunc<Number> toValue = onNumber(rs, periodIndex + 1, numberParser);
+
+                JackcessSeriesRouter<DbSetId> router = JackcessSeriesRouter.of(tuples);
+                while (rs.next()) {
+                    if (router.select(toDimValues.apply(rs))) {
+                        java.util.Date period = toPeriod.apply(rs);
+                        router.add(rs.getValue(periodIndex), versionIndex != -1 ? rs.getValue(versionIndex) : null, period, period != null ? toValue.apply(rs) : null);
+                    }
+                }
+
+                Map<DbSetId, DbSeries> result = new HashMap<>();
+                for (DbSetId id : tuples.keySet()) {
+                    if (router.isFound(id)) {
+                        Iterator<JackcessSeriesRouter.Obs> obs = router.getObs(id).iterator();
+                        DbUtil.SeriesWithDataCursor<IOException> cursor = new DbUtil.SeriesWithDataCursor<IOException>() {
+                            @Override
+                            public boolean next() throws IOException {
+                                if (obs.hasNext()) {
+                                    JackcessSeriesRouter.Obs o = obs.next();
+                                    period = o.getPeriod();
+                                    value = o.getValue();
+                                    return true;
+                                }
+                                return false;
+                            }
+                        };
+                        result.put(id, DbUtil.getSeriesWithData(cursor, id, dbBean.getFrequency(), dbBean.getAggregationType()));
+                    }
+                }
+                return result;
+            }
+        }.call();
+    }
+
+    /**
+     * Gets the children of a node asynchronously.
+     *
+     * @param path
+     * @return a future that interrupts the query when cancelled
+     * @see JackcessQueryExecutor
+     */
+    public CompletableFuture<List<String>> getChildrenAsync(String... path) {
+        return JackcessQueryExecutor.getDefault().submit(dbBean.getFile(), getChildrenQuery(getRoot().child(path)));
+    }
+
+    /**
+     * Gets the data of all the series of a node asynchronously.
+     *
+     * @param path
+     * @return a future that interrupts the query when cancelled
+     * @see JackcessQueryExecutor
+     */
+    public CompletableFuture<List<DbSeries>> getAllSeriesWithDataAsync(String... path) {
+        return JackcessQueryExecutor.getDefault().submit(dbBean.getFile(), getAllSeriesWithDataQuery(getRoot().child(path)));
+    }
+
+    /**
+     * Gets the data of a series asynchronously.
+     *
+     * @param path
+     * @return a future that interrupts the query when cancelled
+     * @see JackcessQueryExecutor
+     */
+    public CompletableFuture<DbSeries> getSeriesWithDataAsync(String... path) {
+        return JackcessQueryExecutor.getDefault().submit(dbBean.getFile(), getSeriesWithDataQuery(getRoot().child(path)));
+    }
+
+    /**
+     * Gets the data of several series asynchronously.
+     *
+     * @param ids
+     * @return a future that interrupts the query when cancelled
+     * @see #getSeriesWithData(java.util.Collection)
+     * @see JackcessQueryExecutor
+     */
+    public CompletableFuture<Map<DbSetId, DbSeries>> getSeriesWithDataAsync(Collection<DbSetId> ids) {
+        return JackcessQueryExecutor.getDefault().submit(dbBean.getFile(), () -> getSeriesWithData(ids));
+    }
+
     @Override
     public DbAccessor<JackcessBean> memoize() {
         Cache<DbSetId, List<DbSeries>> ttl = DbAccessor.BulkAccessor.newTtlCache(dbBean.getCacheTtl());
-        Cache<DbSetId, List<DbSeries>> file = LastModifiedFileCache.from(dbBean.getFile(), ttl);
-        return DbAccessor.BulkAccessor.from(this, dbBean.getCacheDepth(), file);
+        return DbAccessor.BulkAccessor.from(this, dbBean.getCacheDepth(), onFile(ttl));
+    }
+
+    /**
+     * Binds a cache to the file of this accessor. The file watcher drops the
+     * cache as soon as the file changes; if the file cannot be watched, the
+     * cache checks the last modification time of the file on each access
+     * instead.
+     */
+    private <K, V> Cache<K, V> onFile(Cache<K, V> cache) {
+        if (watched) {
+            watchedCaches.add(cache);
+            return cache;
+        }
+        return LastModifiedFileCache.from(dbBean.getFile(), cache);
+    }
+
+    private void invalidateCaches() {
+        watchedCaches.forEach(Cache::invalidateAll);
+        rangeIndex.clear();
     }
 
     private abstract class JackcessQuery<T> implements Callable<T> {
 
         protected final DbSetId ref;
+        // the version of the leased file, set before the query is executed
+        protected FileVersion version;
 
         protected JackcessQuery(DbSetId ref) {
             this.ref = ref;
         }
 
+        protected void putRange(DbSetId id, Range<RowId> range) {
+            rangeIndex.put(version, toKey(id), range);
+        }
+
+        protected Range<RowId> getQueryRange() {
+            return getRange(version, ref);
+        }
+
         abstract protected DbBasicSelect getQuery();
 
         abstract protected T process(JackcessResultSet rs) throws IOException;
@@ -237,15 +403,54 @@ final class JackcessAccessor extends DbAccessor.Commander<JackcessBean> {
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug(query.toSql());
             }
-            try (Database conn = new DatabaseBuilder(dbBean.getFile()).setReadOnly(true).open()) {
-                conn.setDateTimeType(DateTimeType.DATE);
-                try (JackcessStatement stmt = new JackcessStatement(conn, rangeIndex.getIfPresent(ref))) {
+            try (JackcessDatabasePool.Lease lease = JackcessDatabasePool.getDefault().lease(dbBean.getFile(), options.getChannel())) {
+                version = lease.getVersion();
+                try (JackcessStatement stmt = new JackcessStatement(lease, getQueryRange(), options)) {
                     try (JackcessResultSet rs = stmt.executeQuery(query)) {
                         return process(rs);
                     }
                 }
+            } finally {
+                rangeIndex.flush();
+            }
+        }
+    }
+
+    @VisibleForTesting
+    Range<RowId> getRange(FileVersion version, DbSetId id) {
+        return rangeIndex.get(version, toKey(id));
+    }
+
+    private Range<RowId> getSpan(FileVersion version, Collection<DbSetId> ids) {
+        Range<RowId> result = null;
+        for (DbSetId id : ids) {
+            Range<RowId> range = getRange(version, id);
+            if (range == null) {
+                return null;
             }
+            result = result != null ? result.span(range) : range;
+        }
+        return result;
+    }
+
+    private static JackcessStatementOptions toStatementOptions(JackcessBean bean) {
+        return JackcessStatementOptions.builder()
+                .sortMemoryBudget(bean.getSortMemoryBudget())
+                .parallelism(bean.getParallelism())
+                .persistentRangeIndex(bean.isPersistentRangeIndex())
+                .bitmapIndex(bean.isBitmapIndex())
+                .zoneMap(bean.isZoneMap())
+                .resultCache(bean.isResultCache())
+                .channel(bean.getChannel())
+                .build();
+    }
+
+    private static List<String> toKey(DbSetId id) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < id.getLevel(); i++) {
+            result.add(id.getValue(i));
         }
+        return result;
     }
 
     private static Map<String, String> toFilter(DbSetId id) {
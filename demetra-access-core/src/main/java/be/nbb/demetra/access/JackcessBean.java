@@ -19,6 +19,9 @@ package be.nbb.demetra.access;
 import ec.tss.tsproviders.DataSource;
 import ec.tss.tsproviders.IFileBean;
 import ec.tss.tsproviders.db.DbBean;
+import ec.tss.tsproviders.utils.IParam;
+import ec.tss.tsproviders.utils.Params;
+import internal.jackcess.JackcessChannelMode;
 import java.io.File;
 
 /**
@@ -28,11 +31,122 @@ import java.io.File;
 @Deprecated
 public final class JackcessBean extends DbBean.BulkBean implements IFileBean {
 
+    public static final IParam<DataSource, Long> X_SORT_MEMORY_BUDGET = Params.onLong(0L, "sortMemoryBudget");
+    public static final IParam<DataSource, Boolean> X_PERSISTENT_RANGE_INDEX = Params.onBoolean(false, "persistentRangeIndex");
+    public static final IParam<DataSource, Boolean> X_BITMAP_INDEX = Params.onBoolean(false, "bitmapIndex");
+    public static final IParam<DataSource, Boolean> X_ZONE_MAP = Params.onBoolean(false, "zoneMap");
+    public static final IParam<DataSource, Boolean> X_RESULT_CACHE = Params.onBoolean(false, "resultCache");
+    public static final IParam<DataSource, Integer> X_PARALLELISM = Params.onInteger(1, "parallelism");
+    public static final IParam<DataSource, JackcessChannelMode> X_CHANNEL = Params.onEnum(JackcessChannelMode.DEFAULT, "channel");
+
+    protected long sortMemoryBudget;
+    protected boolean persistentRangeIndex;
+    protected boolean bitmapIndex;
+    protected boolean zoneMap;
+    protected boolean resultCache;
+    protected int parallelism;
+    protected JackcessChannelMode channel;
+
     public JackcessBean() {
+        this.sortMemoryBudget = X_SORT_MEMORY_BUDGET.defaultValue();
+        this.persistentRangeIndex = X_PERSISTENT_RANGE_INDEX.defaultValue();
+        this.bitmapIndex = X_BITMAP_INDEX.defaultValue();
+        this.zoneMap = X_ZONE_MAP.defaultValue();
+        this.resultCache = X_RESULT_CACHE.defaultValue();
+        this.parallelism = X_PARALLELISM.defaultValue();
+        this.channel = X_CHANNEL.defaultValue();
     }
 
     public JackcessBean(DataSource id) {
         super(id);
+        this.sortMemoryBudget = X_SORT_MEMORY_BUDGET.get(id);
+        this.persistentRangeIndex = X_PERSISTENT_RANGE_INDEX.get(id);
+        this.bitmapIndex = X_BITMAP_INDEX.get(id);
+        this.zoneMap = X_ZONE_MAP.get(id);
+        this.resultCache = X_RESULT_CACHE.get(id);
+        this.parallelism = X_PARALLELISM.get(id);
+        this.channel = X_CHANNEL.get(id);
+    }
+
+    public long getSortMemoryBudget() {
+        return sortMemoryBudget;
+    }
+
+    /**
+     * Sets the memory budget in bytes of sort and distinct operations before
+     * spilling to disk; zero to keep them in memory.
+     *
+     * @param sortMemoryBudget
+     */
+    public void setSortMemoryBudget(long sortMemoryBudget) {
+        this.sortMemoryBudget = sortMemoryBudget;
+    }
+
+    public boolean isPersistentRangeIndex() {
+        return persistentRangeIndex;
+    }
+
+    /**
+     * Sets whether the row ranges of the dimension values are persisted in a
+     * sidecar file next to the database.
+     *
+     * @param persistentRangeIndex
+     */
+    public void setPersistentRangeIndex(boolean persistentRangeIndex) {
+        this.persistentRangeIndex = persistentRangeIndex;
+    }
+
+    public boolean isBitmapIndex() {
+        return bitmapIndex;
+    }
+
+    public void setBitmapIndex(boolean bitmapIndex) {
+        this.bitmapIndex = bitmapIndex;
+    }
+
+    public boolean isZoneMap() {
+        return zoneMap;
+    }
+
+    public void setZoneMap(boolean zoneMap) {
+        this.zoneMap = zoneMap;
+    }
+
+    public boolean isResultCache() {
+        return resultCache;
+    }
+
+    public void setResultCache(boolean resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public JackcessChannelMode getChannel() {
+        return channel;
+    }
+
+    public void setChannel(JackcessChannelMode channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public DataSource toDataSource(String providerName, String version) {
+        DataSource.Builder builder = super.toDataSource(providerName, version).toBuilder();
+        X_SORT_MEMORY_BUDGET.set(builder, sortMemoryBudget);
+        X_PERSISTENT_RANGE_INDEX.set(builder, persistentRangeIndex);
+        X_BITMAP_INDEX.set(builder, bitmapIndex);
+        X_ZONE_MAP.set(builder, zoneMap);
+        X_RESULT_CACHE.set(builder, resultCache);
+        X_PARALLELISM.set(builder, parallelism);
+        X_CHANNEL.set(builder, channel);
+        return builder.build();
     }
 
     @Override
@@ -19,6 +19,7 @@ package be.nbb.demetra.access.file;
 import ec.tss.tsproviders.IFileBean;
 import ec.tss.tsproviders.utils.DataFormat;
 import ec.tss.tsproviders.utils.ObsGathering;
+import internal.jackcess.JackcessChannelMode;
 import java.io.File;
 import java.time.Duration;
 import java.util.List;
@@ -46,6 +47,19 @@ public final class AccessFileBean implements IFileBean {
     private Duration cacheTtl;
     private int cacheDepth;
 
+    private long sortMemoryBudget;
+    private boolean snapshot;
+    private boolean persistentRangeIndex;
+    private boolean bitmapIndex;
+    private boolean zoneMap;
+    private boolean resultCache;
+    private int parallelism;
+    private JackcessChannelMode channel;
+
+    private boolean warmUp;
+    private Duration warmUpTimeout;
+    private long warmUpMemoryBudget;
+
     public void setCacheTtl(Duration cacheTtl) {
         this.cacheTtl = cacheTtl.isNegative() ? Duration.ZERO : cacheTtl;
     }
@@ -53,4 +67,20 @@ public final class AccessFileBean implements IFileBean {
     public void setCacheDepth(int cacheDepth) {
         this.cacheDepth = cacheDepth >= 0 ? cacheDepth : 0;
     }
+
+    public void setSortMemoryBudget(long sortMemoryBudget) {
+        this.sortMemoryBudget = sortMemoryBudget >= 0 ? sortMemoryBudget : 0;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism >= 1 ? parallelism : 1;
+    }
+
+    public void setWarmUpTimeout(Duration warmUpTimeout) {
+        this.warmUpTimeout = warmUpTimeout.isNegative() ? Duration.ZERO : warmUpTimeout;
+    }
+
+    public void setWarmUpMemoryBudget(long warmUpMemoryBudget) {
+        this.warmUpMemoryBudget = warmUpMemoryBudget >= 0 ? warmUpMemoryBudget : 0;
+    }
 }
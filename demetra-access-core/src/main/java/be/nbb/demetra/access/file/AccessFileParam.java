@@ -26,12 +26,15 @@ import ec.tss.tsproviders.utils.DataFormat;
 import ec.tss.tsproviders.utils.IConfig;
 import ec.tss.tsproviders.utils.IParam;
 import ec.tss.tsproviders.utils.ObsGathering;
+import static ec.tss.tsproviders.utils.Params.onBoolean;
 import static ec.tss.tsproviders.utils.Params.onDataFormat;
+import static ec.tss.tsproviders.utils.Params.onEnum;
 import static ec.tss.tsproviders.utils.Params.onInteger;
 import static ec.tss.tsproviders.utils.Params.onLong;
 import static ec.tss.tsproviders.utils.Params.onObsGathering;
 import static ec.tss.tsproviders.utils.Params.onString;
 import static ec.tss.tsproviders.utils.Params.onStringList;
+import internal.jackcess.JackcessChannelMode;
 import java.io.File;
 import java.time.Duration;
 import java.util.Collections;
@@ -67,6 +70,17 @@ interface AccessFileParam extends IParam<DataSource, AccessFileBean> {
         private final IParam<DataSource, ObsGathering> obsGathering = onObsGathering(ObsGathering.DEFAULT, "frequency", "aggregationType", "cleanMissing");
         private final IParam<DataSource, Long> cacheTtl = onLong(TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES), "cacheTtl");
         private final IParam<DataSource, Integer> cacheDepth = onInteger(1, "cacheDepth");
+        private final IParam<DataSource, Long> sortMemoryBudget = onLong(0L, "sortMemoryBudget");
+        private final IParam<DataSource, Boolean> snapshot = onBoolean(false, "snapshot");
+        private final IParam<DataSource, Boolean> persistentRangeIndex = onBoolean(false, "persistentRangeIndex");
+        private final IParam<DataSource, Boolean> bitmapIndex = onBoolean(false, "bitmapIndex");
+        private final IParam<DataSource, Boolean> zoneMap = onBoolean(false, "zoneMap");
+        private final IParam<DataSource, Boolean> resultCache = onBoolean(false, "resultCache");
+        private final IParam<DataSource, Integer> parallelism = onInteger(1, "parallelism");
+        private final IParam<DataSource, JackcessChannelMode> channel = onEnum(JackcessChannelMode.DEFAULT, "channel");
+        private final IParam<DataSource, Boolean> warmUp = onBoolean(false, "warmUp");
+        private final IParam<DataSource, Long> warmUpTimeout = onLong(TimeUnit.MILLISECONDS.convert(1, TimeUnit.MINUTES), "warmUpTimeout");
+        private final IParam<DataSource, Long> warmUpMemoryBudget = onLong(0L, "warmUpMemoryBudget");
 
         @Override
         public String getVersion() {
@@ -87,6 +101,17 @@ interface AccessFileParam extends IParam<DataSource, AccessFileBean> {
             result.setObsGathering(obsGathering.defaultValue());
             result.setCacheTtl(Duration.ofMillis(cacheTtl.defaultValue()));
             result.setCacheDepth(cacheDepth.defaultValue());
+            result.setSortMemoryBudget(sortMemoryBudget.defaultValue());
+            result.setSnapshot(snapshot.defaultValue());
+            result.setPersistentRangeIndex(persistentRangeIndex.defaultValue());
+            result.setBitmapIndex(bitmapIndex.defaultValue());
+            result.setZoneMap(zoneMap.defaultValue());
+            result.setResultCache(resultCache.defaultValue());
+            result.setParallelism(parallelism.defaultValue());
+            result.setChannel(channel.defaultValue());
+            result.setWarmUp(warmUp.defaultValue());
+            result.setWarmUpTimeout(Duration.ofMillis(warmUpTimeout.defaultValue()));
+            result.setWarmUpMemoryBudget(warmUpMemoryBudget.defaultValue());
             return result;
         }
 
@@ -104,6 +129,17 @@ interface AccessFileParam extends IParam<DataSource, AccessFileBean> {
             result.setObsGathering(obsGathering.get(dataSource));
             result.setCacheTtl(Duration.ofMillis(cacheTtl.get(dataSource)));
             result.setCacheDepth(cacheDepth.get(dataSource));
+            result.setSortMemoryBudget(sortMemoryBudget.get(dataSource));
+            result.setSnapshot(snapshot.get(dataSource));
+            result.setPersistentRangeIndex(persistentRangeIndex.get(dataSource));
+            result.setBitmapIndex(bitmapIndex.get(dataSource));
+            result.setZoneMap(zoneMap.get(dataSource));
+            result.setResultCache(resultCache.get(dataSource));
+            result.setParallelism(parallelism.get(dataSource));
+            result.setChannel(channel.get(dataSource));
+            result.setWarmUp(warmUp.get(dataSource));
+            result.setWarmUpTimeout(Duration.ofMillis(warmUpTimeout.get(dataSource)));
+            result.setWarmUpMemoryBudget(warmUpMemoryBudget.get(dataSource));
             return result;
         }
 
@@ -120,6 +156,17 @@ interface AccessFileParam extends IParam<DataSource, AccessFileBean> {
             obsGathering.set(builder, value.getObsGathering());
             cacheTtl.set(builder, value.getCacheTtl().toMillis());
             cacheDepth.set(builder, value.getCacheDepth());
+            sortMemoryBudget.set(builder, value.getSortMemoryBudget());
+            snapshot.set(builder, value.isSnapshot());
+            persistentRangeIndex.set(builder, value.isPersistentRangeIndex());
+            bitmapIndex.set(builder, value.isBitmapIndex());
+            zoneMap.set(builder, value.isZoneMap());
+            resultCache.set(builder, value.isResultCache());
+            parallelism.set(builder, value.getParallelism());
+            channel.set(builder, value.getChannel());
+            warmUp.set(builder, value.isWarmUp());
+            warmUpTimeout.set(builder, value.getWarmUpTimeout().toMillis());
+            warmUpMemoryBudget.set(builder, value.getWarmUpMemoryBudget());
         }
 
         @Override
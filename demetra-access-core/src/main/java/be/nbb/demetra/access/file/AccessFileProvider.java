@@ -35,6 +35,8 @@ import ec.tss.tsproviders.utils.DataSourcePreconditions;
 import ec.tss.tsproviders.utils.IParam;
 import ec.tstoolkit.utilities.GuavaCaches;
 import internal.demetra.jackcess.JackcessTableAsCubeResource;
+import internal.jackcess.JackcessFileWatcher;
+import internal.jackcess.JackcessStatementOptions;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -53,6 +55,15 @@ public final class AccessFileProvider implements IFileLoader {
 
     public static final String NAME = "ACCESS";
 
+    /**
+     * System property enabling the bulk refresh mode, meant for batch
+     * processing such as the cruncher. In this mode, the first series
+     * requested from a data source loads all the series of its table in a
+     * single pass and the following requests are served from memory until it
+     * is reclaimed or the provider is cleared.
+     */
+    public static final String BULK_REFRESH_PROPERTY = "be.nbb.demetra.access.bulkRefresh";
+
     @lombok.experimental.Delegate
     private final HasDataSourceMutableList mutableListSupport;
 
@@ -73,7 +84,13 @@ public final class AccessFileProvider implements IFileLoader {
 
     private final JackcessFileFilter fileFilter;
 
+    private final AccessFileCubeResource cubeResource;
+
     public AccessFileProvider() {
+        this(Boolean.getBoolean(BULK_REFRESH_PROPERTY));
+    }
+
+    AccessFileProvider(boolean bulkRefresh) {
         Logger logger = LoggerFactory.getLogger(NAME);
         ConcurrentMap<DataSource, CubeAccessor> cache = GuavaCaches.softValuesCacheAsMap();
         AccessFileParam param = new AccessFileParam.V1();
@@ -82,7 +99,8 @@ public final class AccessFileProvider implements IFileLoader {
         this.monikerSupport = HasDataMoniker.usingUri(NAME);
         this.beanSupport = HasDataSourceBean.of(NAME, param, param.getVersion());
         this.filePathSupport = HasFilePaths.of(cache::clear);
-        this.cubeSupport = CubeSupport.of(new AccessFileCubeResource(cache, param, filePathSupport));
+        this.cubeResource = new AccessFileCubeResource(cache, param, filePathSupport, bulkRefresh);
+        this.cubeSupport = CubeSupport.of(cubeResource);
         this.tsSupport = CubeSupport.asTsProvider(NAME, logger, cubeSupport, monikerSupport, cache::clear);
 
         this.fileFilter = new JackcessFileFilter();
@@ -93,6 +111,15 @@ public final class AccessFileProvider implements IFileLoader {
         return "Access files";
     }
 
+    @Override
+    public boolean open(DataSource dataSource) throws IllegalArgumentException {
+        boolean result = mutableListSupport.open(dataSource);
+        if (result) {
+            cubeResource.warmUp(dataSource);
+        }
+        return result;
+    }
+
     @Override
     public String getFileDescription() {
         return fileFilter.getDescription();
@@ -109,6 +136,7 @@ public final class AccessFileProvider implements IFileLoader {
         private final ConcurrentMap<DataSource, CubeAccessor> cache;
         private final AccessFileParam param;
         private final HasFilePaths paths;
+        private final boolean bulkRefresh;
 
         @Override
         public CubeAccessor getAccessor(DataSource dataSource) throws IOException, IllegalArgumentException {
@@ -127,10 +155,42 @@ public final class AccessFileProvider implements IFileLoader {
             return param.getCubeIdParam(dataSource);
         }
 
+        private void warmUp(DataSource dataSource) {
+            AccessFileBean bean = param.get(dataSource);
+            if (bean.isWarmUp()) {
+                AccessFileWarmUp warmUp = new AccessFileWarmUp(bean.getCacheDepth(), bean.getWarmUpTimeout(),
+                        AccessFileWarmUp.resolveMemoryBudget(bean.getWarmUpMemoryBudget()), () -> cache.containsKey(dataSource));
+                AccessFileWarmUp.submit(() -> getAccessor(dataSource), warmUp);
+            }
+        }
+
         private CubeAccessor load(DataSource key) throws FileNotFoundException {
             AccessFileBean bean = param.get(key);
-            JackcessTableAsCubeResource result = JackcessTableAsCubeResource.create(paths, bean.getFile(), bean.getTable(), bean.getDimColumns(), toDataParams(bean), bean.getObsGathering(), bean.getLabelColumn());
-            return TableAsCubeAccessor.create(result).bulk(bean.getCacheDepth(), GuavaCaches.ttlCacheAsMap(bean.getCacheTtl()));
+            WatchedAccessor result = new WatchedAccessor(loadAccessor(bean));
+            // drops the accessor with its caches and snapshot as soon as the file changes
+            result.listener = () -> cache.remove(key, result);
+            JackcessFileWatcher.getDefault().watch(paths.resolveFilePath(bean.getFile()), result.listener);
+            return result;
+        }
+
+        private CubeAccessor loadAccessor(AccessFileBean bean) {
+            JackcessTableAsCubeResource result = JackcessTableAsCubeResource.create(paths, bean.getFile(), bean.getTable(), bean.getDimColumns(), toDataParams(bean), bean.getObsGathering(), bean.getLabelColumn(), toStatementOptions(bean), bean.isSnapshot());
+            return bulkRefresh
+                    // all the series share the root as ancestor and are loaded at once
+                    ? TableAsCubeAccessor.create(result).bulk(bean.getDimColumns().size(), GuavaCaches.softValuesCacheAsMap())
+                    : TableAsCubeAccessor.create(result).bulk(bean.getCacheDepth(), GuavaCaches.ttlCacheAsMap(bean.getCacheTtl()));
+        }
+
+        private static JackcessStatementOptions toStatementOptions(AccessFileBean bean) {
+            return JackcessStatementOptions.builder()
+                    .sortMemoryBudget(bean.getSortMemoryBudget())
+                    .parallelism(bean.getParallelism())
+                    .persistentRangeIndex(bean.isPersistentRangeIndex())
+                    .bitmapIndex(bean.isBitmapIndex())
+                    .zoneMap(bean.isZoneMap())
+                    .resultCache(bean.isResultCache())
+                    .channel(bean.getChannel())
+                    .build();
         }
 
         private static TableDataParams toDataParams(AccessFileBean bean) {
@@ -142,4 +202,16 @@ public final class AccessFileProvider implements IFileLoader {
                     .build();
         }
     }
+
+    /**
+     * An accessor that holds the listener of its file so that the watcher
+     * forgets it once the accessor has left the cache.
+     */
+    @lombok.RequiredArgsConstructor
+    private static final class WatchedAccessor implements CubeAccessor {
+
+        @lombok.experimental.Delegate
+        private final CubeAccessor delegate;
+        private Runnable listener;
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package be.nbb.demetra.access.file;
+
+import ec.tss.tsproviders.cube.CubeAccessor;
+import ec.tss.tsproviders.cube.CubeId;
+import ec.tss.tsproviders.cursor.TsCursor;
+import ec.tss.tsproviders.utils.IteratorWithIO;
+import ec.tss.tsproviders.utils.OptionalTsData;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Crawls the tree of a cube in the background to fill its caches.
+ * <p>
+ * The children of the nodes above the cache depth are listed, which records
+ * their ranges of rows, and the series of the nodes at the cache depth are
+ * loaded in bulk. The crawl runs on a single low-priority thread and stops
+ * when its time or memory budget is exhausted or when it is no longer active.
+ *
+ * @author Philippe Charles
+ */
+@lombok.extern.slf4j.Slf4j
+@lombok.AllArgsConstructor
+final class AccessFileWarmUp {
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread result = new Thread(runnable, "AccessFileWarmUp");
+        result.setDaemon(true);
+        result.setPriority(Thread.MIN_PRIORITY);
+        return result;
+    });
+
+    /**
+     * Crawls a cube in the background.
+     *
+     * @param accessor a supplier of the accessor to crawl, called in the
+     * background
+     * @param warmUp
+     */
+    static void submit(@NonNull Callable<CubeAccessor> accessor, @NonNull AccessFileWarmUp warmUp) {
+        EXECUTOR.execute(() -> {
+            try {
+                log.debug("Warm-up {}", warmUp.crawl(accessor.call()));
+            } catch (Exception ex) {
+                log.warn("While warming up", ex);
+            }
+        });
+    }
+
+    /**
+     * Computes a memory budget relative to the maximum heap size.
+     *
+     * @param budget a budget in bytes or zero for an automatic budget
+     * @return a positive budget
+     */
+    static long resolveMemoryBudget(long budget) {
+        return budget > 0 ? budget : Runtime.getRuntime().maxMemory() / 4;
+    }
+
+    private final int cacheDepth;
+
+    @lombok.NonNull
+    private final Duration timeout;
+
+    private final long memoryBudget;
+
+    @lombok.NonNull
+    private final BooleanSupplier active;
+
+    /**
+     * Crawls a cube until it is fully visited or a budget is exhausted.
+     *
+     * @param accessor
+     * @return
+     * @throws IOException
+     */
+    @NonNull
+    Stats crawl(@NonNull CubeAccessor accessor) throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int nodes = 0;
+        long series = 0;
+        long memory = 0;
+        Deque<CubeId> queue = new ArrayDeque<>();
+        queue.add(accessor.getRoot());
+        while (!queue.isEmpty()) {
+            if (!active.getAsBoolean() || System.nanoTime() - deadline >= 0 || memory >= memoryBudget) {
+                return new Stats(nodes, series, memory, false);
+            }
+            CubeId node = queue.poll();
+            nodes++;
+            if (isBulkLevel(node)) {
+                try (TsCursor<CubeId> cursor = accessor.getAllSeriesWithData(node)) {
+                    while (cursor.nextSeries()) {
+                        series++;
+                        memory += estimateSize(cursor.getSeriesData());
+                    }
+                }
+            } else {
+                try (IteratorWithIO<CubeId> children = accessor.getChildren(node)) {
+                    while (children.hasNext()) {
+                        CubeId child = children.next();
+                        if (!child.isSeries()) {
+                            queue.add(child);
+                        }
+                    }
+                }
+            }
+        }
+        return new Stats(nodes, series, memory, true);
+    }
+
+    @lombok.Value
+    static class Stats {
+
+        int nodes;
+        long series;
+        long memory;
+        boolean complete;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private boolean isBulkLevel(CubeId node) {
+        // the bulk cache is filled by the nodes whose depth is the cache depth, or by the root if the cube is shallower
+        return cacheDepth > 0 && (node.getDepth() == cacheDepth || (node.isRoot() && node.getDepth() < cacheDepth));
+    }
+
+    private static long estimateSize(OptionalTsData data) {
+        return 64 + (data.isPresent() ? data.get().getLength() * 16L : 0);
+    }
+    //</editor-fold>
+}
@@ -1,124 +1,252 @@
-/*
- * Copyright 2013 National Bank of Belgium
- * 
- * Licensed under the EUPL, Version 1.1 or - as soon they will be approved 
- * by the European Commission - subsequent versions of the EUPL (the "Licence");
- * You may not use this work except in compliance with the Licence.
- * You may obtain a copy of the Licence at:
- * 
- * http://ec.europa.eu/idabc/eupl
- * 
- * Unless required by applicable law or agreed to in writing, software 
- * distributed under the Licence is distributed on an "AS IS" basis,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the Licence for the specific language governing permissions and 
- * limitations under the Licence.
- */
-package internal.demetra.jackcess;
-
-import internal.jackcess.JackcessResultSet;
-import com.healthmarketscience.jackcess.Column;
-import ec.tss.tsproviders.db.DbUtil;
-import ec.tss.tsproviders.utils.IParser;
-import java.io.IOException;
-import org.checkerframework.checker.nullness.qual.NonNull;
-import org.checkerframework.checker.nullness.qual.Nullable;
-
-/**
- *
- * @author Philippe Charles
- * @param <T>
- */
-public interface JackcessFunc<T> extends DbUtil.Func<JackcessResultSet, T, IOException> {
-
-    @NonNull
-    public static JackcessFunc<String> onNull() {
-        return NullFunc.INSTANCE;
-    }
-
-    @NonNull
-    public static JackcessFunc<String[]> onGetStringArray(int index, int length) {
-        return rs -> getStringArray(rs, index, length);
-    }
-
-    @NonNull
-    public static JackcessFunc<String> onGetObjectToString(int index) {
-        return rs -> getObjectToString(rs, index);
-    }
-
-    @NonNull
-    public static <X> JackcessFunc<X> compose(int index, IParser<X> parser) {
-        return rs -> getAndParse(rs, index, parser);
-    }
-
-    @NonNull
-    public static JackcessFunc<java.util.Date> onDate(JackcessResultSet rs, int index, IParser<java.util.Date> dateParser) throws IOException {
-        JackcessFunc<java.util.Date> result = dateByDataType(rs.getColumn(index), index);
-        return result != null ? result : compose(index, dateParser);
-    }
-
-    @NonNull
-    public static JackcessFunc<Number> onNumber(JackcessResultSet rs, int index, IParser<Number> numberParser) throws IOException {
-        JackcessFunc<Number> result = numberByDataType(rs.getColumn(index), index);
-        return result != null ? result : compose(index, numberParser);
-    }
-
-    //<editor-fold defaultstate="collapsed" desc="Implementation details">
-    static final class NullFunc implements JackcessFunc<String> {
-
-        static final JackcessFunc<String> INSTANCE = new NullFunc();
-
-        @Override
-        public String apply(JackcessResultSet input) throws IOException {
-            return null;
-        }
-    }
-
-    @Nullable
-    static String toString(@Nullable Object o) {
-        return o != null ? o.toString() : null;
-    }
-
-    static String[] getStringArray(JackcessResultSet rs, int index, int length) throws IOException {
-        String[] result = new String[length];
-        for (int i = 0; i < result.length; i++) {
-            result[i] = toString(rs.getValue(index + i));
-        }
-        return result;
-    }
-
-    static String getObjectToString(JackcessResultSet rs, int index) throws IOException {
-        return toString(rs.getValue(index));
-    }
-
-    static <X> X getAndParse(JackcessResultSet rs, int index, IParser<X> parser) throws IOException {
-        return parser.parse(getObjectToString(rs, index));
-    }
-
-    static <X> X getAndCast(JackcessResultSet rs, int index) throws IOException {
-        return (X) rs.getValue(index);
-    }
-
-    @Nullable
-    static JackcessFunc<java.util.Date> dateByDataType(Column column, final int index) {
-        switch (column.getType()) {
-            case SHORT_DATE_TIME:
-                return rs -> getAndCast(rs, index);
-        }
-        return null;
-    }
-
-    @Nullable
-    static JackcessFunc<Number> numberByDataType(Column column, final int index) {
-        switch (column.getType()) {
-            case DOUBLE:
-            case FLOAT:
-            case INT:
-            case LONG:
-            case NUMERIC:
-                return rs -> getAndCast(rs, index);
-        }
-        return null;
-    }
-    //</editor-fold>
-}
+/*
+ * Copyright 2013 National Bank of Belgium
+ * 
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved 
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ * 
+ * http://ec.europa.eu/idabc/eupl
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and 
+ * limitations under the Licence.
+ */
+package internal.demetra.jackcess;
+
+import internal.jackcess.JackcessResultSet;
+import com.healthmarketscience.jackcess.Column;
+import ec.tss.tsproviders.db.DbUtil;
+import ec.tss.tsproviders.utils.IParser;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ *
+ * @author Philippe Charles
+ * @param <T>
+ */
+public interface JackcessFunc<T> extends DbUtil.Func<JackcessResultSet, T, IOException> {
+
+    @NonNull
+    public static JackcessFunc<String> onNull() {
+        return NullFunc.INSTANCE;
+    }
+
+    @NonNull
+    public static JackcessFunc<String[]> onGetStringArray(int index, int length) {
+        return rs -> getStringArray(rs, index, length);
+    }
+
+    @NonNull
+    public static JackcessFunc<String> onGetObjectToString(int index) {
+        return rs -> getObjectToString(rs, index);
+    }
+
+    @NonNull
+    public static <X> JackcessFunc<X> compose(int index, IParser<X> parser) {
+        return rs -> getAndParse(rs, index, parser);
+    }
+
+    @NonNull
+    public static JackcessFunc<String[]> onGetStringArrayIfChanged(int index, int length) {
+        return new StringArrayIfChangedFunc(index, length);
+    }
+
+    @NonNull
+    public static JackcessFunc<java.util.Date> onDate(JackcessResultSet rs, int index, IParser<java.util.Date> dateParser) throws IOException {
+        JackcessFunc<java.util.Date> result = dateByDataType(rs.getColumn(index), index);
+        return result != null ? result : new ParsedDateFunc(index, dateParser);
+    }
+
+    @NonNull
+    public static JackcessFunc<Number> onNumber(JackcessResultSet rs, int index, IParser<Number> numberParser) throws IOException {
+        JackcessFunc<Number> result = numberByDataType(rs.getColumn(index), index);
+        return result != null ? result : compose(index, numberParser);
+    }
+
+    /**
+     * Value returned by {@link OfLong} functions on missing dates.
+     */
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    /**
+     * Function specialized for numbers that returns {@link Double#NaN} on
+     * missing values.
+     */
+    @FunctionalInterface
+    public interface OfDouble {
+
+        double applyAsDouble(@NonNull JackcessResultSet rs) throws IOException;
+    }
+
+    /**
+     * Function specialized for dates that returns the number of milliseconds
+     * since epoch or {@link #NO_DATE} on missing values.
+     */
+    @FunctionalInterface
+    public interface OfLong {
+
+        long applyAsLong(@NonNull JackcessResultSet rs) throws IOException;
+    }
+
+    @NonNull
+    public static OfLong onDateMillis(JackcessResultSet rs, int index, IParser<java.util.Date> dateParser) throws IOException {
+        if (dateByDataType(rs.getColumn(index), index) != null) {
+            return o -> toMillis((java.util.Date) o.getValue(index));
+        }
+        return new ParsedDateFunc(index, dateParser)::applyAsLong;
+    }
+
+    @NonNull
+    public static OfDouble onDouble(JackcessResultSet rs, int index, IParser<Number> numberParser) throws IOException {
+        if (numberByDataType(rs.getColumn(index), index) != null) {
+            return o -> toDouble((Number) o.getValue(index));
+        }
+        return o -> toDouble(getAndParse(o, index, numberParser));
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    static final class NullFunc implements JackcessFunc<String> {
+
+        static final JackcessFunc<String> INSTANCE = new NullFunc();
+
+        @Override
+        public String apply(JackcessResultSet input) throws IOException {
+            return null;
+        }
+    }
+
+    @Nullable
+    static String toString(@Nullable Object o) {
+        return o != null ? o.toString() : null;
+    }
+
+    static String[] getStringArray(JackcessResultSet rs, int index, int length) throws IOException {
+        String[] result = new String[length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = toString(rs.getValue(index + i));
+        }
+        return result;
+    }
+
+    static String getObjectToString(JackcessResultSet rs, int index) throws IOException {
+        return toString(rs.getValue(index));
+    }
+
+    static <X> X getAndParse(JackcessResultSet rs, int index, IParser<X> parser) throws IOException {
+        return parser.parse(getObjectToString(rs, index));
+    }
+
+    static <X> X getAndCast(JackcessResultSet rs, int index) throws IOException {
+        return (X) rs.getValue(index);
+    }
+
+    static long toMillis(java.util.Date date) {
+        return date != null ? date.getTime() : NO_DATE;
+    }
+
+    static double toDouble(Number number) {
+        return number != null ? number.doubleValue() : Double.NaN;
+    }
+
+    static final class StringArrayIfChangedFunc implements JackcessFunc<String[]> {
+
+        private final int index;
+        private final Object[] previous;
+        private String[] result;
+
+        StringArrayIfChangedFunc(int index, int length) {
+            this.index = index;
+            this.previous = new Object[length];
+            this.result = null;
+        }
+
+        @Override
+        public String[] apply(JackcessResultSet rs) throws IOException {
+            boolean changed = result == null;
+            for (int i = 0; i < previous.length; i++) {
+                Object value = rs.getValue(index + i);
+                if (!Objects.equals(previous[i], value)) {
+                    previous[i] = value;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                result = new String[previous.length];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = JackcessFunc.toString(previous[i]);
+                }
+            }
+            return result;
+        }
+    }
+
+    static final class ParsedDateFunc implements JackcessFunc<java.util.Date> {
+
+        // parsed dates are shared among rows since the same periods are repeated in each series
+        // they are stored as millis since dates are mutable
+        private static final int MAX_SIZE = 4096;
+
+        private final int index;
+        private final IParser<java.util.Date> parser;
+        private final Map<String, Long> dates;
+
+        ParsedDateFunc(int index, IParser<java.util.Date> parser) {
+            this.index = index;
+            this.parser = parser;
+            this.dates = new HashMap<>();
+        }
+
+        @Override
+        public java.util.Date apply(JackcessResultSet rs) throws IOException {
+            long result = applyAsLong(rs);
+            return result != NO_DATE ? new java.util.Date(result) : null;
+        }
+
+        long applyAsLong(JackcessResultSet rs) throws IOException {
+            String text = getObjectToString(rs, index);
+            if (text == null) {
+                return toMillis(parser.parse(text));
+            }
+            Long result = dates.get(text);
+            if (result == null && !dates.containsKey(text)) {
+                java.util.Date parsed = parser.parse(text);
+                result = parsed != null ? parsed.getTime() : null;
+                if (dates.size() < MAX_SIZE) {
+                    dates.put(text, result);
+                }
+            }
+            return result != null ? result : NO_DATE;
+        }
+    }
+
+    @Nullable
+    static JackcessFunc<java.util.Date> dateByDataType(Column column, final int index) {
+        switch (column.getType()) {
+            case SHORT_DATE_TIME:
+                return rs -> getAndCast(rs, index);
+        }
+        return null;
+    }
+
+    @Nullable
+    static JackcessFunc<Number> numberByDataType(Column column, final int index) {
+        switch (column.getType()) {
+            case DOUBLE:
+            case FLOAT:
+            case INT:
+            case LONG:
+            case NUMERIC:
+                return rs -> getAndCast(rs, index);
+        }
+        return null;
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.demetra.jackcess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Routes the rows of a single table scan to the series they belong to.
+ * <p>
+ * Rows are matched against a hash set of dimension tuples. Consecutive rows
+ * sharing the same dimension array (see
+ * {@link JackcessFunc#onGetStringArrayIfChanged(int, int)}) skip the lookup.
+ * Observations of each series are sorted by raw period and version, as the
+ * equivalent filtered query would do.
+ *
+ * @author Philippe Charles
+ * @param <K> the type of series key
+ */
+public final class JackcessSeriesRouter<K> {
+
+    @NonNull
+    public static <K> JackcessSeriesRouter<K> of(@NonNull Map<K, List<String>> tuples) {
+        Map<List<String>, Series> series = new HashMap<>();
+        Map<K, Series> byKey = new HashMap<>();
+        tuples.forEach((key, tuple) -> byKey.put(key, series.computeIfAbsent(tuple, o -> new Series())));
+        return new JackcessSeriesRouter<>(series, byKey);
+    }
+
+    private final Map<List<String>, Series> series;
+    private final Map<K, Series> byKey;
+    private String[] lastDimValues;
+    private Series current;
+
+    private JackcessSeriesRouter(Map<List<String>, Series> series, Map<K, Series> byKey) {
+        this.series = series;
+        this.byKey = byKey;
+        this.lastDimValues = null;
+        this.current = null;
+    }
+
+    /**
+     * Selects the series of the current row.
+     *
+     * @param dimValues
+     * @return true if the row belongs to a requested series, false otherwise
+     */
+    public boolean select(@NonNull String[] dimValues) {
+        if (dimValues != lastDimValues) {
+            lastDimValues = dimValues;
+            current = series.get(Arrays.asList(dimValues));
+        }
+        return current != null;
+    }
+
+    /**
+     * Adds an observation to the selected series.
+     *
+     * @param periodKey the raw period used for ordering
+     * @param versionKey the raw version used for ordering
+     * @param period
+     * @param value
+     */
+    public void add(@Nullable Object periodKey, @Nullable Object versionKey, @Nullable Date period, @Nullable Number value) {
+        current.obs.add(new Obs(periodKey, versionKey, period, value));
+    }
+
+    /**
+     * Gets the ordered observations of a series.
+     *
+     * @param key
+     * @return a non-null list, empty if the key is unknown or has no rows
+     */
+    @NonNull
+    public List<Obs> getObs(@NonNull K key) {
+        Series result = byKey.get(key);
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        if (!result.sorted) {
+            result.obs.sort(OBS_ORDERING);
+            result.sorted = true;
+        }
+        return result.obs;
+    }
+
+    /**
+     * Checks if a series has at least one row.
+     *
+     * @param key
+     * @return
+     */
+    public boolean isFound(@NonNull K key) {
+        Series result = byKey.get(key);
+        return result != null && !result.obs.isEmpty();
+    }
+
+    @lombok.Value
+    public static class Obs {
+
+        @lombok.Getter(lombok.AccessLevel.NONE)
+        Object periodKey;
+        @lombok.Getter(lombok.AccessLevel.NONE)
+        Object versionKey;
+        Date period;
+        Number value;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private static final Comparator<Obs> OBS_ORDERING = Comparator
+            .comparing((Obs o) -> o.periodKey, JackcessTableSnapshot.VALUE_ORDERING)
+            .thenComparing(o -> o.versionKey, JackcessTableSnapshot.VALUE_ORDERING);
+
+    private static final class Series {
+
+        private final List<Obs> obs = new ArrayList<>();
+        private boolean sorted = false;
+    }
+    //</editor-fold>
+}
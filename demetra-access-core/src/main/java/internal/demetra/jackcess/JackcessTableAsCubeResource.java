@@ -17,9 +17,6 @@
 package internal.demetra.jackcess;
 
 import com.google.common.collect.Range;
-import com.healthmarketscience.jackcess.Database;
-import com.healthmarketscience.jackcess.DatabaseBuilder;
-import com.healthmarketscience.jackcess.DateTimeType;
 import com.healthmarketscience.jackcess.RowId;
 import ec.tss.tsproviders.HasFilePaths;
 import ec.tss.tsproviders.cube.CubeId;
@@ -31,19 +28,32 @@ import ec.tss.tsproviders.utils.ObsGathering;
 import ec.tss.tsproviders.utils.OptionalTsData;
 import static ec.tss.tsproviders.utils.StrangeParsers.yearFreqPosParser;
 import ec.tstoolkit.design.VisibleForTesting;
-import ec.tstoolkit.utilities.GuavaCaches;
 import static internal.demetra.jackcess.JackcessFunc.onDate;
+import static internal.demetra.jackcess.JackcessFunc.onDateMillis;
+import static internal.demetra.jackcess.JackcessFunc.onDouble;
 import static internal.demetra.jackcess.JackcessFunc.onGetObjectToString;
 import static internal.demetra.jackcess.JackcessFunc.onGetStringArray;
+import static internal.demetra.jackcess.JackcessFunc.onGetStringArrayIfChanged;
 import static internal.demetra.jackcess.JackcessFunc.onNull;
 import static internal.demetra.jackcess.JackcessFunc.onNumber;
+import internal.jackcess.FileVersion;
+import internal.jackcess.JackcessDatabasePool;
+import internal.jackcess.JackcessFileWatcher;
+import internal.jackcess.JackcessQueryExecutor;
+import internal.jackcess.JackcessRangeIndex;
 import internal.jackcess.JackcessResultSet;
 import internal.jackcess.JackcessStatement;
+import internal.jackcess.JackcessStatementOptions;
 import internal.xdb.DbBasicSelect;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -63,7 +73,21 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
             @NonNull TableDataParams tdp,
             @NonNull ObsGathering gathering,
             @NonNull String labelColumn) {
-        return new JackcessTableAsCubeResource(paths, file, table, CubeId.root(dimColumns), tdp, gathering, labelColumn);
+        return create(paths, file, table, dimColumns, tdp, gathering, labelColumn, JackcessStatementOptions.DEFAULT, false);
+    }
+
+    @NonNull
+    public static JackcessTableAsCubeResource create(
+            @NonNull HasFilePaths paths,
+            @NonNull File file,
+            @NonNull String table,
+            @NonNull List<String> dimColumns,
+            @NonNull TableDataParams tdp,
+            @NonNull ObsGathering gathering,
+            @NonNull String labelColumn,
+            @NonNull JackcessStatementOptions options,
+            boolean snapshot) {
+        return new JackcessTableAsCubeResource(paths, file, table, CubeId.root(dimColumns), tdp, gathering, labelColumn, options, snapshot);
     }
 
     private final HasFilePaths paths;
@@ -73,10 +97,16 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
     private final TableDataParams tdp;
     private final ObsGathering gathering;
     private final String labelColumn;
+    private final JackcessStatementOptions options;
+    private final boolean snapshotEnabled;
     @VisibleForTesting
-    final Map<CubeId, Range<RowId>> rangeIndex;
+    final JackcessRangeIndex rangeIndex;
+    private volatile JackcessTableSnapshot snapshot;
+    // strongly referenced here since the watcher only keeps a weak reference
+    private final Runnable fileListener;
+    private volatile boolean watched;
 
-    private JackcessTableAsCubeResource(HasFilePaths paths, File file, String table, CubeId root, TableDataParams tdp, ObsGathering gathering, String labelColumn) {
+    private JackcessTableAsCubeResource(HasFilePaths paths, File file, String table, CubeId root, TableDataParams tdp, ObsGathering gathering, String labelColumn, JackcessStatementOptions options, boolean snapshotEnabled) {
         this.paths = paths;
         this.file = file;
         this.table = table;
@@ -84,7 +114,12 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
         this.tdp = tdp;
         this.gathering = gathering;
         this.labelColumn = labelColumn;
-        this.rangeIndex = GuavaCaches.ttlCacheAsMap(Duration.ofMinutes(5));
+        this.options = options;
+        this.snapshotEnabled = snapshotEnabled;
+        this.rangeIndex = JackcessRangeIndex.of(table, getDimensionIds(root), options.isPersistentRangeIndex());
+        this.snapshot = null;
+        this.fileListener = this::invalidateSnapshot;
+        this.watched = false;
     }
 
     @Override
@@ -99,22 +134,120 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
 
     @Override
     public TableAsCubeAccessor.AllSeriesCursor getAllSeriesCursor(CubeId id) throws Exception {
-        return new AllSeriesQuery(id, table, labelColumn, rangeIndex).call(paths, file, rangeIndex.get(id));
+        checkCollection(id);
+        if (snapshotEnabled) {
+            return getSnapshot().getAllSeriesCursor(id);
+        }
+        return new AllSeriesQuery(id, table, labelColumn, rangeIndex).call(paths, file, version -> getRange(version, id), options);
     }
 
     @Override
     public TableAsCubeAccessor.AllSeriesWithDataCursor<Date> getAllSeriesWithDataCursor(CubeId id) throws Exception {
-        return new AllSeriesWithDataQuery(id, table, labelColumn, tdp).call(paths, file, rangeIndex.get(id));
+        if (snapshotEnabled) {
+            return getSnapshot().getAllSeriesWithDataCursor(id);
+        }
+        return new AllSeriesWithDataQuery(id, table, labelColumn, tdp).call(paths, file, version -> getRange(version, id), options);
     }
 
     @Override
     public TableAsCubeAccessor.SeriesWithDataCursor<Date> getSeriesWithDataCursor(CubeId id) throws Exception {
-        return new SeriesWithDataQuery(id, table, labelColumn, tdp).call(paths, file, rangeIndex.get(id));
+        if (snapshotEnabled) {
+            return getSnapshot().getSeriesWithDataCursor(id);
+        }
+        return new SeriesWithDataQuery(id, table, labelColumn, tdp).call(paths, file, version -> getRange(version, id), options);
     }
 
     @Override
     public TableAsCubeAccessor.ChildrenCursor getChildrenCursor(CubeId id) throws Exception {
-        return new ChildrenQuery(id, table, rangeIndex).call(paths, file, rangeIndex.get(id));
+        checkCollection(id);
+        if (snapshotEnabled) {
+            return getSnapshot().getChildrenCursor(id);
+        }
+        return new ChildrenQuery(id, table, rangeIndex).call(paths, file, version -> getRange(version, id), options);
+    }
+
+    private static void checkCollection(CubeId id) {
+        if (id.isSeries()) {
+            throw new IllegalArgumentException("Not a collection: '" + id + "'");
+        }
+    }
+
+    /**
+     * Gets the data of several series in a single pass on the table instead
+     * of one filtered query per series.
+     *
+     * @param ids some series ids
+     * @return a map of data by id; ids without rows are absent from it
+     * @throws Exception
+     */
+    @NonNull
+    public Map<CubeId, OptionalTsData> getSeriesWithData(@NonNull Collection<CubeId> ids) throws Exception {
+        for (CubeId id : ids) {
+            if (!id.isSeries()) {
+                throw new IllegalArgumentException("Not a series: '" + id + "'");
+            }
+        }
+        Map<CubeId, OptionalTsData> result = new HashMap<>();
+        if (snapshotEnabled) {
+            JackcessTableSnapshot current = getSnapshot();
+            for (CubeId id : ids) {
+                OptionalTsData data = toData(current.getSeriesWithDataCursor(id));
+                if (data != null) {
+                    result.put(id, data);
+                }
+            }
+            return result;
+        }
+        if (ids.isEmpty()) {
+            return result;
+        }
+        Map<CubeId, List<String>> tuples = new HashMap<>();
+        for (CubeId id : ids) {
+            tuples.put(id, toKey(id));
+        }
+        JackcessSeriesRouter<CubeId> router = JackcessSeriesRouter.of(tuples);
+        try (JackcessDatabasePool.Lease lease = JackcessDatabasePool.getDefault().lease(paths.resolveFilePath(file), options.getChannel())) {
+            try (JackcessStatement stmt = new JackcessStatement(lease, getSpan(lease.getVersion(), ids), options)) {
+                try (JackcessResultSet rs = stmt.executeQuery(getBatchQuery())) {
+                    route(rs, router);
+                }
+            }
+        }
+        for (CubeId id : tuples.keySet()) {
+            if (router.isFound(id)) {
+                OptionalTsData.Builder2<Date> data = newBuilder();
+                for (JackcessSeriesRouter.Obs o : router.getObs(id)) {
+                    data.add(o.getPeriod(), o.getValue());
+                }
+                result.put(id, data.build());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the children of a node asynchronously.
+     *
+     * @param id
+     * @return a future that interrupts the query when cancelled
+     * @see JackcessQueryExecutor
+     */
+    @NonNull
+    public CompletableFuture<List<String>> getChildrenAsync(@NonNull CubeId id) {
+        return submit(() -> toChildren(getChildrenCursor(id)));
+    }
+
+    /**
+     * Gets the data of several series asynchronously.
+     *
+     * @param ids
+     * @return a future that interrupts the query when cancelled
+     * @see #getSeriesWithData(java.util.Collection)
+     * @see JackcessQueryExecutor
+     */
+    @NonNull
+    public CompletableFuture<Map<CubeId, OptionalTsData>> getSeriesWithDataAsync(@NonNull Collection<CubeId> ids) {
+        return submit(() -> getSeriesWithData(ids));
     }
 
     @Override
@@ -137,6 +270,106 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
         return OptionalTsData.builderByDate(new GregorianCalendar(TimeZone.getDefault(), Locale.getDefault(Locale.Category.FORMAT)), gathering, ObsCharacteristics.ORDERED);
     }
 
+    private Range<RowId> getRange(FileVersion version, CubeId id) {
+        return rangeIndex.get(version, toKey(id));
+    }
+
+    @Nullable
+    private Range<RowId> getSpan(FileVersion version, Collection<CubeId> ids) {
+        Range<RowId> result = null;
+        for (CubeId id : ids) {
+            Range<RowId> range = getRange(version, id);
+            if (range == null) {
+                return null;
+            }
+            result = result != null ? result.span(range) : range;
+        }
+        return result;
+    }
+
+    private DbBasicSelect getBatchQuery() {
+        return DbBasicSelect.from(table)
+                .select(toSelect(root)).select(tdp.getPeriodColumn(), tdp.getValueColumn()).select(tdp.getVersionColumn())
+                .build();
+    }
+
+    private void route(JackcessResultSet rs, JackcessSeriesRouter<CubeId> router) throws IOException {
+        int periodIndex = root.getDepth();
+        int versionIndex = !tdp.getVersionColumn().isEmpty() ? periodIndex + 2 : -1;
+        JackcessFunc<String[]> toDimValues = onGetStringArrayIfChanged(0, periodIndex);
+        JackcessFunc<Date> toPeriod = onDate(rs, periodIndex, tdp.getObsFormat().dateParser().orElse(yearFreqPosParser()));
+        JackcessFunc<Number> toValue = onNumber(rs, periodIndex + 1, tdp.getObsFormat().numberParser());
+        while (rs.next()) {
+            if (router.select(toDimValues.apply(rs))) {
+                router.add(rs.getValue(periodIndex), versionIndex != -1 ? rs.getValue(versionIndex) : null, toPeriod.apply(rs), toValue.apply(rs));
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> query) {
+        File resolved;
+        try {
+            resolved = paths.resolveFilePath(file);
+        } catch (FileNotFoundException ex) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            result.completeExceptionally(ex);
+            return result;
+        }
+        // lanes are keyed on the resolved file so that relative and absolute paths share them
+        return JackcessQueryExecutor.getDefault().submit(resolved.getAbsoluteFile(), query);
+    }
+
+    private static List<String> toChildren(TableAsCubeAccessor.ChildrenCursor cursor) throws Exception {
+        try {
+            List<String> result = new ArrayList<>();
+            while (cursor.nextRow()) {
+                result.add(cursor.getChild());
+            }
+            return result;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Nullable
+    private OptionalTsData toData(TableAsCubeAccessor.SeriesWithDataCursor<Date> cursor) throws Exception {
+        try {
+            if (!cursor.nextRow()) {
+                return null;
+            }
+            OptionalTsData.Builder2<Date> result = newBuilder();
+            do {
+                result.add(cursor.getPeriod(), cursor.getValue());
+            } while (cursor.nextRow());
+            return result.build();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private JackcessTableSnapshot getSnapshot() throws IOException {
+        JackcessTableSnapshot result = snapshot;
+        if (result == null || (!watched && !result.getVersion().isCurrent())) {
+            synchronized (this) {
+                result = snapshot;
+                if (result == null || (!watched && !result.getVersion().isCurrent())) {
+                    File resolved = paths.resolveFilePath(file);
+                    // the watcher drops the snapshot as soon as the file changes so its version is only checked if the file is not watched
+                    watched = JackcessFileWatcher.getDefault().watch(resolved, fileListener);
+                    try (JackcessDatabasePool.Lease lease = JackcessDatabasePool.getDefault().lease(resolved, options.getChannel())) {
+                        result = JackcessTableSnapshot.load(lease.getDatabase(), lease.getVersion(), table, root, tdp, labelColumn, options);
+                    }
+                    snapshot = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private synchronized void invalidateSnapshot() {
+        snapshot = null;
+    }
+
     private static void closeAll(Exception root, AutoCloseable... items) {
         for (AutoCloseable o : items) {
             if (o != null) {
@@ -153,8 +386,8 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
         }
     }
 
-    private static AutoCloseable asCloseable(JackcessResultSet rs, JackcessStatement stmt, Database conn) {
-        return () -> closeAll(null, rs, stmt, conn);
+    private static AutoCloseable asCloseable(JackcessResultSet rs, JackcessStatement stmt, JackcessDatabasePool.Lease lease) {
+        return () -> closeAll(null, rs, stmt, lease);
     }
 
     private static String[] toSelect(CubeId ref) {
@@ -165,6 +398,32 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
         return result;
     }
 
+    private static List<String> toKey(CubeId id) {
+        return id.getDimensionValueStream().collect(Collectors.toList());
+    }
+
+    private static List<String> getDimensionIds(CubeId root) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < root.getMaxLevel(); i++) {
+            result.add(root.getDimensionId(i));
+        }
+        return result;
+    }
+
+    private static BiConsumer<CubeId, Range<RowId>> onRange(JackcessRangeIndex rangeIndex, FileVersion version) {
+        return (id, range) -> rangeIndex.put(version, toKey(id), range);
+    }
+
+    private static AutoCloseable flushing(JackcessRangeIndex rangeIndex, AutoCloseable closeable) {
+        return () -> {
+            try {
+                closeable.close();
+            } finally {
+                rangeIndex.flush();
+            }
+        };
+    }
+
     private static Map<String, String> toFilter(CubeId id) {
         Map<String, String> result = new HashMap<>();
         for (int i = 0; i < id.getLevel(); i++) {
@@ -180,22 +439,21 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
         DbBasicSelect getQuery();
 
         @Nullable
-        T process(@NonNull JackcessResultSet rs, @NonNull AutoCloseable closeable) throws IOException;
+        T process(@NonNull JackcessResultSet rs, @NonNull FileVersion version, @NonNull AutoCloseable closeable) throws IOException;
 
         @Nullable
-        default public T call(@NonNull HasFilePaths paths, @NonNull File file, @Nullable Range<RowId> range) throws IOException {
-            Database conn = null;
+        default public T call(@NonNull HasFilePaths paths, @NonNull File file, @NonNull Function<FileVersion, Range<RowId>> toRange, @NonNull JackcessStatementOptions options) throws IOException {
+            JackcessDatabasePool.Lease lease = null;
             JackcessStatement stmt = null;
             JackcessResultSet rs = null;
             try {
-                conn = new DatabaseBuilder(paths.resolveFilePath(file)).setReadOnly(true).open();
-                conn.setDateTimeType(DateTimeType.DATE);
-                stmt = new JackcessStatement(conn, range);
+                lease = JackcessDatabasePool.getDefault().lease(paths.resolveFilePath(file), options.getChannel());
+                stmt = new JackcessStatement(lease, toRange.apply(lease.getVersion()), options);
                 DbBasicSelect query = getQuery();
                 rs = stmt.executeQuery(query);
-                return process(rs, asCloseable(rs, stmt, conn));
+                return process(rs, lease.getVersion(), asCloseable(rs, stmt, lease));
             } catch (IOException ex) {
-                closeAll(ex, rs, stmt, conn);
+                closeAll(ex, rs, stmt, lease);
                 throw ex;
             }
         }
@@ -206,9 +464,9 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
         private final CubeId ref;
         private final String table;
         private final String label;
-        private final Map<CubeId, Range<RowId>> rangeIndex;
+        private final JackcessRangeIndex rangeIndex;
 
-        AllSeriesQuery(CubeId id, String table, String label, Map<CubeId, Range<RowId>> rangeIndex) {
+        AllSeriesQuery(CubeId id, String table, String label, JackcessRangeIndex rangeIndex) {
             this.ref = id;
             this.table = table;
             this.label = label;
@@ -226,11 +484,11 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
         }
 
         @Override
-        public TableAsCubeAccessor.AllSeriesCursor process(JackcessResultSet rs, AutoCloseable closeable) throws IOException {
+        public TableAsCubeAccessor.AllSeriesCursor process(JackcessResultSet rs, FileVersion version, AutoCloseable closeable) throws IOException {
             JackcessFunc<String[]> toDimValues = onGetStringArray(0, ref.getDepth());
             JackcessFunc<String> toLabel = !label.isEmpty() ? onGetObjectToString(1) : onNull();
 
-            return JackcessTableAsCubeUtil.allSeriesCursor(rs, closeable, toDimValues, toLabel, ref, rangeIndex);
+            return JackcessTableAsCubeUtil.allSeriesCursor(rs, flushing(rangeIndex, closeable), toDimValues, toLabel, ref, onRange(rangeIndex, version));
         }
     }
 
@@ -258,10 +516,10 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
         }
 
         @Override
-        public TableAsCubeAccessor.AllSeriesWithDataCursor<Date> process(JackcessResultSet rs, AutoCloseable closeable) throws IOException {
-            JackcessFunc<String[]> toDimValues = onGetStringArray(0, ref.getDepth());
-            JackcessFunc<java.util.Date> toPeriod = onDate(rs, ref.getDepth(), tdp.getObsFormat().dateParser().orElse(yearFreqPosParser()));
-            JackcessFunc<Number> toValue = onNumber(rs, ref.getDepth() + 1, tdp.getObsFormat().numberParser());
+        public TableAsCubeAccessor.AllSeriesWithDataCursor<Date> process(JackcessResultSet rs, FileVersion version, AutoCloseable closeable) throws IOException {
+            JackcessFunc<String[]> toDimValues = onGetStringArrayIfChanged(0, ref.getDepth());
+            JackcessFunc.OfLong toPeriod = onDateMillis(rs, ref.getDepth(), tdp.getObsFormat().dateParser().orElse(yearFreqPosParser()));
+            JackcessFunc.OfDouble toValue = onDouble(rs, ref.getDepth() + 1, tdp.getObsFormat().numberParser());
             JackcessFunc<String> toLabel = !label.isEmpty() ? onGetObjectToString(ref.getDepth() + 2) : onNull();
 
             return JackcessTableAsCubeUtil.allSeriesWithDataCursor(rs, closeable, toDimValues, toPeriod, toValue, toLabel, ref);
@@ -292,9 +550,9 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
         }
 
         @Override
-        public TableAsCubeAccessor.SeriesWithDataCursor<Date> process(JackcessResultSet rs, AutoCloseable closeable) throws IOException {
-            JackcessFunc<Date> toPeriod = onDate(rs, 0, tdp.getObsFormat().dateParser().orElse(yearFreqPosParser()));
-            JackcessFunc<Number> toValue = onNumber(rs, 1, tdp.getObsFormat().numberParser());
+        public TableAsCubeAccessor.SeriesWithDataCursor<Date> process(JackcessResultSet rs, FileVersion version, AutoCloseable closeable) throws IOException {
+            JackcessFunc.OfLong toPeriod = onDateMillis(rs, 0, tdp.getObsFormat().dateParser().orElse(yearFreqPosParser()));
+            JackcessFunc.OfDouble toValue = onDouble(rs, 1, tdp.getObsFormat().numberParser());
             JackcessFunc<String> toLabel = !label.isEmpty() ? onGetObjectToString(2) : onNull();
 
             return JackcessTableAsCubeUtil.seriesWithDataCursor(rs, closeable, toPeriod, toValue, toLabel, ref);
@@ -305,9 +563,9 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
 
         private final CubeId ref;
         private final String table;
-        private final Map<CubeId, Range<RowId>> rangeIndex;
+        private final JackcessRangeIndex rangeIndex;
 
-        ChildrenQuery(CubeId id, String table, Map<CubeId, Range<RowId>> rangeIndex) {
+        ChildrenQuery(CubeId id, String table, JackcessRangeIndex rangeIndex) {
             this.ref = id;
             this.table = table;
             this.rangeIndex = rangeIndex;
@@ -325,10 +583,10 @@ public final class JackcessTableAsCubeResource implements TableAsCubeAccessor.Re
         }
 
         @Override
-        public TableAsCubeAccessor.ChildrenCursor process(JackcessResultSet rs, AutoCloseable closeable) throws IOException {
+        public TableAsCubeAccessor.ChildrenCursor process(JackcessResultSet rs, FileVersion version, AutoCloseable closeable) throws IOException {
             JackcessFunc<String> toChild = onGetObjectToString(0);
 
-            return JackcessTableAsCubeUtil.childrenCursor(rs, closeable, toChild, ref, rangeIndex);
+            return JackcessTableAsCubeUtil.childrenCursor(rs, flushing(rangeIndex, closeable), toChild, ref, onRange(rangeIndex, version));
         }
     }
 }
@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -43,19 +44,19 @@ class JackcessTableAsCubeUtil {
 
     final Collector<? super String, ?, String> LABEL_COLLECTOR = Collectors.joining(", ");
 
-    AllSeriesCursor allSeriesCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<String[]> toDimValues, JackcessFunc<String> toLabel, CubeId ref, Map<CubeId, Range<RowId>> rangeIndex) {
+    AllSeriesCursor allSeriesCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<String[]> toDimValues, JackcessFunc<String> toLabel, CubeId ref, BiConsumer<CubeId, Range<RowId>> rangeIndex) {
         return new ResultSetAllSeriesCursor(rs, closeable, toDimValues, toLabel, ref, rangeIndex);
     }
 
-    AllSeriesWithDataCursor<Date> allSeriesWithDataCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<String[]> toDimValues, JackcessFunc<Date> toPeriod, JackcessFunc<Number> toValue, JackcessFunc<String> toLabel, CubeId ref) {
+    AllSeriesWithDataCursor<Date> allSeriesWithDataCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<String[]> toDimValues, JackcessFunc.OfLong toPeriod, JackcessFunc.OfDouble toValue, JackcessFunc<String> toLabel, CubeId ref) {
         return new ResultSetAllSeriesWithDataCursor(rs, closeable, toDimValues, toPeriod, toValue, toLabel, ref);
     }
 
-    SeriesWithDataCursor<Date> seriesWithDataCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<Date> toPeriod, JackcessFunc<Number> toValue, JackcessFunc<String> toLabel, CubeId ref) {
+    SeriesWithDataCursor<Date> seriesWithDataCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc.OfLong toPeriod, JackcessFunc.OfDouble toValue, JackcessFunc<String> toLabel, CubeId ref) {
         return new ResultSetSeriesWithDataCursor(rs, closeable, toPeriod, toValue, toLabel, ref);
     }
 
-    ChildrenCursor childrenCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<String> toChild, CubeId ref, Map<CubeId, Range<RowId>> rangeIndex) {
+    ChildrenCursor childrenCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<String> toChild, CubeId ref, BiConsumer<CubeId, Range<RowId>> rangeIndex) {
         return new ResultSetChildrenCursor(rs, closeable, toChild, ref, rangeIndex);
     }
 
@@ -112,11 +113,11 @@ class JackcessTableAsCubeUtil {
         private final JackcessFunc<String[]> toDimValues;
         private final JackcessFunc<String> toLabel;
         private final CubeId ref;
-        private final Map<CubeId, Range<RowId>> rangeIndex;
+        private final BiConsumer<CubeId, Range<RowId>> rangeIndex;
         private String[] dimValues;
         private String label;
 
-        private ResultSetAllSeriesCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<String[]> toDimValues, JackcessFunc<String> toLabel, CubeId ref, Map<CubeId, Range<RowId>> rangeIndex) {
+        private ResultSetAllSeriesCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<String[]> toDimValues, JackcessFunc<String> toLabel, CubeId ref, BiConsumer<CubeId, Range<RowId>> rangeIndex) {
             super(rs, closeable);
             this.toDimValues = toDimValues;
             this.toLabel = toLabel;
@@ -140,23 +141,22 @@ class JackcessTableAsCubeUtil {
         protected void processRow(JackcessResultSet rs) throws IOException {
             dimValues = toDimValues.apply(rs);
             label = toLabel.apply(rs);
-            rangeIndex.put(ref.child(dimValues), rs.getRange());
+            rangeIndex.accept(ref.child(dimValues), rs.getRange());
         }
     }
 
     private static final class ResultSetAllSeriesWithDataCursor extends ResultSetSeriesCursor implements AllSeriesWithDataCursor<Date> {
 
         private final JackcessFunc<String[]> toDimValues;
-        private final JackcessFunc<Date> toPeriod;
-        private final JackcessFunc<Number> toValue;
+        private final JackcessFunc.OfLong toPeriod;
+        private final JackcessFunc.OfDouble toValue;
         private final JackcessFunc<String> toLabel;
         private final CubeId ref;
         private String[] dimValues;
-        private java.util.Date period;
-        private Number value;
+        private final Obs obs;
         private String label;
 
-        private ResultSetAllSeriesWithDataCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<String[]> toDimValues, JackcessFunc<Date> toPeriod, JackcessFunc<Number> toValue, JackcessFunc<String> toLabel, CubeId ref) {
+        private ResultSetAllSeriesWithDataCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<String[]> toDimValues, JackcessFunc.OfLong toPeriod, JackcessFunc.OfDouble toValue, JackcessFunc<String> toLabel, CubeId ref) {
             super(rs, closeable);
             this.toDimValues = toDimValues;
             this.toPeriod = toPeriod;
@@ -164,8 +164,7 @@ class JackcessTableAsCubeUtil {
             this.toLabel = toLabel;
             this.ref = ref;
             this.dimValues = null;
-            this.period = null;
-            this.value = null;
+            this.obs = new Obs();
             this.label = null;
         }
 
@@ -181,41 +180,38 @@ class JackcessTableAsCubeUtil {
 
         @Override
         public java.util.Date getPeriod() throws Exception {
-            return period;
+            return obs.getPeriod();
         }
 
         @Override
         public Number getValue() throws Exception {
-            return value;
+            return obs.getValue();
         }
 
         @Override
         protected void processRow(JackcessResultSet rs) throws IOException {
             dimValues = toDimValues.apply(rs);
-            period = toPeriod.apply(rs);
-            value = period != null ? toValue.apply(rs) : null;
+            obs.read(rs, toPeriod, toValue);
             label = toLabel.apply(rs);
         }
     }
 
     private static final class ResultSetSeriesWithDataCursor extends ResultSetSeriesCursor implements SeriesWithDataCursor<Date> {
 
-        private final JackcessFunc<Date> toPeriod;
-        private final JackcessFunc<Number> toValue;
+        private final JackcessFunc.OfLong toPeriod;
+        private final JackcessFunc.OfDouble toValue;
         private final JackcessFunc<String> toLabel;
         private final CubeId ref;
-        private java.util.Date period;
-        private Number value;
+        private final Obs obs;
         private String label;
 
-        private ResultSetSeriesWithDataCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<Date> toPeriod, JackcessFunc<Number> toValue, JackcessFunc<String> toLabel, CubeId ref) {
+        private ResultSetSeriesWithDataCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc.OfLong toPeriod, JackcessFunc.OfDouble toValue, JackcessFunc<String> toLabel, CubeId ref) {
             super(rs, closeable);
             this.toPeriod = toPeriod;
             this.toValue = toValue;
             this.toLabel = toLabel;
             this.ref = ref;
-            this.period = null;
-            this.value = null;
+            this.obs = new Obs();
             this.label = null;
         }
 
@@ -226,30 +222,58 @@ class JackcessTableAsCubeUtil {
 
         @Override
         public java.util.Date getPeriod() throws Exception {
-            return period;
+            return obs.getPeriod();
         }
 
         @Override
         public Number getValue() throws Exception {
-            return value;
+            return obs.getValue();
         }
 
         @Override
         protected void processRow(JackcessResultSet rs) throws IOException {
-            period = toPeriod.apply(rs);
-            value = period != null ? toValue.apply(rs) : null;
+            obs.read(rs, toPeriod, toValue);
             label = toLabel.apply(rs);
         }
     }
 
+    /**
+     * An observation read as primitives; the period and the value are only
+     * boxed when asked by the consumer of the cursor.
+     */
+    private static final class Obs {
+
+        private long periodMillis = JackcessFunc.NO_DATE;
+        private double value = Double.NaN;
+        private java.util.Date period = null;
+
+        void read(JackcessResultSet rs, JackcessFunc.OfLong toPeriod, JackcessFunc.OfDouble toValue) throws IOException {
+            periodMillis = toPeriod.applyAsLong(rs);
+            value = periodMillis != JackcessFunc.NO_DATE ? toValue.applyAsDouble(rs) : Double.NaN;
+            period = null;
+        }
+
+        java.util.Date getPeriod() {
+            // consumers keep the period of the previous row so it cannot be a reused instance
+            if (period == null && periodMillis != JackcessFunc.NO_DATE) {
+                period = new java.util.Date(periodMillis);
+            }
+            return period;
+        }
+
+        Number getValue() {
+            return !Double.isNaN(value) ? value : null;
+        }
+    }
+
     private static final class ResultSetChildrenCursor extends ResultSetTableCursor implements ChildrenCursor {
 
         private final JackcessFunc<String> toChild;
         private final CubeId ref;
-        private final Map<CubeId, Range<RowId>> rangeIndex;
+        private final BiConsumer<CubeId, Range<RowId>> rangeIndex;
         private String child;
 
-        private ResultSetChildrenCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<String> toChild, CubeId ref, Map<CubeId, Range<RowId>> rangeIndex) {
+        private ResultSetChildrenCursor(JackcessResultSet rs, AutoCloseable closeable, JackcessFunc<String> toChild, CubeId ref, BiConsumer<CubeId, Range<RowId>> rangeIndex) {
             super(rs, closeable);
             this.toChild = toChild;
             this.ref = ref;
@@ -265,7 +289,7 @@ class JackcessTableAsCubeUtil {
         @Override
         protected void processRow(JackcessResultSet rs) throws IOException {
             child = toChild.apply(rs);
-            rangeIndex.put(ref.child(child), rs.getRange());
+            rangeIndex.accept(ref.child(child), rs.getRange());
         }
     }
     //</editor-fold>
@@ -0,0 +1,727 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.demetra.jackcess;
+
+import ec.tss.tsproviders.cube.CubeId;
+import ec.tss.tsproviders.cube.TableAsCubeAccessor.AllSeriesCursor;
+import ec.tss.tsproviders.cube.TableAsCubeAccessor.AllSeriesWithDataCursor;
+import ec.tss.tsproviders.cube.TableAsCubeAccessor.ChildrenCursor;
+import ec.tss.tsproviders.cube.TableAsCubeAccessor.SeriesWithDataCursor;
+import ec.tss.tsproviders.cube.TableAsCubeAccessor.TableCursor;
+import ec.tss.tsproviders.cube.TableDataParams;
+import static ec.tss.tsproviders.utils.StrangeParsers.yearFreqPosParser;
+import static internal.demetra.jackcess.JackcessFunc.onDateMillis;
+import static internal.demetra.jackcess.JackcessFunc.onDouble;
+import com.healthmarketscience.jackcess.Database;
+import internal.jackcess.FileVersion;
+import internal.jackcess.JackcessResultSet;
+import internal.jackcess.JackcessStatement;
+import internal.jackcess.JackcessStatementOptions;
+import internal.xdb.DbBasicSelect;
+import internal.xdb.DbRawDataUtil;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A columnar copy of a table that answers all the cube queries of a file
+ * version.
+ * <p>
+ * Dimensions, periods, versions and labels are dictionary-encoded with codes
+ * that follow the order of their values so that rows can be sorted once on
+ * (dimensions, period, version) at load time. A cube id then matches a
+ * contiguous block of rows that is found by binary search and that is already
+ * in the order expected by every query.
+ *
+ * @author Philippe Charles
+ */
+@lombok.extern.slf4j.Slf4j
+final class JackcessTableSnapshot {
+
+    @NonNull
+    static JackcessTableSnapshot load(
+            @NonNull Database database,
+            @NonNull FileVersion version,
+            @NonNull String table,
+            @NonNull CubeId root,
+            @NonNull TableDataParams tdp,
+            @NonNull String labelColumn,
+            @NonNull JackcessStatementOptions options) throws IOException {
+
+        String[] dimColumns = new String[root.getMaxLevel()];
+        for (int i = 0; i < dimColumns.length; i++) {
+            dimColumns[i] = root.getDimensionId(i);
+        }
+
+        DbBasicSelect query = DbBasicSelect.from(table)
+                .select(dimColumns)
+                .select(tdp.getPeriodColumn(), tdp.getValueColumn())
+                .select(tdp.getVersionColumn())
+                .select(labelColumn)
+                .build();
+
+        int periodIndex = dimColumns.length;
+        int valueIndex = periodIndex + 1;
+        int versionIndex = !tdp.getVersionColumn().isEmpty() ? valueIndex + 1 : -1;
+        int labelIndex = !labelColumn.isEmpty() ? Math.max(valueIndex, versionIndex) + 1 : -1;
+
+        Loader loader = new Loader(dimColumns.length);
+        try (JackcessStatement stmt = new JackcessStatement(database, null, options)) {
+            try (JackcessResultSet rs = stmt.executeQuery(query)) {
+                JackcessFunc.OfLong toPeriod = onDateMillis(rs, periodIndex, tdp.getObsFormat().dateParser().orElse(yearFreqPosParser()));
+                JackcessFunc.OfDouble toValue = onDouble(rs, valueIndex, tdp.getObsFormat().numberParser());
+                while (rs.next()) {
+                    loader.add(rs, toPeriod, toValue, versionIndex, labelIndex);
+                }
+            }
+        }
+        JackcessTableSnapshot result = loader.build(version, versionIndex != -1, labelIndex != -1);
+        log.debug("Snapshot of '{}' loaded with {} rows", table, result.size);
+        return result;
+    }
+
+    @lombok.Getter
+    private final FileVersion version;
+    private final int size;
+    private final int[][] dims;
+    private final String[][] dimNames;
+    private final Map<String, Integer>[] dimCodes;
+    private final int[] periods;
+    private final Date[] periodDates;
+    private final BitSet missingPeriods;
+    private final double[] values;
+    private final BitSet missingValues;
+    private final int[] versions;
+    private final int[] labels;
+    private final String[] labelNames;
+    private final int[] tableOrder;
+
+    private JackcessTableSnapshot(FileVersion version, int size, int[][] dims, String[][] dimNames, int[] periods, long[] periodMillis, BitSet missingPeriods, double[] values, BitSet missingValues, int[] versions, int[] labels, String[] labelNames, int[] tableOrder) {
+        this.version = version;
+        this.size = size;
+        this.dims = dims;
+        this.dimNames = dimNames;
+        this.dimCodes = new Map[dimNames.length];
+        for (int i = 0; i < dimNames.length; i++) {
+            dimCodes[i] = new HashMap<>();
+            for (int code = 0; code < dimNames[i].length; code++) {
+                dimCodes[i].put(dimNames[i][code], code);
+            }
+        }
+        this.periods = periods;
+        // dates are shared by all the rows of a period to avoid an allocation per observation
+        this.periodDates = new Date[periodMillis.length];
+        for (int code = 0; code < periodMillis.length; code++) {
+            periodDates[code] = missingPeriods.get(code) ? null : new Date(periodMillis[code]);
+        }
+        this.missingPeriods = missingPeriods;
+        this.values = values;
+        this.missingValues = missingValues;
+        this.versions = versions;
+        this.labels = labels;
+        this.labelNames = labelNames;
+        this.tableOrder = tableOrder;
+    }
+
+    @NonNull
+    AllSeriesCursor getAllSeriesCursor(@NonNull CubeId ref) {
+        return new SnapshotAllSeriesCursor(ref, getBlock(ref));
+    }
+
+    @NonNull
+    AllSeriesWithDataCursor<Date> getAllSeriesWithDataCursor(@NonNull CubeId ref) {
+        return new SnapshotAllSeriesWithDataCursor(ref, getBlock(ref));
+    }
+
+    @NonNull
+    SeriesWithDataCursor<Date> getSeriesWithDataCursor(@NonNull CubeId ref) {
+        return new SnapshotSeriesWithDataCursor(ref, getBlock(ref));
+    }
+
+    @NonNull
+    ChildrenCursor getChildrenCursor(@NonNull CubeId ref) {
+        return new SnapshotChildrenCursor(ref, getBlock(ref));
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    static final Comparator<Object> VALUE_ORDERING = Comparator.nullsFirst(JackcessTableSnapshot::compareValues);
+
+    private static int compareValues(Object l, Object r) {
+        return getDataType(l) == getDataType(r)
+                ? getDataType(l).compare(l, r)
+                : DbRawDataUtil.SuperDataType.OTHER.compare(l, r);
+    }
+
+    private static DbRawDataUtil.SuperDataType getDataType(Object value) {
+        return value instanceof byte[] ? DbRawDataUtil.SuperDataType.BYTE_ARRAY
+                : value instanceof Comparable ? DbRawDataUtil.SuperDataType.COMPARABLE
+                : DbRawDataUtil.SuperDataType.OTHER;
+    }
+
+    private int[] getBlock(CubeId ref) {
+        int from = 0;
+        int to = size;
+        for (int i = 0; i < ref.getLevel() && from < to; i++) {
+            Integer code = dimCodes[i].get(ref.getDimensionValue(i));
+            if (code == null) {
+                return new int[]{0, 0};
+            }
+            int lower = lowerBound(dims[i], from, to, code);
+            to = upperBound(dims[i], lower, to, code);
+            from = lower;
+        }
+        return new int[]{from, to};
+    }
+
+    private static int lowerBound(int[] codes, int from, int to, int code) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (codes[mid] < code) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int upperBound(int[] codes, int from, int to, int code) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (codes[mid] <= code) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int getSeriesEnd(int row, int level, int to) {
+        int result = to;
+        for (int i = level; i < dims.length; i++) {
+            result = upperBound(dims[i], row, result, dims[i][row]);
+        }
+        return result;
+    }
+
+    private String[] getDimValuesAt(int row, int level) {
+        String[] result = new String[dims.length - level];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = dimNames[level + i][dims[level + i][row]];
+        }
+        return result;
+    }
+
+    private Date getPeriod(int row) {
+        return periodDates[periods[row]];
+    }
+
+    private Number getValue(int row) {
+        return missingPeriods.get(periods[row]) || missingValues.get(row) ? null : values[row];
+    }
+
+    private String getLabel(int row) {
+        return labels != null ? labelNames[labels[row]] : null;
+    }
+
+    private static abstract class SnapshotTableCursor implements TableCursor {
+
+        private boolean closed = false;
+
+        @Override
+        public boolean isClosed() throws Exception {
+            return closed;
+        }
+
+        @Override
+        public void close() throws Exception {
+            closed = true;
+        }
+    }
+
+    private final class SnapshotAllSeriesCursor extends SnapshotTableCursor implements AllSeriesCursor {
+
+        private final CubeId ref;
+        private final int to;
+        private int pos;
+        private int end;
+        private int[] seriesLabels;
+        private int labelIndex;
+        private String[] dimValues;
+        private String label;
+
+        private SnapshotAllSeriesCursor(CubeId ref, int[] block) {
+            this.ref = ref;
+            this.pos = block[0];
+            this.to = block[1];
+            this.end = pos;
+            this.seriesLabels = new int[0];
+            this.labelIndex = 0;
+            this.dimValues = null;
+            this.label = null;
+        }
+
+        @Override
+        public boolean nextRow() throws Exception {
+            if (labelIndex < seriesLabels.length) {
+                label = seriesLabels[labelIndex] != -1 ? labelNames[seriesLabels[labelIndex]] : null;
+                labelIndex++;
+                return true;
+            }
+            pos = end;
+            if (pos >= to) {
+                return false;
+            }
+            end = getSeriesEnd(pos, ref.getLevel(), to);
+            dimValues = getDimValuesAt(pos, ref.getLevel());
+            seriesLabels = labels != null ? Arrays.stream(labels, pos, end).distinct().sorted().toArray() : new int[]{-1};
+            labelIndex = 0;
+            return nextRow();
+        }
+
+        @Override
+        public Map<String, String> getMetaData() throws Exception {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public String getLabel() throws Exception {
+            return label != null ? label : Stream.concat(ref.getDimensionValueStream(), Stream.of(dimValues)).collect(JackcessTableAsCubeUtil.LABEL_COLLECTOR);
+        }
+
+        @Override
+        public String[] getDimValues() throws Exception {
+            return dimValues;
+        }
+    }
+
+    private final class SnapshotAllSeriesWithDataCursor extends SnapshotTableCursor implements AllSeriesWithDataCursor<Date> {
+
+        private final CubeId ref;
+        private final int to;
+        private int pos;
+        private int end;
+        private String[] dimValues;
+
+        private SnapshotAllSeriesWithDataCursor(CubeId ref, int[] block) {
+            this.ref = ref;
+            this.pos = block[0] - 1;
+            this.to = block[1];
+            this.end = block[0];
+            this.dimValues = null;
+        }
+
+        @Override
+        public boolean nextRow() throws Exception {
+            if (++pos >= to) {
+                return false;
+            }
+            if (pos >= end) {
+                end = getSeriesEnd(pos, ref.getLevel(), to);
+                dimValues = getDimValuesAt(pos, ref.getLevel());
+            }
+            return true;
+        }
+
+        @Override
+        public Map<String, String> getMetaData() throws Exception {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public String getLabel() throws Exception {
+            String label = JackcessTableSnapshot.this.getLabel(pos);
+            return label != null ? label : Stream.concat(ref.getDimensionValueStream(), Stream.of(dimValues)).collect(JackcessTableAsCubeUtil.LABEL_COLLECTOR);
+        }
+
+        @Override
+        public String[] getDimValues() throws Exception {
+            return dimValues;
+        }
+
+        @Override
+        public Date getPeriod() throws Exception {
+            return JackcessTableSnapshot.this.getPeriod(pos);
+        }
+
+        @Override
+        public Number getValue() throws Exception {
+            return JackcessTableSnapshot.this.getValue(pos);
+        }
+    }
+
+    private final class SnapshotSeriesWithDataCursor extends SnapshotTableCursor implements SeriesWithDataCursor<Date> {
+
+        private final CubeId ref;
+        private final int[] rows;
+        private int index;
+
+        private SnapshotSeriesWithDataCursor(CubeId ref, int[] block) {
+            this.ref = ref;
+            this.rows = ref.getDepth() == 0 ? range(block) : sortByPeriodAndVersion(block);
+            this.index = -1;
+        }
+
+        @Override
+        public boolean nextRow() throws Exception {
+            return ++index < rows.length;
+        }
+
+        @Override
+        public Map<String, String> getMetaData() throws Exception {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public String getLabel() throws Exception {
+            String label = JackcessTableSnapshot.this.getLabel(rows[index]);
+            return label != null ? label : ref.getDimensionValueStream().collect(JackcessTableAsCubeUtil.LABEL_COLLECTOR);
+        }
+
+        @Override
+        public Date getPeriod() throws Exception {
+            return JackcessTableSnapshot.this.getPeriod(rows[index]);
+        }
+
+        @Override
+        public Number getValue() throws Exception {
+            return JackcessTableSnapshot.this.getValue(rows[index]);
+        }
+    }
+
+    private final class SnapshotChildrenCursor extends SnapshotTableCursor implements ChildrenCursor {
+
+        private final int level;
+        private final int to;
+        private int pos;
+        private String child;
+
+        private SnapshotChildrenCursor(CubeId ref, int[] block) {
+            this.level = ref.getLevel();
+            this.pos = block[0];
+            this.to = block[1];
+            this.child = null;
+        }
+
+        @Override
+        public boolean nextRow() throws Exception {
+            if (pos >= to) {
+                return false;
+            }
+            int code = dims[level][pos];
+            child = dimNames[level][code];
+            pos = upperBound(dims[level], pos, to, code);
+            return true;
+        }
+
+        @Override
+        public String getChild() throws Exception {
+            return child;
+        }
+    }
+
+    private static int[] range(int[] block) {
+        int[] result = new int[block[1] - block[0]];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = block[0] + i;
+        }
+        return result;
+    }
+
+    private int[] sortByPeriodAndVersion(int[] block) {
+        // the rows of a block are sorted on dimensions first so ties must be put back in table order
+        long[] keys = new long[block[1] - block[0]];
+        for (int i = 0; i < keys.length; i++) {
+            int row = block[0] + i;
+            keys[i] = (long) tableOrder[row] << 32 | row;
+        }
+        Arrays.sort(keys);
+        int[] rows = new int[keys.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = (int) keys[i];
+        }
+        return versions != null ? sortRows(rows, periods, versions) : sortRows(rows, periods);
+    }
+
+    /**
+     * Sorts rows on some columns of codes with a stable counting sort per
+     * column, from the last column to the first one.
+     *
+     * @param rows the rows to sort, reused as a buffer
+     * @param columns the codes of the columns by row
+     * @return the sorted rows
+     */
+    private static int[] sortRows(int[] rows, int[]... columns) {
+        int[] result = rows;
+        int[] buffer = new int[rows.length];
+        for (int i = columns.length - 1; i >= 0; i--) {
+            int[] codes = columns[i];
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int row : result) {
+                min = Math.min(min, codes[row]);
+                max = Math.max(max, codes[row]);
+            }
+            if (min >= max) {
+                continue;
+            }
+            int[] offsets = new int[max - min + 2];
+            for (int row : result) {
+                offsets[codes[row] - min + 1]++;
+            }
+            for (int code = 1; code < offsets.length; code++) {
+                offsets[code] += offsets[code - 1];
+            }
+            for (int row : result) {
+                buffer[offsets[codes[row] - min]++] = row;
+            }
+            int[] tmp = result;
+            result = buffer;
+            buffer = tmp;
+        }
+        return result;
+    }
+
+    private static final class Loader {
+
+        private final Dictionary[] dimDictionaries;
+        private final Dictionary periodDictionary = new Dictionary();
+        private final Dictionary versionDictionary = new Dictionary();
+        private final Dictionary labelDictionary = new Dictionary();
+        private long[] periodMillis = new long[64];
+        private int periodCount = 0;
+        private final int[][] dims;
+        private int[] periods = new int[1024];
+        private double[] values = new double[1024];
+        private final BitSet missingValues = new BitSet();
+        private int[] versions = new int[1024];
+        private int[] labels = new int[1024];
+        private int size = 0;
+
+        private Loader(int dimCount) {
+            this.dimDictionaries = new Dictionary[dimCount];
+            this.dims = new int[dimCount][1024];
+            for (int i = 0; i < dimCount; i++) {
+                dimDictionaries[i] = new Dictionary();
+            }
+        }
+
+        private void add(JackcessResultSet rs, JackcessFunc.OfLong toPeriod, JackcessFunc.OfDouble toValue, int versionIndex, int labelIndex) throws IOException {
+            if (size == periods.length) {
+                grow();
+            }
+            for (int i = 0; i < dims.length; i++) {
+                Object value = rs.getValue(i);
+                dims[i][size] = dimDictionaries[i].add(JackcessFunc.toString(value), value);
+            }
+            Object period = rs.getValue(dims.length);
+            int periodId = periodDictionary.add(period, period);
+            if (periodId == periodCount) {
+                if (periodCount == periodMillis.length) {
+                    periodMillis = Arrays.copyOf(periodMillis, periodCount * 2);
+                }
+                periodMillis[periodCount++] = toPeriod.applyAsLong(rs);
+            }
+            periods[size] = periodId;
+            double value = periodMillis[periodId] != JackcessFunc.NO_DATE ? toValue.applyAsDouble(rs) : Double.NaN;
+            if (!Double.isNaN(value)) {
+                values[size] = value;
+            } else {
+                missingValues.set(size);
+            }
+            if (versionIndex != -1) {
+                Object version = rs.getValue(versionIndex);
+                versions[size] = versionDictionary.add(version, version);
+            }
+            if (labelIndex != -1) {
+                Object label = rs.getValue(labelIndex);
+                labels[size] = labelDictionary.add(JackcessFunc.toString(label), label);
+            }
+            size++;
+        }
+
+        private void grow() {
+            int capacity = periods.length * 2;
+            for (int i = 0; i < dims.length; i++) {
+                dims[i] = Arrays.copyOf(dims[i], capacity);
+            }
+            periods = Arrays.copyOf(periods, capacity);
+            values = Arrays.copyOf(values, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+        }
+
+        private JackcessTableSnapshot build(FileVersion version, boolean hasVersion, boolean hasLabel) {
+            int[][] dimRanks = new int[dims.length][];
+            String[][] dimNames = new String[dims.length][];
+            for (int i = 0; i < dims.length; i++) {
+                dimRanks[i] = dimDictionaries[i].toRanks();
+                dimNames[i] = dimDictionaries[i].toNames(dimRanks[i]);
+                recode(dims[i], dimRanks[i]);
+            }
+
+            int[] periodRanks = periodDictionary.toRanks();
+            recode(periods, periodRanks);
+            long[] sortedPeriodMillis = new long[periodRanks.length];
+            BitSet missingPeriods = new BitSet();
+            for (int id = 0; id < periodRanks.length; id++) {
+                if (periodMillis[id] != JackcessFunc.NO_DATE) {
+                    sortedPeriodMillis[periodRanks[id]] = periodMillis[id];
+                } else {
+                    missingPeriods.set(periodRanks[id]);
+                }
+            }
+
+            if (hasVersion) {
+                recode(versions, versionDictionary.toRanks());
+            }
+
+            String[] labelNames = null;
+            if (hasLabel) {
+                int[] labelRanks = labelDictionary.toRanks();
+                labelNames = labelDictionary.toNames(labelRanks);
+                recode(labels, labelRanks);
+            }
+
+            int[] order = sort(hasVersion);
+
+            int[][] sortedDims = new int[dims.length][];
+            for (int i = 0; i < dims.length; i++) {
+                sortedDims[i] = permute(dims[i], order);
+            }
+            double[] sortedValues = new double[size];
+            BitSet sortedMissingValues = new BitSet();
+            for (int i = 0; i < size; i++) {
+                sortedValues[i] = values[order[i]];
+                if (missingValues.get(order[i])) {
+                    sortedMissingValues.set(i);
+                }
+            }
+
+            return new JackcessTableSnapshot(version, size,
+                    sortedDims, dimNames,
+                    permute(periods, order), sortedPeriodMillis, missingPeriods,
+                    sortedValues, sortedMissingValues,
+                    hasVersion ? permute(versions, order) : null,
+                    hasLabel ? permute(labels, order) : null, labelNames,
+                    order);
+        }
+
+        private int[] sort(boolean hasVersion) {
+            int[][] columns = Arrays.copyOf(dims, dims.length + (hasVersion ? 2 : 1));
+            columns[dims.length] = periods;
+            if (hasVersion) {
+                columns[dims.length + 1] = versions;
+            }
+            int[] rows = new int[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = i;
+            }
+            // stable sort so that ties keep the table order
+            return sortRows(rows, columns);
+        }
+
+        private void recode(int[] ids, int[] ranks) {
+            for (int i = 0; i < size; i++) {
+                ids[i] = ranks[ids[i]];
+            }
+        }
+
+        private int[] permute(int[] array, int[] order) {
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = array[order[i]];
+            }
+            return result;
+        }
+    }
+
+    private static final class Dictionary {
+
+        private final Map<Object, Integer> ids = new HashMap<>();
+        private final List<Object> keys = new ArrayList<>();
+        private final List<Object> values = new ArrayList<>();
+
+        private int add(Object key, Object value) {
+            Integer result = ids.get(key);
+            if (result == null) {
+                result = keys.size();
+                ids.put(key, result);
+                keys.add(key);
+                values.add(value);
+            }
+            return result;
+        }
+
+        private int[] toRanks() {
+            int[] sorted = new int[values.size()];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = i;
+            }
+            mergeSort(sorted.clone(), sorted, 0, sorted.length);
+            int[] result = new int[sorted.length];
+            for (int rank = 0; rank < sorted.length; rank++) {
+                result[sorted[rank]] = rank;
+            }
+            return result;
+        }
+
+        // stable merge sort of ids on their values, without boxing the ids
+        private void mergeSort(int[] src, int[] dest, int low, int high) {
+            if (high - low < 2) {
+                return;
+            }
+            int mid = (low + high) >>> 1;
+            mergeSort(dest, src, low, mid);
+            mergeSort(dest, src, mid, high);
+            for (int i = low, p = low, q = mid; i < high; i++) {
+                if (q >= high || (p < mid && compare(src[p], src[q]) <= 0)) {
+                    dest[i] = src[p++];
+                } else {
+                    dest[i] = src[q++];
+                }
+            }
+        }
+
+        private int compare(int l, int r) {
+            return VALUE_ORDERING.compare(values.get(l), values.get(r));
+        }
+
+        private String[] toNames(int[] ranks) {
+            String[] result = new String[ranks.length];
+            for (int id = 0; id < ranks.length; id++) {
+                result[ranks[id]] = (String) keys.get(id);
+            }
+            return result;
+        }
+    }
+    //</editor-fold>
+}
@@ -16,23 +16,39 @@
  */
 package internal.demetra.jackcess;
 
+import com.healthmarketscience.jackcess.Column;
 import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.CursorBuilder;
 import com.healthmarketscience.jackcess.DataType;
 import com.healthmarketscience.jackcess.Database;
 import com.healthmarketscience.jackcess.DatabaseBuilder;
+import com.healthmarketscience.jackcess.Index;
+import com.healthmarketscience.jackcess.IndexBuilder;
+import com.healthmarketscience.jackcess.IndexCursor;
+import com.healthmarketscience.jackcess.Row;
 import com.healthmarketscience.jackcess.Table;
 import com.healthmarketscience.jackcess.TableBuilder;
 import ec.tss.TsCollectionInformation;
 import ec.tss.TsInformation;
 import ec.tstoolkit.timeseries.simplets.TsObservation;
 import ec.tstoolkit.timeseries.simplets.TsPeriod;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
-import java.util.function.BiFunction;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import static java.util.Arrays.asList;
 
 /**
  *
@@ -42,17 +58,45 @@ import java.util.function.Function;
 public class JackcessTsExport {
 
     public enum WriteOption {
-        APPEND, TRUNCATE_EXISTING;
+        APPEND, TRUNCATE_EXISTING,
+        /**
+         * Updates the existing observations whose value changed and inserts
+         * the new ones through the primary key of the table.
+         *
+         * @see #mergeContent(Table, RowWriter, TsCollectionInformation,
+         * String, String, String, String, int)
+         */
+        MERGE;
     }
 
     public Database getDatabase(File file, Database.FileFormat fileFormat, WriteOption writeOption) throws IOException {
-        return file.exists() && writeOption == WriteOption.APPEND
+        return file.exists() && writeOption != WriteOption.TRUNCATE_EXISTING
                 ? DatabaseBuilder.open(file)
                 : DatabaseBuilder.create(fileFormat, file);
     }
 
     public Table getTable(Database database, WriteOption writeOption, String tableName, String dimColumn, String periodColumn, String valueColumn, String versionColumn) throws IOException {
-        if (database.getTableNames().contains(tableName) && writeOption == WriteOption.APPEND) {
+        return getTable(database, writeOption, tableName, dimColumn, periodColumn, valueColumn, versionColumn, false);
+    }
+
+    /**
+     * Gets an existing table or creates a new one.
+     *
+     * @param database
+     * @param writeOption
+     * @param tableName
+     * @param dimColumn
+     * @param periodColumn
+     * @param valueColumn
+     * @param versionColumn
+     * @param deferPrimaryKey whether a new table is created without primary
+     * key so that it can be added once filled
+     * @return
+     * @throws IOException
+     * @see #addPrimaryKey(Table, String, String, String)
+     */
+    public Table getTable(Database database, WriteOption writeOption, String tableName, String dimColumn, String periodColumn, String valueColumn, String versionColumn, boolean deferPrimaryKey) throws IOException {
+        if (database.getTableNames().contains(tableName) && writeOption != WriteOption.TRUNCATE_EXISTING) {
             return database.getTable(tableName);
         }
         TableBuilder result = new TableBuilder(tableName);
@@ -61,58 +105,376 @@ public class JackcessTsExport {
         result.addColumn(new ColumnBuilder(valueColumn, DataType.DOUBLE));
         if (!versionColumn.isEmpty()) {
             result.addColumn(new ColumnBuilder(versionColumn, DataType.SHORT_DATE_TIME));
-            result.setPrimaryKey(dimColumn, periodColumn, versionColumn);
-        } else {
-            result.setPrimaryKey(dimColumn, periodColumn);
+        }
+        if (!deferPrimaryKey) {
+            result.setPrimaryKey(getKeyColumns(dimColumn, periodColumn, versionColumn));
         }
         return result.toTable(database);
     }
 
-    public BiFunction<String, TsObservation, Object[]> getRowFunc(Table table, boolean beginPeriod, String dimColumn, String periodColumn, String valueColumn, String versionColumn) {
-        final Function<TsPeriod, Date> toDate = beginPeriod ? TsPeriodDateFunc.FIRST : TsPeriodDateFunc.LAST;
+    /**
+     * Adds the primary key of a table created with a deferred primary key.
+     * The index is built from the existing rows.
+     *
+     * @param table
+     * @param dimColumn
+     * @param periodColumn
+     * @param versionColumn
+     * @throws IOException if the rows violate the primary key
+     */
+    public void addPrimaryKey(Table table, String dimColumn, String periodColumn, String versionColumn) throws IOException {
+        new IndexBuilder(IndexBuilder.PRIMARY_KEY_NAME)
+                .addColumns(getKeyColumns(dimColumn, periodColumn, versionColumn))
+                .setPrimaryKey()
+                .addToTable(table);
+    }
 
-        final int columnCount = table.getColumnCount();
+    /**
+     * Writes a collection into a new table whose primary key is built once
+     * all the rows are inserted.
+     * <p>
+     * Series are written by name so that the rows are inserted in the order
+     * of the primary key. This avoids maintaining the index on each batch of
+     * rows.
+     *
+     * @param database
+     * @param tableName the name of a table that does not exist
+     * @param beginPeriod
+     * @param dimColumn
+     * @param periodColumn
+     * @param valueColumn
+     * @param versionColumn
+     * @param col
+     * @param batchSize
+     * @return the new table
+     * @throws IOException
+     */
+    public Table bulkLoad(Database database, String tableName, boolean beginPeriod, String dimColumn, String periodColumn, String valueColumn, String versionColumn, TsCollectionInformation col, int batchSize) throws IOException {
+        Table result = getTable(database, WriteOption.TRUNCATE_EXISTING, tableName, dimColumn, periodColumn, valueColumn, versionColumn, true);
+        writeContent(result, getRowWriter(result, beginPeriod, dimColumn, periodColumn, valueColumn, versionColumn), sortByName(col), batchSize);
+        addPrimaryKey(result, dimColumn, periodColumn, versionColumn);
+        return result;
+    }
+
+    /**
+     * Fills a row of a table with an observation.
+     */
+    @FunctionalInterface
+    public interface RowWriter {
+
+        /**
+         * Fills a row that may have been used for a previous observation.
+         *
+         * @param row an array of the size of the table columns
+         * @param name
+         * @param obs
+         */
+        void write(Object[] row, String name, TsObservation obs);
+    }
+
+    public RowWriter getRowWriter(Table table, boolean beginPeriod, String dimColumn, String periodColumn, String valueColumn, String versionColumn) {
+        final Function<TsPeriod, Date> toDate = beginPeriod ? TsPeriodDateFunc.FIRST : TsPeriodDateFunc.LAST;
 
         final int dimIndex = table.getColumn(dimColumn).getColumnIndex();
         final int periodIndex = table.getColumn(periodColumn).getColumnIndex();
         final int valueIndex = table.getColumn(valueColumn).getColumnIndex();
 
         if (versionColumn.isEmpty()) {
-            return (name, obs) -> {
-                Object[] result = new Object[columnCount];
-                result[dimIndex] = name;
-                result[periodIndex] = toDate.apply(obs.getPeriod());
-                result[valueIndex] = obs.getValue();
-                return result;
+            return (row, name, obs) -> {
+                // other columns may have been filled back by the table, such as auto numbers
+                Arrays.fill(row, null);
+                row[dimIndex] = name;
+                row[periodIndex] = toDate.apply(obs.getPeriod());
+                row[valueIndex] = obs.getValue();
             };
         }
 
         final int versionIndex = table.getColumn(versionColumn).getColumnIndex();
         final Date version = new Date();
 
-        return (name, obs) -> {
-            Object[] result = new Object[columnCount];
-            result[dimIndex] = name;
-            result[periodIndex] = toDate.apply(obs.getPeriod());
-            result[valueIndex] = obs.getValue();
-            result[versionIndex] = version;
-            return result;
+        return (row, name, obs) -> {
+            Arrays.fill(row, null);
+            row[dimIndex] = name;
+            row[periodIndex] = toDate.apply(obs.getPeriod());
+            row[valueIndex] = obs.getValue();
+            row[versionIndex] = version;
         };
     }
 
-    public void writeContent(Table table, BiFunction<String, TsObservation, Object[]> toRow, TsCollectionInformation col, int threshold) throws IOException {
-        List<Object[]> bulk = new ArrayList<>();
+    /**
+     * Writes the observations of a collection in batches of rows.
+     * <p>
+     * Rows are prepared on the calling thread while the previous batches are
+     * added to the table on a separate thread. Row arrays are reused across
+     * batches and only three batches exist at once so that the memory usage
+     * does not depend on the size of the collection.
+     *
+     * @param table
+     * @param writer
+     * @param col
+     * @param batchSize the exact number of rows per call to
+     * {@link Table#addRows(java.util.List)}, except for the last one
+     * @throws IOException
+     */
+    public void writeContent(Table table, RowWriter writer, TsCollectionInformation col, int batchSize) throws IOException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        try (Pipeline pipeline = new Pipeline(table, batchSize)) {
+            for (TsInformation ts : col.items) {
+                if (ts.hasData() && ts.data != null) {
+                    for (TsObservation obs : ts.data) {
+                        writer.write(pipeline.nextRow(), ts.name, obs);
+                    }
+                }
+            }
+            pipeline.finish();
+        }
+    }
+
+    /**
+     * Merges the observations of a collection into a table.
+     * <p>
+     * Each observation is looked up in the primary key of the table. Without
+     * version column, the value of an existing row is updated if it changed.
+     * With a version column, a new version is inserted only if the value of
+     * the latest version changed. Unchanged observations are not written and
+     * new ones are inserted in batches of rows.
+     *
+     * @param table a table whose primary key is made of the dimension, period
+     * and version columns
+     * @param writer
+     * @param col
+     * @param dimColumn
+     * @param periodColumn
+     * @param valueColumn
+     * @param versionColumn
+     * @param batchSize
+     * @return the number of inserted, updated and unchanged rows
+     * @throws IOException
+     * @throws IllegalArgumentException if the table has no such primary key
+     */
+    public MergeResult mergeContent(Table table, RowWriter writer, TsCollectionInformation col, String dimColumn, String periodColumn, String valueColumn, String versionColumn, int batchSize) throws IOException, IllegalArgumentException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        boolean versioned = !versionColumn.isEmpty();
+        IndexCursor cursor = CursorBuilder.createCursor(getMergeIndex(table, asList(getKeyColumns(dimColumn, periodColumn, versionColumn))));
+
+        Column value = table.getColumn(valueColumn);
+        int dimIndex = table.getColumn(dimColumn).getColumnIndex();
+        int periodIndex = table.getColumn(periodColumn).getColumnIndex();
+        int valueIndex = value.getColumnIndex();
+        Collection<String> valueOnly = Collections.singleton(valueColumn);
+
+        // rows are written on this thread since the lookups read the same table
+        Batch batch = new Batch(batchSize, table.getColumnCount());
+        long inserted = 0;
+        long updated = 0;
+        long unchanged = 0;
         for (TsInformation ts : col.items) {
             if (ts.hasData() && ts.data != null) {
-                ts.data.forEach(input -> bulk.add(toRow.apply(ts.name, input)));
-                if (bulk.size() > threshold) {
-                    table.addRows(bulk);
-                    bulk.clear();
+                for (TsObservation obs : ts.data) {
+                    Object[] row = batch.rows[batch.size];
+                    writer.write(row, ts.name, obs);
+                    Object[] entry = {row[dimIndex], row[periodIndex]};
+                    if (versioned) {
+                        Object latest = null;
+                        boolean found = false;
+                        for (Row o : cursor.newEntryIterable(entry).setColumnNames(valueOnly)) {
+                            latest = o.get(valueColumn);
+                            found = true;
+                        }
+                        if (found && Objects.equals(latest, row[valueIndex])) {
+                            unchanged++;
+                            continue;
+                        }
+                    } else if (cursor.findFirstRowByEntry(entry)) {
+                        if (Objects.equals(cursor.getCurrentRowValue(value), row[valueIndex])) {
+                            unchanged++;
+                        } else {
+                            cursor.setCurrentRowValue(value, row[valueIndex]);
+                            updated++;
+                        }
+                        continue;
+                    }
+                    inserted++;
+                    if (++batch.size == batchSize) {
+                        table.addRows(batch.getRows());
+                        batch.size = 0;
+                    }
                 }
             }
         }
-        if (!bulk.isEmpty()) {
-            table.addRows(bulk);
+        if (batch.size > 0) {
+            table.addRows(batch.getRows());
+        }
+        return new MergeResult(inserted, updated, unchanged);
+    }
+
+    @lombok.Value
+    public static class MergeResult {
+
+        long inserted;
+        long updated;
+        long unchanged;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private static final int BATCH_COUNT = 3;
+
+    private static String[] getKeyColumns(String dimColumn, String periodColumn, String versionColumn) {
+        return versionColumn.isEmpty()
+                ? new String[]{dimColumn, periodColumn}
+                : new String[]{dimColumn, periodColumn, versionColumn};
+    }
+
+    private static TsCollectionInformation sortByName(TsCollectionInformation col) {
+        TsCollectionInformation result = new TsCollectionInformation();
+        result.items.addAll(col.items);
+        // text keys are indexed case-insensitively
+        result.items.sort(Comparator.comparing(o -> o.name, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+        return result;
+    }
+
+    private static Index getMergeIndex(Table table, List<String> keyColumns) {
+        Index result = table.getPrimaryKeyIndex();
+        List<String> columns = new ArrayList<>();
+        result.getColumns().forEach(o -> columns.add(o.getName()));
+        if (!columns.equals(keyColumns)) {
+            throw new IllegalArgumentException("Primary key " + columns + " of table '" + table.getName() + "' does not match " + keyColumns);
+        }
+        return result;
+    }
+
+    private static final class Batch {
+
+        private static final Batch END = new Batch(0, 0);
+
+        private final Object[][] rows;
+        private int size;
+
+        private Batch(int batchSize, int columnCount) {
+            this.rows = new Object[batchSize][columnCount];
+            this.size = 0;
+        }
+
+        private List<Object[]> getRows() {
+            return Arrays.asList(rows).subList(0, size);
+        }
+    }
+
+    private static final class Pipeline implements Closeable {
+
+        private final BlockingQueue<Batch> free;
+        private final BlockingQueue<Batch> full;
+        private final Thread consumer;
+        private volatile Throwable error;
+        private volatile boolean aborted;
+        private Batch current;
+
+        private Pipeline(Table table, int batchSize) {
+            this.free = new ArrayBlockingQueue<>(BATCH_COUNT);
+            // never blocks since it holds at most all the batches and the end marker
+            this.full = new ArrayBlockingQueue<>(BATCH_COUNT + 1);
+            for (int i = 0; i < BATCH_COUNT; i++) {
+                free.add(new Batch(batchSize, table.getColumnCount()));
+            }
+            this.consumer = new Thread(() -> consume(table), "JackcessTsExport");
+            this.error = null;
+            this.aborted = false;
+            this.current = free.poll();
+            consumer.setDaemon(true);
+            consumer.start();
+        }
+
+        Object[] nextRow() throws IOException {
+            if (current.size == current.rows.length) {
+                checkError();
+                full.add(current);
+                current = take();
+            }
+            return current.rows[current.size++];
+        }
+
+        void finish() throws IOException {
+            checkError();
+            if (current.size > 0) {
+                full.add(current);
+            }
+            current = null;
+            full.add(Batch.END);
+            join();
+            checkError();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (consumer.isAlive()) {
+                // the consumer is never interrupted since it would leave the file in an inconsistent state
+                aborted = true;
+                full.offer(Batch.END);
+                joinUninterruptibly();
+            }
+        }
+
+        private void consume(Table table) {
+            try {
+                Batch batch;
+                while ((batch = full.take()) != Batch.END && !aborted) {
+                    table.addRows(batch.getRows());
+                    batch.size = 0;
+                    free.add(batch);
+                }
+            } catch (InterruptedException ex) {
+                // never interrupted by the producer
+                Thread.currentThread().interrupt();
+            } catch (Throwable ex) {
+                error = ex;
+            }
+        }
+
+        private Batch take() throws IOException {
+            try {
+                Batch result;
+                while ((result = free.poll(100, TimeUnit.MILLISECONDS)) == null) {
+                    checkError();
+                }
+                return result;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export interrupted");
+            }
+        }
+
+        private void join() throws IOException {
+            try {
+                consumer.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export interrupted");
+            }
+        }
+
+        private void joinUninterruptibly() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    consumer.join();
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void checkError() throws IOException {
+            if (error != null) {
+                throw new IOException("While adding rows", error);
+            }
         }
     }
 
@@ -129,4 +491,5 @@ public class JackcessTsExport {
             }
         }
     }
+    //</editor-fold>
 }
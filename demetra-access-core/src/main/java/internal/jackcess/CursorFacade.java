@@ -19,6 +19,7 @@ package internal.jackcess;
 import com.google.common.collect.Range;
 import com.healthmarketscience.jackcess.Column;
 import com.healthmarketscience.jackcess.CursorBuilder;
+import com.healthmarketscience.jackcess.Index;
 import com.healthmarketscience.jackcess.RowId;
 import com.healthmarketscience.jackcess.Table;
 import java.io.IOException;
@@ -53,6 +54,13 @@ public interface CursorFacade {
         return new CursorFacadeUtil.BasicCursor(CursorBuilder.createCursor(table), columnNames);
     }
 
+    @NonNull
+    static CursorFacade lookup(@NonNull Table table, @NonNull Collection<String> columnNames, @NonNull Index index, @NonNull Object[] entry) throws IOException {
+        return new CursorFacadeUtil.BasicCursor(entry.length == 0
+                ? CursorBuilder.createCursor(index)
+                : new CursorBuilder(table).setIndex(index).setStartEntry(entry).setEndEntry(entry).toIndexCursor(), columnNames);
+    }
+
     @NonNull
     static CursorFacade range(@NonNull Table table, @NonNull Collection<String> columnNames, @NonNull Range<RowId> range) throws IOException {
         CursorFacade basic = basic(table, columnNames);
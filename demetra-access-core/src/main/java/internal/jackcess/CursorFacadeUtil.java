@@ -16,13 +16,17 @@
  */
 package internal.jackcess;
 
+import com.google.common.collect.Range;
 import com.healthmarketscience.jackcess.Column;
 import com.healthmarketscience.jackcess.Cursor;
-import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.CursorBuilder;
 import com.healthmarketscience.jackcess.RowId;
+import com.healthmarketscience.jackcess.Table;
+import internal.xdb.DbRawDataUtil;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Map;
+import java.util.PrimitiveIterator;
 import java.util.SortedMap;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
@@ -98,31 +102,59 @@ class CursorFacadeUtil {
         }
     }
 
+    static final class Counting extends ForwardingCursor {
+
+        private final CursorFacade delegate;
+        @lombok.Getter
+        private long count;
+
+        Counting(CursorFacade delegate) {
+            this.delegate = delegate;
+            this.count = 0;
+        }
+
+        @Override
+        protected CursorFacade getDelegate() {
+            return delegate;
+        }
+
+        @Override
+        public boolean moveToNextRow() throws IOException {
+            boolean result = super.moveToNextRow();
+            if (result) {
+                count++;
+            }
+            return result;
+        }
+    }
+
     static final class BasicCursor implements CursorFacade {
 
         private final Cursor internalCursor;
-        private final Collection<String> columnNames;
-        private Row currentRow;
+        private final Column[] projection;
 
         BasicCursor(Cursor cursor, Collection<String> columnNames) {
             this.internalCursor = cursor;
-            this.columnNames = columnNames;
-            this.currentRow = null;
+            this.projection = getProjection(cursor.getTable(), columnNames);
         }
 
         @Override
         public boolean moveToNextRow() throws IOException {
-            return (currentRow = internalCursor.getNextRow(columnNames)) != null;
+            DbRawDataUtil.checkInterrupted();
+            return internalCursor.moveToNextRow();
         }
 
         @Override
         public Object getCurrentRowValue(Column column) throws IOException {
-            return currentRow.get(column.getName());
+            // columns are resolved by index since they may come from another handle on the same file
+            Column projected = column.getColumnIndex() < projection.length ? projection[column.getColumnIndex()] : null;
+            return projected != null ? internalCursor.getCurrentRowValue(projected) : null;
         }
 
         @Override
         public RowId getRowId() throws IOException {
-            return currentRow.getId();
+            // the position of a savepoint holds the row id without reading the row
+            return internalCursor.getSavepoint().getCurrentPosition().getRowId();
         }
 
         @Override
@@ -130,6 +162,91 @@ class CursorFacadeUtil {
             internalCursor.findRow(rowId);
             internalCursor.moveToPreviousRow();
         }
+
+        boolean moveTo(@NonNull RowId rowId) throws IOException {
+            return internalCursor.findRow(rowId);
+        }
+    }
+
+    /**
+     * A cursor that visits rows by their positions in ascending order.
+     *
+     * @see JackcessRowBitmap#toPosition(RowId)
+     */
+    static final class PositionCursor extends ForwardingCursor {
+
+        private final BasicCursor delegate;
+        private final PrimitiveIterator.OfInt positions;
+        private final Range<RowId> range;
+        private boolean hasPending;
+        private int pending;
+
+        PositionCursor(Table table, Collection<String> columnNames, PrimitiveIterator.OfInt positions, Range<RowId> range) throws IOException {
+            this.delegate = new BasicCursor(CursorBuilder.createCursor(table), columnNames);
+            this.positions = positions;
+            this.range = range;
+            this.hasPending = false;
+            this.pending = 0;
+        }
+
+        @Override
+        protected CursorFacade getDelegate() {
+            return delegate;
+        }
+
+        @Override
+        public boolean moveToNextRow() throws IOException {
+            while (hasPending || positions.hasNext()) {
+                DbRawDataUtil.checkInterrupted();
+                RowId rowId = JackcessRowBitmap.toRowId(nextPosition());
+                if (range.hasUpperBound() && rowId.compareTo(range.upperEndpoint()) > 0) {
+                    return false;
+                }
+                // deleted and missing rows are skipped
+                if (range.contains(rowId) && delegate.moveTo(rowId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Skips the positions before a row id. Since positions are only
+         * visited in ascending order, a row id before the current position
+         * doesn't move the cursor back.
+         *
+         * @param rowId
+         * @throws IOException
+         */
+        @Override
+        public void moveBefore(RowId rowId) throws IOException {
+            while (hasPending || positions.hasNext()) {
+                int position = nextPosition();
+                if (JackcessRowBitmap.toRowId(position).compareTo(rowId) >= 0) {
+                    hasPending = true;
+                    pending = position;
+                    return;
+                }
+            }
+        }
+
+        private int nextPosition() {
+            if (hasPending) {
+                hasPending = false;
+                return pending;
+            }
+            return positions.nextInt();
+        }
+    }
+
+    private static Column[] getProjection(Table table, Collection<String> columnNames) {
+        Column[] result = new Column[table.getColumnCount()];
+        for (Column column : table.getColumns()) {
+            if (columnNames.contains(column.getName())) {
+                result[column.getColumnIndex()] = column;
+            }
+        }
+        return result;
     }
 
     static final class UpperBounded extends ForwardingCursor {
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import java.io.File;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Identifies the content of a file by its absolute path, last-modified time
+ * and size.
+ *
+ * @author Philippe Charles
+ */
+@lombok.Value
+public class FileVersion {
+
+    @NonNull
+    public static FileVersion of(@NonNull File file) {
+        File absolute = file.getAbsoluteFile();
+        return new FileVersion(absolute, absolute.lastModified(), absolute.length());
+    }
+
+    @lombok.NonNull
+    File file;
+
+    long lastModified;
+
+    long length;
+
+    public boolean isCurrent() {
+        return file.lastModified() == lastModified && file.length() == length;
+    }
+}
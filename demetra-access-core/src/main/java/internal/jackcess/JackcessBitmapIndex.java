@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.healthmarketscience.jackcess.Column;
+import com.healthmarketscience.jackcess.RowId;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Bitmaps of the rows of each value of some columns.
+ * <p>
+ * Bitmaps are recorded while scanning whole tables and are only published
+ * once the scan reaches the end of the table. They are cached per file
+ * version so that a modified file never uses them. A filter on several
+ * columns is then resolved by AND-ing the bitmaps of its values.
+ *
+ * @author Philippe Charles
+ */
+@lombok.extern.slf4j.Slf4j
+final class JackcessBitmapIndex {
+
+    /**
+     * Maximum number of distinct values of a column beyond which its bitmaps
+     * are dropped since the column is not a dimension.
+     */
+    static final int MAX_VALUES = 10_000;
+
+    private static final Cache<Key, Map<String, JackcessRowBitmap>> BITMAPS = CacheBuilder
+            .newBuilder()
+            .maximumWeight(64 * 1024 * 1024)
+            .weigher(JackcessBitmapIndex::weigh)
+            .build();
+
+    private static final JackcessRowBitmap EMPTY = new JackcessRowBitmap();
+
+    /**
+     * Gets the rows matching a filter.
+     *
+     * @param version
+     * @param table
+     * @param filter
+     * @return a bitmap of rows if all the filter columns are indexed, null
+     * otherwise
+     */
+    @Nullable
+    static JackcessRowBitmap get(@NonNull FileVersion version, @NonNull String table, @NonNull SortedMap<Column, String> filter) {
+        JackcessRowBitmap result = null;
+        for (Map.Entry<Column, String> o : filter.entrySet()) {
+            Map<String, JackcessRowBitmap> bitmaps = BITMAPS.getIfPresent(new Key(version, table, o.getKey().getName()));
+            if (bitmaps == null) {
+                return null;
+            }
+            JackcessRowBitmap bitmap = bitmaps.getOrDefault(o.getValue(), EMPTY);
+            result = result == null ? bitmap : JackcessRowBitmap.and(result, bitmap);
+        }
+        return result;
+    }
+
+    /**
+     * Records the bitmaps of some columns while scanning a whole table.
+     * Columns that are already indexed are skipped.
+     *
+     * @param cursor a cursor on the whole table
+     * @param version
+     * @param table
+     * @param columns
+     * @return a cursor that records the bitmaps
+     */
+    @NonNull
+    static CursorFacade recording(@NonNull CursorFacade cursor, @NonNull FileVersion version, @NonNull String table, @NonNull Collection<Column> columns) {
+        List<Column> missing = new ArrayList<>();
+        for (Column o : columns) {
+            if (BITMAPS.getIfPresent(new Key(version, table, o.getName())) == null) {
+                missing.add(o);
+            }
+        }
+        return missing.isEmpty() ? cursor : new Recording(cursor, version, table, missing.toArray(new Column[missing.size()]));
+    }
+
+    static void clear() {
+        BITMAPS.invalidateAll();
+    }
+
+    /**
+     * Drops the bitmaps of all the versions of a file.
+     *
+     * @param file an absolute file
+     */
+    static void invalidate(@NonNull File file) {
+        BITMAPS.asMap().keySet().removeIf(o -> o.getVersion().getFile().equals(file));
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private static int weigh(Key key, Map<String, JackcessRowBitmap> bitmaps) {
+        long result = 0;
+        for (Map.Entry<String, JackcessRowBitmap> o : bitmaps.entrySet()) {
+            result += 40 + o.getKey().length() * 2L + o.getValue().estimateSize();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, result);
+    }
+
+    @lombok.Value
+    private static class Key {
+
+        FileVersion version;
+        String table;
+        String column;
+    }
+
+    private static final class Recording implements CursorFacade {
+
+        private final CursorFacade delegate;
+        private final FileVersion version;
+        private final String table;
+        private final Column[] columns;
+        private final List<Map<String, JackcessRowBitmap>> bitmaps;
+        private boolean aborted;
+
+        private Recording(CursorFacade delegate, FileVersion version, String table, Column[] columns) {
+            this.delegate = delegate;
+            this.version = version;
+            this.table = table;
+            this.columns = columns;
+            this.bitmaps = new ArrayList<>();
+            for (Column o : columns) {
+                bitmaps.add(new HashMap<>());
+            }
+            this.aborted = false;
+        }
+
+        @Override
+        public boolean moveToNextRow() throws IOException {
+            boolean result = delegate.moveToNextRow();
+            if (!aborted) {
+                if (result) {
+                    record();
+                } else {
+                    publish();
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Object getCurrentRowValue(Column column) throws IOException {
+            return delegate.getCurrentRowValue(column);
+        }
+
+        @Override
+        public RowId getRowId() throws IOException {
+            return delegate.getRowId();
+        }
+
+        @Override
+        public void moveBefore(RowId rowId) throws IOException {
+            aborted = true;
+            delegate.moveBefore(rowId);
+        }
+
+        private void record() throws IOException {
+            RowId rowId = delegate.getRowId();
+            if (!JackcessRowBitmap.isSupported(rowId)) {
+                aborted = true;
+                return;
+            }
+            int position = JackcessRowBitmap.toPosition(rowId);
+            for (int i = 0; i < columns.length; i++) {
+                Map<String, JackcessRowBitmap> map = bitmaps.get(i);
+                Object value = map != null ? delegate.getCurrentRowValue(columns[i]) : null;
+                if (value != null) {
+                    map.computeIfAbsent(value.toString(), o -> new JackcessRowBitmap()).add(position);
+                    if (map.size() > MAX_VALUES) {
+                        bitmaps.set(i, null);
+                    }
+                }
+            }
+        }
+
+        private void publish() {
+            aborted = true;
+            for (int i = 0; i < columns.length; i++) {
+                if (bitmaps.get(i) != null) {
+                    BITMAPS.put(new Key(version, table, columns[i].getName()), bitmaps.get(i));
+                    log.debug("Bitmaps of '{}.{}' recorded", table, columns[i].getName());
+                }
+            }
+        }
+    }
+    //</editor-fold>
+}
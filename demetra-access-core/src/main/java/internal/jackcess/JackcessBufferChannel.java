@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A read-only file channel over the content of a file held in a buffer.
+ * <p>
+ * The content is loaded once per file version and shared by the channels of
+ * all the handles on that version; each channel only keeps its own position.
+ *
+ * @author Philippe Charles
+ */
+final class JackcessBufferChannel extends JackcessReadOnlyChannel {
+
+    /**
+     * Loads the content of a file.
+     *
+     * @param file
+     * @param mode a mode other than {@link JackcessChannelMode#DEFAULT}
+     * @return a buffer whose position is zero and limit is the file size
+     * @throws IOException
+     */
+    @NonNull
+    static ByteBuffer load(@NonNull File file, @NonNull JackcessChannelMode mode) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to be buffered '" + file + "'");
+            }
+            switch (mode) {
+                case MAPPED:
+                    return channel.map(MapMode.READ_ONLY, 0, size);
+                case HEAP:
+                    return readFully(channel, ByteBuffer.allocate((int) size));
+                case DIRECT:
+                    return readFully(channel, ByteBuffer.allocateDirect((int) size));
+                default:
+                    throw new IllegalArgumentException(mode.name());
+            }
+        }
+    }
+
+    private final ByteBuffer content;
+
+    JackcessBufferChannel(@NonNull ByteBuffer content) {
+        this.content = content.duplicate();
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+        ensureOpen();
+        if (position < 0) {
+            throw new IllegalArgumentException("Negative position");
+        }
+        if (position >= content.limit()) {
+            return -1;
+        }
+        int result = (int) Math.min(dst.remaining(), content.limit() - position);
+        ByteBuffer src = content.duplicate();
+        src.position((int) position).limit((int) position + result);
+        dst.put(src);
+        return result;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return content.limit();
+    }
+
+    @Override
+    protected void implCloseChannel() {
+        // the content is shared and released with the file version
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private static ByteBuffer readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) == -1) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+    //</editor-fold>
+}
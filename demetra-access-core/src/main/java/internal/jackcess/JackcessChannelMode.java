@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+/**
+ * Defines how read-only databases access their files.
+ *
+ * @author Philippe Charles
+ */
+public enum JackcessChannelMode {
+
+    /**
+     * Reads the file through a regular file channel.
+     */
+    DEFAULT,
+    /**
+     * Reads the file through a memory mapping; note that some platforms
+     * prevent a mapped file from being replaced until the mapping is garbage
+     * collected.
+     */
+    MAPPED,
+    /**
+     * Loads the whole file in a heap buffer.
+     */
+    HEAP,
+    /**
+     * Loads the whole file in an off-heap buffer.
+     */
+    DIRECT
+}
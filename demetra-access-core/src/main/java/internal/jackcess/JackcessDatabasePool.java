@@ -0,0 +1,424 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.DatabaseBuilder;
+import com.healthmarketscience.jackcess.DateTimeType;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A pool of read-only databases keyed by file version.
+ * <p>
+ * Jackcess databases are not thread-safe so a lease gives exclusive access to
+ * a handle until it is released. Handles are reused by subsequent leases on
+ * the same file version, retired as soon as the file changes on disk and
+ * closed after an idle timeout.
+ * <p>
+ * Handles are also keyed by channel mode. Except in the default mode, the
+ * content of a file version is loaded once in a buffer that is shared by all
+ * the handles on that version and released when the file changes. In the
+ * default mode, the pages of files are read through a shared
+ * {@link JackcessPageCache page cache} if enabled.
+ * <p>
+ * The version of a file is read on each lease unless the file is watched by
+ * the {@link JackcessFileWatcher file watcher}, in which case the version of
+ * its pooled handles is trusted until the watcher invalidates them.
+ *
+ * @author Philippe Charles
+ */
+@lombok.extern.slf4j.Slf4j
+public final class JackcessDatabasePool {
+
+    @NonNull
+    public static JackcessDatabasePool getDefault() {
+        return DEFAULT;
+    }
+
+    private static final JackcessDatabasePool DEFAULT = newDefault();
+
+    private final long idleTimeoutNanos;
+    private final int maxIdlePerFile;
+    private final LongSupplier clock;
+    private final JackcessPageCache pageCache;
+    private final Map<Key, Entry> entries;
+    private final Set<File> watchedFiles;
+
+    public JackcessDatabasePool(@NonNull Duration idleTimeout, int maxIdlePerFile) {
+        this(idleTimeout, maxIdlePerFile, System::nanoTime, JackcessPageCache.getDefault());
+    }
+
+    JackcessDatabasePool(Duration idleTimeout, int maxIdlePerFile, LongSupplier clock) {
+        this(idleTimeout, maxIdlePerFile, clock, JackcessPageCache.getDefault());
+    }
+
+    JackcessDatabasePool(Duration idleTimeout, int maxIdlePerFile, LongSupplier clock, JackcessPageCache pageCache) {
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxIdlePerFile = maxIdlePerFile;
+        this.clock = clock;
+        this.pageCache = pageCache;
+        this.entries = new HashMap<>();
+        this.watchedFiles = new HashSet<>();
+    }
+
+    /**
+     * Leases a read-only database on the current version of a file.
+     *
+     * @param file
+     * @return a non-null lease that must be closed after use
+     * @throws IOException
+     */
+    @NonNull
+    public Lease lease(@NonNull File file) throws IOException {
+        return lease(file, JackcessChannelMode.DEFAULT);
+    }
+
+    /**
+     * Leases a read-only database on the current version of a file through a
+     * specific channel mode.
+     *
+     * @param file
+     * @param mode
+     * @return a non-null lease that must be closed after use
+     * @throws IOException
+     */
+    @NonNull
+    public Lease lease(@NonNull File file, @NonNull JackcessChannelMode mode) throws IOException {
+        Key key = new Key(file.getAbsoluteFile(), mode);
+        Entry entry = null;
+        Handle handle = null;
+        synchronized (this) {
+            if (watchedFiles.contains(key.file)) {
+                entry = entries.get(key);
+                if (entry != null) {
+                    handle = acquire(entry);
+                }
+            }
+        }
+        if (entry == null) {
+            FileVersion version = FileVersion.of(file);
+            List<Handle> retired = new ArrayList<>();
+            synchronized (this) {
+                entry = entries.get(key);
+                if (entry != null && !entry.version.equals(version)) {
+                    entry.retire(retired);
+                    entries.remove(key);
+                    entry = null;
+                }
+                if (entry == null) {
+                    entry = new Entry(key, version);
+                    entries.put(key, entry);
+                }
+                handle = acquire(entry);
+            }
+            closeAll(retired);
+        }
+        long openTime = 0;
+        if (handle == null) {
+            long start = clock.getAsLong();
+            try {
+                handle = open(entry);
+            } catch (IOException | RuntimeException ex) {
+                release(entry, null, false);
+                throw ex;
+            }
+            openTime = clock.getAsLong() - start;
+        }
+        return new Lease(entry, handle, Duration.ofNanos(openTime));
+    }
+
+    /**
+     * Closes the handles that have been idle for longer than the idle timeout.
+     */
+    public void evictIdle() {
+        List<Handle> expired = new ArrayList<>();
+        long now = clock.getAsLong();
+        synchronized (this) {
+            Iterator<Entry> iter = entries.values().iterator();
+            while (iter.hasNext()) {
+                Entry entry = iter.next();
+                Iterator<Idle> idleIter = entry.idle.descendingIterator();
+                while (idleIter.hasNext()) {
+                    Idle idle = idleIter.next();
+                    if (now - idle.since >= idleTimeoutNanos) {
+                        expired.add(idle.handle);
+                        idleIter.remove();
+                    }
+                }
+                if (entry.isUnused()) {
+                    iter.remove();
+                }
+            }
+        }
+        closeAll(expired);
+    }
+
+    /**
+     * Closes all idle handles and retires the leased ones.
+     */
+    public void clear() {
+        List<Handle> retired = new ArrayList<>();
+        synchronized (this) {
+            entries.values().forEach(o -> o.retire(retired));
+            entries.clear();
+        }
+        closeAll(retired);
+    }
+
+    /**
+     * Closes the idle handles of a file and retires the leased ones.
+     *
+     * @param file
+     */
+    public void invalidate(@NonNull File file) {
+        File absolute = file.getAbsoluteFile();
+        List<Handle> retired = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Entry> iter = entries.values().iterator();
+            while (iter.hasNext()) {
+                Entry entry = iter.next();
+                if (entry.key.file.equals(absolute)) {
+                    entry.retire(retired);
+                    iter.remove();
+                }
+            }
+        }
+        closeAll(retired);
+    }
+
+    /**
+     * Sets whether the changes of a file are notified by the file watcher.
+     *
+     * @param file
+     * @param watched
+     */
+    synchronized void setWatched(@NonNull File file, boolean watched) {
+        if (watched) {
+            watchedFiles.add(file.getAbsoluteFile());
+        } else {
+            watchedFiles.remove(file.getAbsoluteFile());
+        }
+    }
+
+    int getIdleCount(@NonNull File file) {
+        return getIdleCount(file, JackcessChannelMode.DEFAULT);
+    }
+
+    synchronized int getIdleCount(@NonNull File file, @NonNull JackcessChannelMode mode) {
+        Entry entry = entries.get(new Key(file.getAbsoluteFile(), mode));
+        return entry != null ? entry.idle.size() : 0;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private static JackcessDatabasePool newDefault() {
+        JackcessDatabasePool result = new JackcessDatabasePool(Duration.ofMinutes(1), 4);
+        ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(JackcessDatabasePool::newDaemonThread);
+        cleaner.scheduleWithFixedDelay(result::evictIdle, 30, 30, TimeUnit.SECONDS);
+        return result;
+    }
+
+    private static Thread newDaemonThread(Runnable runnable) {
+        Thread result = new Thread(runnable, "JackcessDatabasePool");
+        result.setDaemon(true);
+        return result;
+    }
+
+    private static Handle acquire(Entry entry) {
+        Idle idle = entry.idle.pollFirst();
+        entry.leased++;
+        return idle != null ? idle.handle : null;
+    }
+
+    private Handle open(Entry entry) throws IOException {
+        DatabaseBuilder builder = new DatabaseBuilder(entry.version.getFile()).setReadOnly(true);
+        FileChannel channel = null;
+        if (entry.key.mode != JackcessChannelMode.DEFAULT) {
+            builder.setChannel(new JackcessBufferChannel(entry.getContent()));
+        } else if (pageCache.isEnabled()) {
+            // databases don't close the channels they are given
+            channel = pageCache.wrap(entry.version, FileChannel.open(entry.version.getFile().toPath(), StandardOpenOption.READ));
+            builder.setChannel(channel);
+        }
+        try {
+            Database result = builder.open();
+            result.setDateTimeType(DateTimeType.DATE);
+            return new Handle(result, channel);
+        } catch (IOException | RuntimeException ex) {
+            if (channel != null) {
+                channel.close();
+            }
+            throw ex;
+        }
+    }
+
+    private void release(Entry entry, Handle handle, boolean broken) {
+        boolean close;
+        synchronized (this) {
+            entry.leased--;
+            close = broken || entry.retired || entry.idle.size() >= maxIdlePerFile;
+            if (handle != null && !close) {
+                entry.idle.addFirst(new Idle(handle, clock.getAsLong()));
+            }
+            if (!entry.retired && entry.isUnused()) {
+                entries.remove(entry.key, entry);
+            }
+        }
+        if (handle != null && close) {
+            closeQuietly(handle);
+        }
+    }
+
+    private static void closeAll(List<Handle> handles) {
+        handles.forEach(JackcessDatabasePool::closeQuietly);
+    }
+
+    private static void closeQuietly(Handle handle) {
+        try {
+            handle.database.close();
+        } catch (IOException ex) {
+            log.warn("While closing database", ex);
+        }
+        if (handle.channel != null) {
+            try {
+                handle.channel.close();
+            } catch (IOException ex) {
+                log.warn("While closing channel", ex);
+            }
+        }
+    }
+
+    @lombok.Value
+    private static class Key {
+
+        File file;
+        JackcessChannelMode mode;
+    }
+
+    private static final class Entry {
+
+        private final Key key;
+        private final FileVersion version;
+        private final Deque<Idle> idle = new ArrayDeque<>();
+        private int leased = 0;
+        private boolean retired = false;
+        private ByteBuffer content = null;
+
+        private Entry(Key key, FileVersion version) {
+            this.key = key;
+            this.version = version;
+        }
+
+        private synchronized ByteBuffer getContent() throws IOException {
+            if (content == null) {
+                content = JackcessBufferChannel.load(version.getFile(), key.mode);
+            }
+            return content;
+        }
+
+        private boolean isUnused() {
+            return leased == 0 && idle.isEmpty();
+        }
+
+        private void retire(List<Handle> toBeClosed) {
+            retired = true;
+            idle.forEach(o -> toBeClosed.add(o.handle));
+            idle.clear();
+        }
+    }
+
+    @lombok.AllArgsConstructor
+    private static final class Handle {
+
+        private final Database database;
+        @Nullable
+        private final FileChannel channel;
+    }
+
+    @lombok.AllArgsConstructor
+    private static final class Idle {
+
+        private final Handle handle;
+        private final long since;
+    }
+    //</editor-fold>
+
+    public final class Lease implements Closeable {
+
+        private final Entry entry;
+        private final Duration openTime;
+        private Handle handle;
+
+        private Lease(Entry entry, Handle handle, Duration openTime) {
+            this.entry = entry;
+            this.handle = handle;
+            this.openTime = openTime;
+        }
+
+        @NonNull
+        public Database getDatabase() throws IOException {
+            if (handle == null) {
+                throw new IOException("Lease already released");
+            }
+            return handle.database;
+        }
+
+        @NonNull
+        public FileVersion getVersion() {
+            return entry.version;
+        }
+
+        /**
+         * Gets the time spent opening the database of this lease.
+         *
+         * @return a non-null duration, zero if the database was reused
+         */
+        @NonNull
+        public Duration getOpenTime() {
+            return openTime;
+        }
+
+        @Override
+        public void close() {
+            if (handle != null) {
+                // an interrupt closes the file channel of the handle
+                release(entry, handle, Thread.currentThread().isInterrupted());
+                handle = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Invalidates the caches of files as soon as they change on disk.
+ * <p>
+ * The directories of the watched files are registered in a watch service
+ * whose events are processed on a single daemon thread. When a watched file
+ * is created, modified or deleted, the shared caches of this package are
+ * dropped for that file, its pooled handles are retired and its listeners are
+ * notified. Listeners are weakly referenced so that a file is watched as long
+ * as an object that depends on it is reachable; their owners must therefore
+ * keep a strong reference to them.
+ *
+ * @author Philippe Charles
+ */
+@lombok.extern.slf4j.Slf4j
+public final class JackcessFileWatcher {
+
+    @NonNull
+    public static JackcessFileWatcher getDefault() {
+        return DEFAULT;
+    }
+
+    private static final JackcessFileWatcher DEFAULT = new JackcessFileWatcher(JackcessDatabasePool.getDefault(), JackcessPageCache.getDefault());
+
+    private final JackcessDatabasePool pool;
+    private final JackcessPageCache pageCache;
+    private final Map<File, List<WeakReference<Runnable>>> listeners;
+    private final Map<Path, WatchKey> directories;
+    private WatchService service;
+
+    JackcessFileWatcher(JackcessDatabasePool pool, JackcessPageCache pageCache) {
+        this.pool = pool;
+        this.pageCache = pageCache;
+        this.listeners = new HashMap<>();
+        this.directories = new HashMap<>();
+        this.service = null;
+    }
+
+    /**
+     * Watches a file until a listener is garbage collected.
+     *
+     * @param file
+     * @param listener a listener notified after the caches of the file have
+     * been dropped, weakly referenced
+     * @return true if the file is watched, false if its directory cannot be
+     * watched, in which case the caller must check the file by itself
+     */
+    public boolean watch(@NonNull File file, @NonNull Runnable listener) {
+        File absolute = file.getAbsoluteFile();
+        Path directory = absolute.getParentFile() != null ? absolute.getParentFile().toPath() : null;
+        if (directory == null) {
+            return false;
+        }
+        synchronized (this) {
+            try {
+                if (!directories.containsKey(directory)) {
+                    directories.put(directory, directory.register(getService(),
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY,
+                            StandardWatchEventKinds.ENTRY_DELETE));
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.debug("Cannot watch '{}'", directory, ex);
+                return false;
+            }
+            List<WeakReference<Runnable>> refs = listeners.computeIfAbsent(absolute, o -> new ArrayList<>());
+            if (refs.stream().noneMatch(o -> o.get() == listener)) {
+                refs.add(new WeakReference<>(listener));
+            }
+            pool.setWatched(absolute, true);
+        }
+        return true;
+    }
+
+    /**
+     * Drops the caches of a file and notifies its listeners.
+     *
+     * @param file
+     */
+    public void invalidate(@NonNull File file) {
+        File absolute = file.getAbsoluteFile();
+        log.debug("File has changed '{}'", absolute);
+        pool.invalidate(absolute);
+        pageCache.invalidate(absolute);
+        JackcessBitmapIndex.invalidate(absolute);
+        JackcessZoneMap.invalidate(absolute);
+        JackcessResultCache.invalidate(absolute);
+        JackcessParallelScan.invalidate(absolute);
+        for (Runnable o : getListeners(absolute)) {
+            try {
+                o.run();
+            } catch (RuntimeException ex) {
+                log.warn("While notifying change of '{}'", absolute, ex);
+            }
+        }
+    }
+
+    synchronized boolean isWatched(@NonNull File file) {
+        return listeners.containsKey(file.getAbsoluteFile());
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private WatchService getService() throws IOException {
+        if (service == null) {
+            service = FileSystems.getDefault().newWatchService();
+            Thread thread = new Thread(this::processEvents, "JackcessFileWatcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return service;
+    }
+
+    private synchronized List<Runnable> getListeners(File file) {
+        List<Runnable> result = new ArrayList<>();
+        List<WeakReference<Runnable>> refs = listeners.get(file);
+        if (refs != null) {
+            for (WeakReference<Runnable> o : refs) {
+                Runnable listener = o.get();
+                if (listener != null) {
+                    result.add(listener);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void processEvents() {
+        try {
+            while (true) {
+                WatchKey key = service.poll(30, TimeUnit.SECONDS);
+                if (key != null) {
+                    Path directory = (Path) key.watchable();
+                    for (File o : getChangedFiles(directory, key.pollEvents())) {
+                        invalidate(o);
+                    }
+                    if (!key.reset()) {
+                        synchronized (this) {
+                            directories.remove(directory, key);
+                            // the versions of these files must be read again on each lease
+                            listeners.keySet().stream().filter(o -> directory.equals(o.getParentFile().toPath())).forEach(o -> pool.setWatched(o, false));
+                        }
+                    }
+                }
+                prune();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            log.debug("File watcher stopped", ex);
+        }
+    }
+
+    private synchronized List<File> getChangedFiles(Path directory, List<WatchEvent<?>> events) {
+        List<File> result = new ArrayList<>();
+        for (WatchEvent<?> event : events) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // some events have been lost
+                result.clear();
+                listeners.keySet().stream().filter(o -> directory.equals(o.getParentFile().toPath())).forEach(result::add);
+                return result;
+            }
+            File file = directory.resolve((Path) event.context()).toFile();
+            if (listeners.containsKey(file) && !result.contains(file)) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+    private synchronized void prune() {
+        Iterator<Map.Entry<File, List<WeakReference<Runnable>>>> iter = listeners.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry<File, List<WeakReference<Runnable>>> entry = iter.next();
+            entry.getValue().removeIf(o -> o.get() == null);
+            if (entry.getValue().isEmpty()) {
+                pool.setWatched(entry.getKey(), false);
+                iter.remove();
+            }
+        }
+        Iterator<Map.Entry<Path, WatchKey>> dirIter = directories.entrySet().iterator();
+        while (dirIter.hasNext()) {
+            Map.Entry<Path, WatchKey> entry = dirIter.next();
+            if (listeners.keySet().stream().noneMatch(o -> entry.getKey().equals(o.getParentFile().toPath()))) {
+                entry.getValue().cancel();
+                dirIter.remove();
+            }
+        }
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.healthmarketscience.jackcess.Column;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Index;
+import com.healthmarketscience.jackcess.Table;
+import java.util.List;
+import java.util.SortedMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ *
+ * @author Philippe Charles
+ */
+@lombok.experimental.UtilityClass
+class JackcessIndexUtil {
+
+    /**
+     * Finds an index whose leading columns are exactly the filter columns.
+     * <p>
+     * Only text columns are considered because the filter compares the string
+     * representation of values. Index lookups on text are case-insensitive so
+     * the filter must still be applied on the rows returned by the index.
+     *
+     * @param table
+     * @param filter
+     * @return an index if found, null otherwise
+     */
+    @Nullable
+    Index findLookupIndex(Table table, SortedMap<Column, String> filter) {
+        if (filter.isEmpty()) {
+            return null;
+        }
+        Index result = null;
+        for (Index index : table.getIndexes()) {
+            if (isLookupIndex(index, filter) && (result == null || index.getColumns().size() < result.getColumns().size())) {
+                result = index;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds an index made of the filter columns followed by the order columns.
+     * <p>
+     * Reading such an index delivers the rows in the requested order, ties
+     * being sorted by row id like a stable sort on a table scan. Order columns
+     * are restricted to data types whose index order is the natural order of
+     * their Java values.
+     *
+     * @param table
+     * @param filter
+     * @param orderColumns
+     * @return an index if found, null otherwise
+     */
+    @Nullable
+    Index findOrderedIndex(Table table, SortedMap<Column, String> filter, List<Column> orderColumns) {
+        if (orderColumns.isEmpty()) {
+            return null;
+        }
+        for (Index index : table.getIndexes()) {
+            if (isOrderedIndex(index, filter, orderColumns)) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    Object[] getLookupEntry(Index index, SortedMap<Column, String> filter) {
+        List<? extends Index.Column> columns = index.getColumns();
+        Object[] result = new Object[filter.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = filter.get(columns.get(i).getColumn());
+        }
+        return result;
+    }
+
+    private boolean isOrderedIndex(Index index, SortedMap<Column, String> filter, List<Column> orderColumns) {
+        List<? extends Index.Column> columns = index.getColumns();
+        if (columns.size() != filter.size() + orderColumns.size() || !isLookupPrefix(columns, filter)) {
+            return false;
+        }
+        for (int i = 0; i < orderColumns.size(); i++) {
+            Index.Column column = columns.get(filter.size() + i);
+            if (!column.isAscending()
+                    || column.getColumn().getColumnIndex() != orderColumns.get(i).getColumnIndex()
+                    || !hasNaturalIndexOrder(column.getColumn().getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasNaturalIndexOrder(DataType type) {
+        switch (type) {
+            case INT:
+            case LONG:
+            case DOUBLE:
+            case FLOAT:
+            case MONEY:
+            case NUMERIC:
+            case SHORT_DATE_TIME:
+                return true;
+            default:
+                // text is sorted case-insensitively and bytes are unsigned
+                return false;
+        }
+    }
+
+    private boolean isLookupIndex(Index index, SortedMap<Column, String> filter) {
+        List<? extends Index.Column> columns = index.getColumns();
+        return columns.size() >= filter.size() && isLookupPrefix(columns, filter);
+    }
+
+    private boolean isLookupPrefix(List<? extends Index.Column> columns, SortedMap<Column, String> filter) {
+        for (int i = 0; i < filter.size(); i++) {
+            Column column = columns.get(i).getColumn();
+            if (column.getType() != DataType.TEXT || !filter.containsKey(column)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
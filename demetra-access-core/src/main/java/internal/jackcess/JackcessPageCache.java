@@ -0,0 +1,200 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ExecutionException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A process-wide cache of the pages of read-only files.
+ * <p>
+ * Pages have a fixed size and are keyed by file version so that a modified
+ * file never uses them. They are shared by all the channels on the same
+ * version and the least recently used ones are evicted once the byte budget
+ * is exceeded. The budget of the default cache is read from the
+ * {@value #BUDGET_PROPERTY} system property; zero disables it.
+ *
+ * @author Philippe Charles
+ */
+public final class JackcessPageCache {
+
+    public static final String BUDGET_PROPERTY = "be.nbb.demetra.access.pageCacheBudget";
+
+    /**
+     * Size in bytes of the cached pages; a multiple of the page sizes of all
+     * the Access formats.
+     */
+    static final int PAGE_SIZE = 4096;
+
+    @NonNull
+    public static JackcessPageCache getDefault() {
+        return DEFAULT;
+    }
+
+    private static final JackcessPageCache DEFAULT = new JackcessPageCache(Long.getLong(BUDGET_PROPERTY, 64 * 1024 * 1024));
+
+    private final long budget;
+    private final Cache<Key, byte[]> pages;
+
+    public JackcessPageCache(long budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Invalid budget: " + budget);
+        }
+        this.budget = budget;
+        this.pages = CacheBuilder
+                .newBuilder()
+                .maximumWeight(budget)
+                .weigher((Key k, byte[] v) -> v.length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Checks if this cache holds pages.
+     *
+     * @return false if its budget is zero
+     */
+    public boolean isEnabled() {
+        return budget > 0;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Gets the hit and miss counters of the pages.
+     *
+     * @return
+     */
+    @NonNull
+    public CacheStats getStats() {
+        return pages.stats();
+    }
+
+    /**
+     * Drops all the pages.
+     */
+    public void clear() {
+        pages.invalidateAll();
+    }
+
+    /**
+     * Drops the pages of all the versions of a file.
+     *
+     * @param file
+     */
+    public void invalidate(@NonNull File file) {
+        File absolute = file.getAbsoluteFile();
+        pages.asMap().keySet().removeIf(o -> o.getVersion().getFile().equals(absolute));
+    }
+
+    /**
+     * Creates a read-only channel that reads the pages of a file through this
+     * cache.
+     *
+     * @param version the version of the file read by the channel
+     * @param channel the channel used to load missing pages, closed with the
+     * returned channel
+     * @return
+     */
+    @NonNull
+    FileChannel wrap(@NonNull FileVersion version, @NonNull FileChannel channel) {
+        return new CachedChannel(version, channel);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    @lombok.Value
+    private static class Key {
+
+        FileVersion version;
+        long page;
+    }
+
+    private final class CachedChannel extends JackcessReadOnlyChannel {
+
+        private final FileVersion version;
+        private final FileChannel delegate;
+
+        private CachedChannel(FileVersion version, FileChannel delegate) {
+            this.version = version;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            ensureOpen();
+            if (position < 0) {
+                throw new IllegalArgumentException("Negative position");
+            }
+            if (position >= version.getLength()) {
+                return -1;
+            }
+            int result = 0;
+            while (dst.hasRemaining() && position + result < version.getLength()) {
+                long offset = position + result;
+                byte[] page = getPage(offset / PAGE_SIZE);
+                int from = (int) (offset % PAGE_SIZE);
+                if (from >= page.length) {
+                    break;
+                }
+                int length = Math.min(dst.remaining(), page.length - from);
+                dst.put(page, from, length);
+                result += length;
+            }
+            return result;
+        }
+
+        @Override
+        public long size() throws IOException {
+            ensureOpen();
+            return version.getLength();
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+
+        private byte[] getPage(long page) throws IOException {
+            try {
+                return pages.get(new Key(version, page), () -> loadPage(page));
+            } catch (ExecutionException ex) {
+                throw ex.getCause() instanceof IOException ? (IOException) ex.getCause() : new IOException(ex.getCause());
+            }
+        }
+
+        private byte[] loadPage(long page) throws IOException {
+            long offset = page * PAGE_SIZE;
+            ByteBuffer result = ByteBuffer.allocate((int) Math.min(PAGE_SIZE, version.getLength() - offset));
+            while (result.hasRemaining()) {
+                if (delegate.read(result, offset + result.position()) == -1) {
+                    throw new IOException("File has changed '" + version.getFile() + "'");
+                }
+            }
+            return result.array();
+        }
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Range;
+import com.healthmarketscience.jackcess.Cursor;
+import com.healthmarketscience.jackcess.CursorBuilder;
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.RowId;
+import com.healthmarketscience.jackcess.Table;
+import ec.tss.tsproviders.utils.IteratorWithIO;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A table scan split into ranges of row ids that are read concurrently.
+ * <p>
+ * Jackcess databases are not thread-safe so each range is read through its
+ * own handle leased from the pool. At most {@code parallelism} ranges are read
+ * at once so that a scan never leases more handles than that. Ranges are
+ * computed by a first pass on the row ids of the table that doesn't decode any
+ * value; they are cached per file version so that subsequent scans skip it.
+ * <p>
+ * Ranges are read by a shared pool bounded by the number of processors;
+ * ranges of concurrent scans beyond that wait for a free thread.
+ * <p>
+ * Interrupting the calling thread cancels the pending ranges and interrupts
+ * the running ones.
+ *
+ * @author Philippe Charles
+ */
+@lombok.extern.slf4j.Slf4j
+final class JackcessParallelScan {
+
+    @FunctionalInterface
+    interface PartialStep {
+
+        IteratorWithIO<Object[]> apply(CursorFacade cursor) throws IOException;
+    }
+
+    /**
+     * The ranges of a scan on a version of a file.
+     */
+    @lombok.Value
+    static class Split {
+
+        FileVersion version;
+        List<Range<RowId>> parts;
+    }
+
+    private static final ExecutorService THREADS = newExecutor();
+
+    private static final Cache<PlanKey, List<Range<RowId>>> PLANS = CacheBuilder.newBuilder().maximumSize(64).build();
+
+    private final File file;
+    private final String table;
+    private final int parallelism;
+    private final JackcessChannelMode channel;
+
+    JackcessParallelScan(File file, String table, int parallelism, JackcessChannelMode channel) {
+        this.file = file;
+        this.table = table;
+        this.parallelism = parallelism;
+        this.channel = channel;
+    }
+
+    /**
+     * Splits a range of rows of the table on its current version.
+     * <p>
+     * The number of parts is the number of partial results that are alive at
+     * once after {@link #execute(Split, Collection, PartialStep)} and should
+     * therefore be used to share a memory budget between them.
+     *
+     * @param range
+     * @param expected the version read by the caller, if any
+     * @return a split, or null if the current version is not the expected one
+     * @throws IOException
+     */
+    @Nullable
+    Split split(Range<RowId> range, @Nullable FileVersion expected) throws IOException {
+        try (JackcessDatabasePool.Lease lease = JackcessDatabasePool.getDefault().lease(file, channel)) {
+            if (expected != null && !lease.getVersion().equals(expected)) {
+                log.debug("File '{}' has changed since it was opened, parallel scan skipped", file);
+                return null;
+            }
+            PlanKey key = new PlanKey(lease.getVersion(), table, parallelism);
+            List<Range<RowId>> plan = PLANS.getIfPresent(key);
+            if (plan == null) {
+                plan = computeRanges(lease.getDatabase().getTable(table));
+                PLANS.put(key, plan);
+            }
+            List<Range<RowId>> parts = new ArrayList<>();
+            for (Range<RowId> o : plan) {
+                if (o.isConnected(range) && !o.intersection(range).isEmpty()) {
+                    parts.add(o.intersection(range));
+                }
+            }
+            return new Split(lease.getVersion(), parts);
+        }
+    }
+
+    /**
+     * Applies a step on each range of a split and returns the partial results
+     * in the order of the ranges.
+     *
+     * @param split
+     * @param columnNames
+     * @param step
+     * @return
+     * @throws IOException
+     */
+    List<IteratorWithIO<Object[]>> execute(Split split, Collection<String> columnNames, PartialStep step) throws IOException {
+        List<Range<RowId>> parts = split.getParts();
+        Results results = new Results(parts.size());
+        AtomicInteger next = new AtomicInteger();
+        int workers = Math.min(parallelism, parts.size());
+        log.debug("Parallel scan of '{}' on {} ranges with {} workers", table, parts.size(), workers);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            tasks.add(THREADS.submit(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < parts.size() && !Thread.currentThread().isInterrupted()) {
+                    results.set(index, scan(split.getVersion(), parts.get(index), columnNames, step));
+                }
+                return null;
+            }));
+        }
+        IOException failure = null;
+        for (Future<?> o : tasks) {
+            try {
+                o.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                tasks.forEach(task -> task.cancel(true));
+                failure = addFailure(failure, new InterruptedIOException("Scan interrupted"));
+                break;
+            } catch (ExecutionException ex) {
+                tasks.forEach(task -> task.cancel(true));
+                failure = addFailure(failure, ex.getCause() instanceof UncheckedIOException
+                        ? ((UncheckedIOException) ex.getCause()).getCause()
+                        : new IOException(ex.getCause()));
+            } catch (CancellationException ex) {
+                // cancelled after a previous failure
+            }
+        }
+        if (failure != null) {
+            results.close();
+            throw failure;
+        }
+        return results.toList();
+    }
+
+    /**
+     * Drops the scan plans of all the versions of a file.
+     *
+     * @param file an absolute file
+     */
+    static void invalidate(@NonNull File file) {
+        PLANS.asMap().keySet().removeIf(o -> o.getVersion().getFile().equals(file));
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private IteratorWithIO<Object[]> scan(FileVersion version, Range<RowId> part, Collection<String> columnNames, PartialStep step) {
+        try (JackcessDatabasePool.Lease lease = JackcessDatabasePool.getDefault().lease(file, channel)) {
+            if (!lease.getVersion().equals(version)) {
+                throw new IOException("File has changed during scan '" + file + "'");
+            }
+            Table input = lease.getDatabase().getTable(table);
+            return step.apply(CursorFacade.range(input, columnNames, part));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private List<Range<RowId>> computeRanges(Table input) throws IOException {
+        int chunk = Math.max(1, input.getRowCount() / (parallelism * 4));
+        List<Range<RowId>> result = new ArrayList<>();
+        Cursor cursor = CursorBuilder.createCursor(input);
+        RowId first = null;
+        RowId last = null;
+        int count = 0;
+        Row row;
+        // an empty set of columns only reads the row ids
+        while ((row = cursor.getNextRow(Collections.emptySet())) != null) {
+            RowId current = row.getId();
+            if (count++ % chunk == 0) {
+                if (first != null) {
+                    result.add(Range.closed(first, last));
+                }
+                first = current;
+            }
+            last = current;
+        }
+        if (first != null) {
+            result.add(Range.closed(first, last));
+        }
+        return result;
+    }
+
+    private static IOException addFailure(IOException root, IOException ex) {
+        if (root == null) {
+            return ex;
+        }
+        root.addSuppressed(ex);
+        return root;
+    }
+
+    private static ExecutorService newExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        int threads = Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor result = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "JackcessParallelScan-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
+    @lombok.Value
+    private static class PlanKey {
+
+        FileVersion version;
+        String table;
+        int parallelism;
+    }
+
+    /**
+     * Partial results that are closed as soon as they arrive once the scan
+     * has failed.
+     */
+    private static final class Results {
+
+        private final List<IteratorWithIO<Object[]>> list;
+        private boolean closed;
+
+        Results(int size) {
+            this.list = new ArrayList<>(Collections.nCopies(size, null));
+            this.closed = false;
+        }
+
+        void set(int index, IteratorWithIO<Object[]> value) {
+            synchronized (this) {
+                if (!closed) {
+                    list.set(index, value);
+                    return;
+                }
+            }
+            closeQuietly(value);
+        }
+
+        synchronized List<IteratorWithIO<Object[]>> toList() {
+            return new ArrayList<>(list);
+        }
+
+        void close() {
+            List<IteratorWithIO<Object[]>> values;
+            synchronized (this) {
+                closed = true;
+                values = new ArrayList<>(list);
+                Collections.fill(list, null);
+            }
+            values.stream().filter(o -> o != null).forEach(Results::closeQuietly);
+        }
+
+        private static void closeQuietly(IteratorWithIO<Object[]> value) {
+            try {
+                value.close();
+            } catch (IOException ex) {
+                log.debug("Cannot close partial result", ex);
+            }
+        }
+    }
+    //</editor-fold>
+}
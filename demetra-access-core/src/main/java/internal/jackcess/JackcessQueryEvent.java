@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import internal.xdb.DbBasicSelect;
+import java.time.Duration;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Metrics of an executed query.
+ * <p>
+ * Row counts are those observed until the result set was closed so they
+ * depend on how much of the result has been consumed.
+ *
+ * @author Philippe Charles
+ */
+@lombok.Value
+@lombok.Builder
+public class JackcessQueryEvent {
+
+    @NonNull
+    DbBasicSelect query;
+
+    /**
+     * Whether the scan was restricted to a range of row ids.
+     */
+    boolean ranged;
+
+    /**
+     * Whether the scan was split across several handles.
+     */
+    boolean parallel;
+
+    /**
+     * Whether the rows were read from the result cache instead of the table.
+     */
+    boolean cached;
+
+    /**
+     * Time spent opening the database, zero if it was reused.
+     */
+    @NonNull
+    Duration openTime;
+
+    /**
+     * Number of rows read from the table.
+     */
+    long scannedRows;
+
+    /**
+     * Number of scanned rows matching the filter.
+     */
+    long matchedRows;
+
+    /**
+     * Number of distinct rows, -1 if the query is not distinct.
+     */
+    long distinctRows;
+
+    /**
+     * Number of sorted rows, -1 if no sort was required.
+     */
+    long sortedRows;
+
+    /**
+     * Time spent in distinct and sort operations, spills included.
+     */
+    @NonNull
+    Duration sortTime;
+
+    /**
+     * Number of rows returned by the result set.
+     */
+    long returnedRows;
+
+    /**
+     * Time between the execution of the query and the closing of its result
+     * set.
+     */
+    @NonNull
+    Duration totalTime;
+}
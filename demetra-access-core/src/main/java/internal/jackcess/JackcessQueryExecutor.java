@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Runs queries asynchronously on a bounded number of threads per file.
+ * <p>
+ * All the files share a single pool of threads. Each file has a lane that
+ * runs at most {@code threadsPerFile} queries at once and queues the others;
+ * a lane is dropped as soon as it becomes idle so that no state is kept for
+ * files that are no longer queried. The pool is bounded by the number of
+ * processors, or by {@code threadsPerFile} if greater; lanes of different
+ * files beyond that wait for a free thread.
+ * <p>
+ * Cancelling a returned future interrupts the thread running the query; the
+ * statement then stops scanning, sorting or removing duplicates and fails
+ * with an {@link java.io.InterruptedIOException}. Idle threads are released
+ * after a timeout.
+ *
+ * @author Philippe Charles
+ */
+public final class JackcessQueryExecutor {
+
+    @NonNull
+    public static JackcessQueryExecutor getDefault() {
+        return DEFAULT;
+    }
+
+    private static final JackcessQueryExecutor DEFAULT = new JackcessQueryExecutor(2);
+
+    private final int threadsPerFile;
+    private final Executor threads;
+    private final Map<File, Lane> lanes;
+
+    public JackcessQueryExecutor(int threadsPerFile) {
+        if (threadsPerFile < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + threadsPerFile);
+        }
+        this.threadsPerFile = threadsPerFile;
+        this.threads = newExecutor(Math.max(threadsPerFile, Runtime.getRuntime().availableProcessors()));
+        this.lanes = new HashMap<>();
+    }
+
+    /**
+     * Submits a query on a file.
+     *
+     * @param <T>
+     * @param file the file used to select the lane
+     * @param query
+     * @return a future that interrupts the query when cancelled
+     */
+    @NonNull
+    public <T> CompletableFuture<T> submit(@NonNull File file, @NonNull Callable<T> query) {
+        File key = file.getAbsoluteFile();
+        CancellableFuture<T> result = new CancellableFuture<>();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try {
+                result.complete(query.call());
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+            return null;
+        });
+        result.task = task;
+        // the lane is released even if the task has been cancelled before running
+        acquire(key, () -> {
+            try {
+                task.run();
+            } finally {
+                release(key);
+            }
+        });
+        return result;
+    }
+
+    synchronized int getLaneCount() {
+        return lanes.size();
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private void acquire(File key, Runnable task) {
+        synchronized (this) {
+            Lane lane = lanes.computeIfAbsent(key, o -> new Lane());
+            if (lane.running == threadsPerFile) {
+                lane.pending.add(task);
+                return;
+            }
+            lane.running++;
+        }
+        threads.execute(task);
+    }
+
+    private void release(File key) {
+        Runnable next;
+        synchronized (this) {
+            Lane lane = lanes.get(key);
+            next = lane.pending.poll();
+            if (next == null && --lane.running == 0) {
+                lanes.remove(key);
+            }
+        }
+        if (next != null) {
+            // executed as a new task so that the pool clears the interrupt status of the thread
+            threads.execute(next);
+        }
+    }
+
+    private static Executor newExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor result = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "JackcessQueryExecutor-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
+    private static final class Lane {
+
+        private final Queue<Runnable> pending = new ArrayDeque<>();
+        private int running = 0;
+    }
+
+    private static final class CancellableFuture<T> extends CompletableFuture<T> {
+
+        private volatile Future<?> task;
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean result = super.cancel(mayInterruptIfRunning);
+            Future<?> current = task;
+            if (current != null) {
+                current.cancel(true);
+            }
+            return result;
+        }
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A listener notified of each query executed by a statement.
+ * <p>
+ * The default listener logs the events at debug level and forwards them to
+ * the implementations registered with {@link ServiceLoader}.
+ *
+ * @author Philippe Charles
+ */
+@FunctionalInterface
+public interface JackcessQueryListener {
+
+    /**
+     * Called once the result set of a query has been closed.
+     *
+     * @param event
+     */
+    void onQuery(@NonNull JackcessQueryEvent event);
+
+    @NonNull
+    static JackcessQueryListener noOp() {
+        return JackcessQueryListenerUtil.NO_OP;
+    }
+
+    @NonNull
+    static JackcessQueryListener getDefault() {
+        return JackcessQueryListenerUtil.DEFAULT;
+    }
+
+    @NonNull
+    static JackcessQueryListener of(@NonNull List<? extends JackcessQueryListener> listeners) {
+        return JackcessQueryListenerUtil.compose(new ArrayList<>(listeners));
+    }
+}
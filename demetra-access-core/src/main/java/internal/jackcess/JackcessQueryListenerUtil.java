@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ *
+ * @author Philippe Charles
+ */
+@lombok.experimental.UtilityClass
+@lombok.extern.slf4j.Slf4j
+class JackcessQueryListenerUtil {
+
+    final JackcessQueryListener NO_OP = event -> {
+    };
+
+    final JackcessQueryListener LOGGING = event -> log.debug("{}", event);
+
+    final JackcessQueryListener DEFAULT = compose(loadDefault());
+
+    JackcessQueryListener compose(List<JackcessQueryListener> listeners) {
+        switch (listeners.size()) {
+            case 0:
+                return NO_OP;
+            case 1:
+                return listeners.get(0);
+            default:
+                return event -> listeners.forEach(o -> o.onQuery(event));
+        }
+    }
+
+    private List<JackcessQueryListener> loadDefault() {
+        List<JackcessQueryListener> result = new ArrayList<>();
+        result.add(LOGGING);
+        try {
+            ServiceLoader.load(JackcessQueryListener.class, JackcessQueryListener.class.getClassLoader()).forEach(result::add);
+        } catch (RuntimeException | ServiceConfigurationError ex) {
+            log.warn("Cannot load query listeners", ex);
+        }
+        return result;
+    }
+}
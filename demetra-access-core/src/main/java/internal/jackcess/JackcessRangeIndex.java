@@ -0,0 +1,350 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import com.healthmarketscience.jackcess.Column;
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.Index;
+import com.healthmarketscience.jackcess.RowId;
+import com.healthmarketscience.jackcess.Table;
+import com.healthmarketscience.jackcess.impl.RowIdImpl;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An index of the row ranges of dimension values of a file version that can
+ * optionally be persisted in a sidecar file next to the database.
+ * <p>
+ * Persistence is opt-in since the directory of the database is often
+ * read-only or shared. The sidecar file is only trusted if its size and
+ * last-modified time match the database file and if it was written for the
+ * same table definition and dimension columns. Failures to read or write it are logged and ignored so
+ * that the index never prevents a query from running.
+ *
+ * @author Philippe Charles
+ */
+@lombok.extern.slf4j.Slf4j
+public final class JackcessRangeIndex {
+
+    @NonNull
+    public static JackcessRangeIndex of(@NonNull String table, @NonNull List<String> dimColumns) {
+        return of(table, dimColumns, false);
+    }
+
+    /**
+     * Creates an index.
+     *
+     * @param table
+     * @param dimColumns
+     * @param persistent true to read and write a sidecar file
+     * @return
+     */
+    @NonNull
+    public static JackcessRangeIndex of(@NonNull String table, @NonNull List<String> dimColumns, boolean persistent) {
+        return new JackcessRangeIndex(table, ImmutableList.copyOf(dimColumns), persistent);
+    }
+
+    /**
+     * Deletes all the sidecar files of a database file.
+     *
+     * @param file
+     * @throws IOException
+     */
+    public static void deleteSidecarFiles(@NonNull File file) throws IOException {
+        File absolute = file.getAbsoluteFile();
+        String prefix = absolute.getName() + ".";
+        File[] sidecars = absolute.getParentFile().listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(".ranges"));
+        if (sidecars != null) {
+            for (File o : sidecars) {
+                Files.deleteIfExists(o.toPath());
+            }
+        }
+    }
+
+    private final String table;
+    private final List<String> dimColumns;
+    private final boolean persistent;
+    private State state;
+
+    private JackcessRangeIndex(String table, List<String> dimColumns, boolean persistent) {
+        this.table = table;
+        this.dimColumns = dimColumns;
+        this.persistent = persistent;
+        this.state = null;
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    /**
+     * Gets the range of rows of some dimension values in a version of a file.
+     *
+     * @param version the version resolved by the caller, typically the one of
+     * its lease
+     * @param dimValues
+     * @return a range if known, null otherwise
+     */
+    @Nullable
+    public Range<RowId> get(@NonNull FileVersion version, @NonNull List<String> dimValues) {
+        State current = getState(version);
+        synchronized (this) {
+            return current.ranges.get(dimValues);
+        }
+    }
+
+    /**
+     * Records the range of rows of some dimension values.
+     *
+     * @param version the version of the file that has been scanned
+     * @param dimValues
+     * @param range
+     */
+    public void put(@NonNull FileVersion version, @NonNull List<String> dimValues, @NonNull Range<RowId> range) {
+        if (dimValues.contains(null)) {
+            return;
+        }
+        State current = getState(version);
+        synchronized (this) {
+            if (!range.equals(current.ranges.put(ImmutableList.copyOf(dimValues), range))) {
+                current.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Drops the ranges held in memory; they are read again from the sidecar
+     * file if it is still valid.
+     */
+    public synchronized void clear() {
+        state = null;
+    }
+
+    /**
+     * Writes the sidecar file if some ranges have been recorded since the last
+     * write.
+     */
+    public void flush() {
+        if (!persistent) {
+            return;
+        }
+        State current;
+        synchronized (this) {
+            current = state;
+            if (current == null || !current.dirty) {
+                return;
+            }
+            current.dirty = false;
+        }
+        try {
+            write(current);
+        } catch (IOException | RuntimeException ex) {
+            log.debug("Cannot write range index of '{}'", current.version.getFile(), ex);
+        }
+    }
+
+    /**
+     * Gets the number of ranges held in memory.
+     *
+     * @return
+     */
+    public synchronized int size() {
+        return state != null ? state.ranges.size() : 0;
+    }
+
+    @NonNull
+    File getSidecarFile(@NonNull File file) {
+        CRC32 crc = new CRC32();
+        crc.update(table.getBytes(StandardCharsets.UTF_8));
+        dimColumns.forEach(o -> crc.update(("\u0000" + o).getBytes(StandardCharsets.UTF_8)));
+        return new File(file.getAbsoluteFile().getPath() + "." + Long.toHexString(crc.getValue()) + ".ranges");
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private static final int MAGIC = 0x4A524958;
+    private static final int FORMAT = 1;
+
+    private State getState(FileVersion version) {
+        synchronized (this) {
+            if (state != null && state.version.equals(version)) {
+                return state;
+            }
+        }
+        State loaded = new State(version);
+        if (persistent) {
+            // the sidecar file is read without holding the lock
+            try {
+                read(loaded);
+            } catch (IOException | RuntimeException ex) {
+                log.debug("Cannot read range index of '{}'", version.getFile(), ex);
+                loaded.ranges.clear();
+            }
+        }
+        synchronized (this) {
+            if (state == null || !state.version.equals(version)) {
+                state = loaded;
+            }
+            return state;
+        }
+    }
+
+    private void read(State target) throws IOException {
+        File sidecar = getSidecarFile(target.version.getFile());
+        if (!sidecar.exists()) {
+            return;
+        }
+        Map<List<String>, Range<RowId>> ranges = new HashMap<>();
+        String fingerprint;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar.toPath())))) {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT
+                    || input.readLong() != target.version.getLength()
+                    || input.readLong() != target.version.getLastModified()
+                    || !input.readUTF().equals(table)
+                    || !readStrings(input).equals(dimColumns)) {
+                log.debug("Ignoring stale range index '{}'", sidecar);
+                return;
+            }
+            fingerprint = input.readUTF();
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                List<String> key = readStrings(input);
+                RowId lower = new RowIdImpl(input.readInt(), input.readInt());
+                RowId upper = new RowIdImpl(input.readInt(), input.readInt());
+                ranges.put(key, Range.closed(lower, upper));
+            }
+        }
+        if (!fingerprint.equals(getFingerprint(target))) {
+            log.debug("Ignoring range index '{}' of another table definition", sidecar);
+            return;
+        }
+        target.ranges.putAll(ranges);
+        log.debug("Loaded {} ranges from '{}'", ranges.size(), sidecar);
+    }
+
+    private void write(State source) throws IOException {
+        String fingerprint = getFingerprint(source);
+        Map<List<String>, Range<RowId>> ranges;
+        synchronized (this) {
+            ranges = new HashMap<>(source.ranges);
+        }
+        Path sidecar = getSidecarFile(source.version.getFile()).toPath();
+        Path tmp = Files.createTempFile(sidecar.toAbsolutePath().getParent(), sidecar.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT);
+                output.writeLong(source.version.getLength());
+                output.writeLong(source.version.getLastModified());
+                output.writeUTF(table);
+                writeStrings(output, dimColumns);
+                output.writeUTF(fingerprint);
+                output.writeInt(ranges.size());
+                for (Map.Entry<List<String>, Range<RowId>> o : ranges.entrySet()) {
+                    writeStrings(output, o.getKey());
+                    writeRowId(output, o.getValue().lowerEndpoint());
+                    writeRowId(output, o.getValue().upperEndpoint());
+                }
+            }
+            try {
+                Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private String getFingerprint(State target) throws IOException {
+        if (target.fingerprint == null) {
+            try (JackcessDatabasePool.Lease lease = JackcessDatabasePool.getDefault().lease(target.version.getFile())) {
+                if (!lease.getVersion().equals(target.version)) {
+                    throw new IOException("File has changed");
+                }
+                target.fingerprint = computeFingerprint(lease.getDatabase());
+            }
+        }
+        return target.fingerprint;
+    }
+
+    private String computeFingerprint(Database database) throws IOException {
+        Table input = database.getTable(table);
+        if (input == null) {
+            throw new IOException("Table not found '" + table + "'");
+        }
+        StringBuilder result = new StringBuilder();
+        for (Column o : input.getColumns()) {
+            result.append(o.getName()).append(':').append(o.getType()).append(':').append(o.getLength()).append(';');
+        }
+        for (Index o : input.getIndexes()) {
+            result.append(o.getName()).append(';');
+        }
+        result.append(input.getRowCount());
+        return result.toString();
+    }
+
+    private static void writeRowId(DataOutputStream output, RowId rowId) throws IOException {
+        output.writeInt(((RowIdImpl) rowId).getPageNumber());
+        output.writeInt(((RowIdImpl) rowId).getRowNumber());
+    }
+
+    private static void writeStrings(DataOutputStream output, List<String> values) throws IOException {
+        output.writeInt(values.size());
+        for (String o : values) {
+            output.writeUTF(o);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream input) throws IOException {
+        int size = input.readInt();
+        ImmutableList.Builder<String> result = ImmutableList.builder();
+        for (int i = 0; i < size; i++) {
+            result.add(input.readUTF());
+        }
+        return result.build();
+    }
+
+    private static final class State {
+
+        private final FileVersion version;
+        private final Map<List<String>, Range<RowId>> ranges = new HashMap<>();
+        private String fingerprint = null;
+        private boolean dirty = false;
+
+        private State(FileVersion version) {
+            this.version = version;
+        }
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Range;
+import com.healthmarketscience.jackcess.RowId;
+import ec.tss.tsproviders.utils.IteratorWithIO;
+import internal.xdb.DbBasicSelect;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Materialized results of queries.
+ * <p>
+ * Results are keyed by file version, query and range of row ids so that a
+ * modified file never uses them. A result is recorded while its result set is
+ * consumed and is only published once all its rows have been read. Each row
+ * keeps only the selected values and the range of row ids it comes from.
+ * <p>
+ * Statements that have the same memory budget share the same cache.
+ *
+ * @author Philippe Charles
+ */
+@lombok.extern.slf4j.Slf4j
+final class JackcessResultCache {
+
+    /**
+     * Default maximum weight in bytes of all the cached results.
+     */
+    static final long DEFAULT_BUDGET = 32 * 1024 * 1024;
+
+    private static final ConcurrentMap<Long, JackcessResultCache> CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the cache of a memory budget.
+     *
+     * @param budget the maximum weight in bytes of all the cached results,
+     * zero for the default budget
+     * @return a non-null cache
+     */
+    @NonNull
+    static JackcessResultCache of(long budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Invalid budget: " + budget);
+        }
+        return CACHES.computeIfAbsent(budget != 0 ? budget : DEFAULT_BUDGET, JackcessResultCache::new);
+    }
+
+    private final Cache<Key, Result> results;
+    private final long maxResultWeight;
+
+    private JackcessResultCache(long budget) {
+        this.results = CacheBuilder
+                .newBuilder()
+                .maximumWeight(budget)
+                .weigher((Key k, Result v) -> v.weight)
+                .build();
+        // a single result cannot evict most of the others
+        this.maxResultWeight = budget / 16;
+    }
+
+    /**
+     * Gets the rows of a cached result.
+     *
+     * @param version
+     * @param query
+     * @param range
+     * @return copies of the rows made of the selected values followed by the
+     * first and last row ids, null if not cached
+     * @see #getIndexes(int)
+     */
+    @Nullable
+    IteratorWithIO<Object[]> get(@NonNull FileVersion version, @NonNull DbBasicSelect query, @NonNull Range<RowId> range) {
+        Result result = results.getIfPresent(new Key(version, query, range));
+        // rows are copied since readers may modify them
+        return result != null ? IteratorWithIO.from(Iterators.transform(Arrays.asList(result.rows).iterator(), JackcessResultCache::copyOf)) : null;
+    }
+
+    /**
+     * Records the result of a query while its rows are read.
+     *
+     * @param rows
+     * @param indexes the indexes of the selected values in the rows
+     * @param version
+     * @param query
+     * @param range
+     * @return rows that record the result
+     */
+    @NonNull
+    IteratorWithIO<Object[]> recording(@NonNull IteratorWithIO<Object[]> rows, @NonNull int[] indexes, @NonNull FileVersion version, @NonNull DbBasicSelect query, @NonNull Range<RowId> range) {
+        return new Recording(rows, indexes, new Key(version, query, range));
+    }
+
+    /**
+     * Gets the indexes of the selected values in the rows of a cached result.
+     *
+     * @param columnCount
+     * @return
+     */
+    @NonNull
+    static int[] getIndexes(int columnCount) {
+        int[] result = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+
+    static void clear() {
+        CACHES.values().forEach(o -> o.results.invalidateAll());
+    }
+
+    /**
+     * Drops the results of all the versions of a file.
+     *
+     * @param file an absolute file
+     */
+    static void invalidate(@NonNull File file) {
+        CACHES.values().forEach(o -> o.results.asMap().keySet().removeIf(key -> key.getVersion().getFile().equals(file)));
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private static Object[] copyOf(Object[] row) {
+        Object[] result = row.clone();
+        for (int i = 0; i < result.length; i++) {
+            result[i] = copyOf(result[i]);
+        }
+        return result;
+    }
+
+    // dates and byte arrays are mutable so they cannot be shared between readers
+    private static Object copyOf(Object value) {
+        if (value instanceof Date) {
+            return new Date(((Date) value).getTime());
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        return value;
+    }
+
+    @lombok.Value
+    private static class Key {
+
+        FileVersion version;
+        DbBasicSelect query;
+        Range<RowId> range;
+    }
+
+    @lombok.AllArgsConstructor
+    private static final class Result {
+
+        private final Object[][] rows;
+        private final int weight;
+    }
+
+    private static long estimateSize(@Nullable Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 40 + ((String) value).length() * 2L;
+        }
+        if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        }
+        return 24;
+    }
+
+    private final class Recording implements IteratorWithIO<Object[]> {
+
+        private final IteratorWithIO<Object[]> delegate;
+        private final int[] indexes;
+        private final Key key;
+        private List<Object[]> rows;
+        private long weight;
+
+        private Recording(IteratorWithIO<Object[]> delegate, int[] indexes, Key key) {
+            this.delegate = delegate;
+            this.indexes = indexes;
+            this.key = key;
+            this.rows = new ArrayList<>();
+            this.weight = 64;
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            boolean result = delegate.hasNext();
+            if (!result && rows != null) {
+                results.put(key, new Result(rows.toArray(new Object[rows.size()][]), (int) weight));
+                log.debug("Result of '{}' cached with {} rows", key.getQuery(), rows.size());
+                rows = null;
+            }
+            return result;
+        }
+
+        @Override
+        public Object[] next() throws IOException, NoSuchElementException {
+            Object[] result = delegate.next();
+            if (rows != null) {
+                record(result);
+            }
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows = null;
+            delegate.close();
+        }
+
+        private void record(Object[] row) {
+            // rows may be reused by the delegate
+            Object[] copy = new Object[indexes.length + 2];
+            weight += 16 + copy.length * 4L;
+            for (int i = 0; i < indexes.length; i++) {
+                copy[i] = copyOf(row[indexes[i]]);
+                weight += estimateSize(copy[i]);
+            }
+            copy[indexes.length] = row[row.length - 2];
+            copy[indexes.length + 1] = row[row.length - 1];
+            weight += 48;
+            if (weight > maxResultWeight) {
+                rows = null;
+                return;
+            }
+            rows.add(copy);
+        }
+    }
+    //</editor-fold>
+}
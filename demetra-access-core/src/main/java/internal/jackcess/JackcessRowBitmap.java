@@ -0,0 +1,390 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.healthmarketscience.jackcess.RowId;
+import com.healthmarketscience.jackcess.impl.RowIdImpl;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A compressed set of row positions.
+ * <p>
+ * A row position packs the page number and the row number of a row id in an
+ * int. Positions are split in chunks of 2^16 values sharing the same high
+ * bits; each chunk is stored either as a sorted array of its low bits or as a
+ * bitmap when it becomes dense, in the manner of Roaring bitmaps.
+ *
+ * @author Philippe Charles
+ */
+final class JackcessRowBitmap {
+
+    /**
+     * Checks if a row id can be stored as a position.
+     *
+     * @param rowId
+     * @return
+     */
+    static boolean isSupported(@NonNull RowId rowId) {
+        if (!(rowId instanceof RowIdImpl)) {
+            return false;
+        }
+        RowIdImpl impl = (RowIdImpl) rowId;
+        return impl.getType() == RowIdImpl.Type.NORMAL
+                && impl.getPageNumber() >= 0 && impl.getPageNumber() <= MAX_PAGE
+                && impl.getRowNumber() >= 0 && impl.getRowNumber() <= MAX_ROW;
+    }
+
+    static int toPosition(@NonNull RowId rowId) {
+        RowIdImpl impl = (RowIdImpl) rowId;
+        return toPosition(impl.getPageNumber(), impl.getRowNumber());
+    }
+
+    static int toPosition(int pageNumber, int rowNumber) {
+        return (pageNumber << ROW_BITS) | rowNumber;
+    }
+
+    @NonNull
+    static RowId toRowId(int position) {
+        return new RowIdImpl(position >>> ROW_BITS, position & MAX_ROW);
+    }
+
+    @NonNull
+    static JackcessRowBitmap and(@NonNull JackcessRowBitmap l, @NonNull JackcessRowBitmap r) {
+        JackcessRowBitmap result = new JackcessRowBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < l.size && j < r.size) {
+            if (l.keys[i] < r.keys[j]) {
+                i++;
+            } else if (l.keys[i] > r.keys[j]) {
+                j++;
+            } else {
+                Container container = l.containers[i].and(r.containers[j]);
+                if (container.getCardinality() > 0) {
+                    result.append(l.keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    private int[] keys;
+    private Container[] containers;
+    private int size;
+
+    JackcessRowBitmap() {
+        this.keys = new int[4];
+        this.containers = new Container[4];
+        this.size = 0;
+    }
+
+    void add(int position) {
+        int key = position >>> 16;
+        short low = (short) position;
+        // rows are mostly added in ascending order
+        int index = size > 0 && keys[size - 1] == key ? size - 1 : Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            containers[index] = containers[index].add(low);
+        } else {
+            insert(-index - 1, key, new ArrayContainer().add(low));
+        }
+    }
+
+    boolean contains(int position) {
+        int index = Arrays.binarySearch(keys, 0, size, position >>> 16);
+        return index >= 0 && containers[index].contains((short) position);
+    }
+
+    long getCardinality() {
+        long result = 0;
+        for (int i = 0; i < size; i++) {
+            result += containers[i].getCardinality();
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the memory used by this bitmap.
+     *
+     * @return a size in bytes
+     */
+    long estimateSize() {
+        long result = 32 + keys.length * 4L + containers.length * 8L;
+        for (int i = 0; i < size; i++) {
+            result += containers[i].estimateSize();
+        }
+        return result;
+    }
+
+    /**
+     * Iterates over the positions in ascending order.
+     *
+     * @return
+     */
+    PrimitiveIterator.@NonNull OfInt iterator() {
+        return new PositionIterator();
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private static final int ROW_BITS = 8;
+    private static final int MAX_ROW = (1 << ROW_BITS) - 1;
+    private static final int MAX_PAGE = (1 << (31 - ROW_BITS)) - 1;
+    private static final int MAX_ARRAY_SIZE = 4096;
+
+    private void append(int key, Container container) {
+        insert(size, key, container);
+    }
+
+    private void insert(int index, int key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private interface Container {
+
+        Container add(short low);
+
+        boolean contains(short low);
+
+        Container and(Container other);
+
+        int getCardinality();
+
+        long estimateSize();
+
+        int first();
+
+        /**
+         * Gets the smallest value greater than a given value.
+         *
+         * @param low an unsigned low value
+         * @return an unsigned low value or -1 if none
+         */
+        int next(int low);
+    }
+
+    private static final class ArrayContainer implements Container {
+
+        private short[] values = new short[4];
+        private int cardinality = 0;
+
+        @Override
+        public Container add(short low) {
+            int index = cardinality > 0 && toInt(values[cardinality - 1]) < toInt(low) ? -cardinality - 1 : indexOf(low);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == MAX_ARRAY_SIZE) {
+                return toBitmap().add(low);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(MAX_ARRAY_SIZE, cardinality * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        public boolean contains(short low) {
+            return indexOf(low) >= 0;
+        }
+
+        @Override
+        public Container and(Container other) {
+            ArrayContainer result = new ArrayContainer();
+            result.values = new short[Math.max(1, cardinality)];
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    result.values[result.cardinality++] = values[i];
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public int getCardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public long estimateSize() {
+            return 32 + values.length * 2L;
+        }
+
+        @Override
+        public int first() {
+            return cardinality > 0 ? toInt(values[0]) : -1;
+        }
+
+        @Override
+        public int next(int low) {
+            int index = indexOf((short) low);
+            index = index >= 0 ? index + 1 : -index - 1;
+            return index < cardinality ? toInt(values[index]) : -1;
+        }
+
+        private int indexOf(short low) {
+            int key = toInt(low);
+            int from = 0;
+            int to = cardinality - 1;
+            while (from <= to) {
+                int mid = (from + to) >>> 1;
+                int value = toInt(values[mid]);
+                if (value < key) {
+                    from = mid + 1;
+                } else if (value > key) {
+                    to = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(from + 1);
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer result = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                result.add(values[i]);
+            }
+            return result;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+
+        private final long[] words = new long[1024];
+        private int cardinality = 0;
+
+        @Override
+        public Container add(short low) {
+            int value = toInt(low);
+            long mask = 1L << value;
+            if ((words[value >>> 6] & mask) == 0) {
+                words[value >>> 6] |= mask;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(short low) {
+            int value = toInt(low);
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (!(other instanceof BitmapContainer)) {
+                return other.and(this);
+            }
+            BitmapContainer result = new BitmapContainer();
+            long[] otherWords = ((BitmapContainer) other).words;
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] = words[i] & otherWords[i];
+                result.cardinality += Long.bitCount(result.words[i]);
+            }
+            return result.cardinality <= MAX_ARRAY_SIZE ? result.toArray() : result;
+        }
+
+        @Override
+        public int getCardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public long estimateSize() {
+            return 32 + words.length * 8L;
+        }
+
+        @Override
+        public int first() {
+            return next(-1);
+        }
+
+        @Override
+        public int next(int low) {
+            int from = low + 1;
+            if (from >= 1 << 16) {
+                return -1;
+            }
+            int index = from >>> 6;
+            long word = words[index] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return (index << 6) + Long.numberOfTrailingZeros(word);
+                }
+                if (++index == words.length) {
+                    return -1;
+                }
+                word = words[index];
+            }
+        }
+
+        private ArrayContainer toArray() {
+            ArrayContainer result = new ArrayContainer();
+            result.values = new short[Math.max(1, cardinality)];
+            for (int value = first(); value != -1; value = next(value)) {
+                result.values[result.cardinality++] = (short) value;
+            }
+            return result;
+        }
+    }
+
+    private static int toInt(short low) {
+        return low & 0xFFFF;
+    }
+
+    private final class PositionIterator implements PrimitiveIterator.OfInt {
+
+        private int index = 0;
+        private int low = size > 0 ? containers[0].first() : -1;
+
+        @Override
+        public boolean hasNext() {
+            while (low == -1 && index < size - 1) {
+                low = containers[++index].first();
+            }
+            return low != -1;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int result = (keys[index] << 16) | low;
+            low = containers[index].next(low);
+            return result;
+        }
+    }
+    //</editor-fold>
+}
@@ -18,22 +18,27 @@ package internal.jackcess;
 
 import internal.xdb.DbBasicSelect;
 import internal.xdb.DbRawDataUtil;
-import com.google.common.base.Stopwatch;
+import internal.xdb.DbSortOptions;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Range;
 import com.healthmarketscience.jackcess.Column;
 import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.Index;
 import com.healthmarketscience.jackcess.RowId;
 import com.healthmarketscience.jackcess.Table;
 import ec.tss.tsproviders.utils.IteratorWithIO;
 import java.io.Closeable;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.SortedMap;
 import java.util.SortedSet;
-import java.util.concurrent.TimeUnit;
 import internal.xdb.DbRawDataUtil.SuperDataType;
 import java.util.HashSet;
+import java.util.NoSuchElementException;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.ToIntFunction;
@@ -49,14 +54,33 @@ public final class JackcessStatement implements Closeable {
 
     private final Database database;
     private final Range<RowId> range;
+    private final JackcessStatementOptions options;
+    private final Duration openTime;
+    private final FileVersion version;
 
     public JackcessStatement(@NonNull Database database, @Nullable Range<RowId> range) {
+        this(database, range, JackcessStatementOptions.DEFAULT);
+    }
+
+    public JackcessStatement(@NonNull Database database, @Nullable Range<RowId> range, @NonNull JackcessStatementOptions options) {
+        this(database, range, options, Duration.ZERO, null);
+    }
+
+    public JackcessStatement(JackcessDatabasePool.@NonNull Lease lease, @Nullable Range<RowId> range, @NonNull JackcessStatementOptions options) throws IOException {
+        this(lease.getDatabase(), range, options, lease.getOpenTime(), lease.getVersion());
+    }
+
+    private JackcessStatement(Database database, Range<RowId> range, JackcessStatementOptions options, Duration openTime, FileVersion version) {
         this.database = database;
         this.range = range != null ? range : Range.<RowId>all();
+        this.options = options;
+        this.openTime = openTime;
+        this.version = version;
     }
 
     @NonNull
     public JackcessResultSet executeQuery(@NonNull DbBasicSelect query) throws IOException {
+        Metrics metrics = new Metrics(query, !range.equals(Range.<RowId>all()), openTime);
         Table input = database.getTable(query.getTableName());
 
         Function<String, Column> toColumn = input::getColumn;
@@ -70,26 +94,72 @@ public final class JackcessStatement implements Closeable {
         SortedSet<Column> dataColumns = DbRawDataUtil.mergeAndSort(toInternalIndex, selectColumns, orderColumns);
         ToIntFunction<Column> toIndex = DbRawDataUtil.ToIndex.of(toInternalIndex, dataColumns);
 
-        log.debug("Query : '{}'", query);
+        boolean cacheable = version != null && options.isResultCache();
+        JackcessResultCache resultCache = cacheable ? JackcessResultCache.of(options.getResultCacheBudget()) : null;
+        if (cacheable) {
+            IteratorWithIO<Object[]> cached = resultCache.get(version, query, range);
+            if (cached != null) {
+                metrics.cached = true;
+                return new JackcessResultSet(selectColumns, JackcessResultCache.getIndexes(selectColumns.size()), metrics.returned(cached, options.getListener()));
+            }
+        }
+
+        DbSortOptions sortOptions = options.toSortOptions();
+
+        Collection<String> columnNames = toColumnNames(query);
+        Scan scan = getScan(input, filter, orderColumns, columnNames, getIndexedColumns(query.isDistinct(), filter, selectColumns));
+        boolean sortRequired = DbRawDataUtil.isSortRequired(query.isDistinct(), selectColumns, orderColumns)
+                && !(scan.isOrdered() && !query.isDistinct());
+
+        JackcessParallelScan parallelScan = isParallel(scan, query.isDistinct(), sortRequired)
+                ? new JackcessParallelScan(database.getFile(), input.getName(), options.getParallelism(), options.getChannel())
+                : null;
+        // falls back to a serial scan if the file has changed since this statement was opened
+        JackcessParallelScan.Split split = parallelScan != null ? parallelScan.split(range, version) : null;
 
-        Stopwatch sw = Stopwatch.createStarted();
-        IteratorWithIO<Object[]> rows = getRows(input, dataColumns, filter, toColumnNames(query));
-        log.debug("Iterator done in {}ms", sw.stop().elapsed(TimeUnit.MILLISECONDS));
+        IteratorWithIO<Object[]> rows;
+        if (split != null) {
+            metrics.parallel = true;
+            // all the partial results are alive until they are merged
+            DbSortOptions partOptions = sortOptions.toBuilder().memoryBudget(Math.max(1, sortOptions.getMemoryBudget() / Math.max(1, split.getParts().size()))).build();
+            long sortStart = System.nanoTime();
+            if (query.isDistinct()) {
+                rows = DbRawDataUtil.merge(
+                        parallelScan.execute(split, columnNames, o -> DbRawDataUtil.distinct(metrics.newRows(o, filter, dataColumns), selectColumns, toIndex, toDataType, new Aggregator(dataColumns.size()), partOptions)),
+                        selectColumns, toIndex, toDataType);
+                rows = metrics.distinct(DbRawDataUtil.distinctSorted(rows, selectColumns, toIndex, toDataType, new Aggregator(dataColumns.size())));
+            } else {
+                rows = DbRawDataUtil.merge(
+                        parallelScan.execute(split, columnNames, o -> DbRawDataUtil.sort(metrics.newRows(o, filter, dataColumns), orderColumns, toIndex, toDataType, partOptions)),
+                        orderColumns, toIndex, toDataType);
+                metrics.sortedParts = true;
+                sortRequired = false;
+            }
+            metrics.sortNanos += System.nanoTime() - sortStart;
+        } else {
+            rows = metrics.newRows(scan.getCursor(), filter, dataColumns);
+            if (query.isDistinct()) {
+                long sortStart = System.nanoTime();
+                BiConsumer<Object[], Object[]> aggregator = new Aggregator(dataColumns.size());
+                rows = metrics.distinct(scan.isOrdered() && Iterables.elementsEqual(selectColumns, orderColumns)
+                        ? DbRawDataUtil.distinctSorted(rows, selectColumns, toIndex, toDataType, aggregator)
+                        : DbRawDataUtil.distinct(rows, selectColumns, toIndex, toDataType, aggregator, sortOptions));
+                metrics.sortNanos += System.nanoTime() - sortStart;
+            }
+        }
 
-        if (query.isDistinct()) {
-            sw.start();
-            BiConsumer<Object[], Object[]> aggregator = new Aggregator(dataColumns.size() + 1);
-            rows = DbRawDataUtil.distinct(rows, selectColumns, toIndex, toDataType, aggregator);
-            log.debug("Distinct done in {}ms", sw.stop().elapsed(TimeUnit.MILLISECONDS));
+        if (sortRequired) {
+            long sortStart = System.nanoTime();
+            rows = DbRawDataUtil.sort(metrics.sorted(rows), orderColumns, toIndex, toDataType, sortOptions);
+            metrics.sortNanos += System.nanoTime() - sortStart;
         }
 
-        if (DbRawDataUtil.isSortRequired(query.isDistinct(), selectColumns, orderColumns)) {
-            sw.start();
-            rows = DbRawDataUtil.sort(rows, orderColumns, toIndex, toDataType);
-            log.debug("Sort done in {}ms", sw.stop().elapsed(TimeUnit.MILLISECONDS));
+        int[] indexes = DbRawDataUtil.createIndexes(selectColumns, toIndex);
+        if (cacheable) {
+            rows = resultCache.recording(rows, indexes, version, query, range);
         }
 
-        return new JackcessResultSet(selectColumns, DbRawDataUtil.createIndexes(selectColumns, toIndex), rows);
+        return new JackcessResultSet(selectColumns, indexes, metrics.returned(rows, options.getListener()));
     }
 
     @Override
@@ -97,11 +167,75 @@ public final class JackcessStatement implements Closeable {
     }
 
     //<editor-fold defaultstate="collapsed" desc="Implementation details">
-    private IteratorWithIO<Object[]> getRows(Table input, SortedSet<Column> dataColumns, SortedMap<Column, String> filter, Collection<String> columnNames) throws IOException {
-        return new Adapter(
-                CursorFacade.range(input, columnNames, range).withFilter(filter),
-                dataColumns
-        );
+    private boolean isParallel(Scan scan, boolean distinct, boolean sortRequired) {
+        return options.getParallelism() > 1
+                && !scan.isIndexed()
+                && (distinct || sortRequired)
+                && database.getFile() != null;
+    }
+
+    private Scan getScan(Table input, SortedMap<Column, String> filter, List<Column> orderColumns, Collection<String> columnNames, Collection<Column> indexedColumns) throws IOException {
+        Index ordered = JackcessIndexUtil.findOrderedIndex(input, filter, orderColumns);
+        if (ordered != null) {
+            CursorFacade result = lookup(input, ordered, filter, columnNames);
+            if (result != null) {
+                return new Scan(result, true, true);
+            }
+        }
+        Index index = JackcessIndexUtil.findLookupIndex(input, filter);
+        if (index != null) {
+            CursorFacade result = lookup(input, index, filter, columnNames);
+            if (result != null) {
+                return new Scan(result, false, true);
+            }
+        }
+        // bitmaps and zone maps are only trusted if the version of the database is known
+        if (version != null) {
+            if (!filter.isEmpty()) {
+                JackcessRowBitmap bitmap = options.isBitmapIndex() ? JackcessBitmapIndex.get(version, input.getName(), filter) : null;
+                if (bitmap != null) {
+                    log.debug("Bitmap scan of {} rows", bitmap.getCardinality());
+                    return new Scan(new CursorFacadeUtil.PositionCursor(input, columnNames, bitmap.iterator(), range), false, true);
+                }
+                JackcessZoneMap zoneMap = options.isZoneMap() ? JackcessZoneMap.get(version, input.getName(), filter) : null;
+                if (zoneMap != null) {
+                    log.debug("Zone map scan of {} pages", zoneMap.getPageCount());
+                    return new Scan(new CursorFacadeUtil.PositionCursor(input, columnNames, zoneMap.iterator(filter), range), false, true);
+                }
+            }
+            if (range.equals(Range.<RowId>all())) {
+                CursorFacade result = CursorFacade.basic(input, columnNames);
+                if (options.isBitmapIndex()) {
+                    result = JackcessBitmapIndex.recording(result, version, input.getName(), indexedColumns);
+                }
+                if (options.isZoneMap()) {
+                    result = JackcessZoneMap.recording(result, version, input.getName(), indexedColumns);
+                }
+                return new Scan(result, false, false);
+            }
+        }
+        return new Scan(CursorFacade.range(input, columnNames, range), false, false);
+    }
+
+    private static Collection<Column> getIndexedColumns(boolean distinct, SortedMap<Column, String> filter, List<Column> selectColumns) {
+        // filtered and distinct columns are assumed to be dimensions
+        Collection<Column> result = new HashSet<>(filter.keySet());
+        if (distinct) {
+            result.addAll(selectColumns);
+        }
+        return result;
+    }
+
+    @Nullable
+    private static CursorFacade lookup(Table input, Index index, SortedMap<Column, String> filter, Collection<String> columnNames) throws IOException {
+        try {
+            CursorFacade result = CursorFacade.lookup(input, columnNames, index, JackcessIndexUtil.getLookupEntry(index, filter));
+            log.debug("Lookup on index '{}'", index.getName());
+            return result;
+        } catch (IllegalArgumentException ex) {
+            log.debug("Index '{}' not usable for lookup", index.getName(), ex);
+            return null;
+        }
     }
 
     private static Collection<String> toColumnNames(DbBasicSelect query) {
@@ -112,6 +246,153 @@ public final class JackcessStatement implements Closeable {
         return result;
     }
 
+    @lombok.Value
+    private static class Scan {
+
+        CursorFacade cursor;
+        boolean ordered;
+        boolean indexed;
+    }
+
+    private static final class Metrics {
+
+        private final DbBasicSelect query;
+        private final boolean ranged;
+        private final Duration openTime;
+        private final long start;
+        private final List<CursorFacadeUtil.Counting> scanned;
+        private final List<CursorFacadeUtil.Counting> matched;
+        private boolean parallel;
+        private boolean cached;
+        private boolean sortedParts;
+        private long sortNanos;
+        private Counting distinct;
+        private Counting sorted;
+
+        private Metrics(DbBasicSelect query, boolean ranged, Duration openTime) {
+            this.query = query;
+            this.ranged = ranged;
+            this.openTime = openTime;
+            this.start = System.nanoTime();
+            // partitions of parallel scans add their counters concurrently
+            this.scanned = Collections.synchronizedList(new ArrayList<>());
+            this.matched = Collections.synchronizedList(new ArrayList<>());
+            this.parallel = false;
+            this.cached = false;
+            this.sortedParts = false;
+            this.sortNanos = 0;
+            this.distinct = null;
+            this.sorted = null;
+        }
+
+        private IteratorWithIO<Object[]> newRows(CursorFacade cursor, SortedMap<Column, String> filter, SortedSet<Column> dataColumns) {
+            CursorFacadeUtil.Counting scannedCursor = new CursorFacadeUtil.Counting(cursor);
+            CursorFacadeUtil.Counting matchedCursor = new CursorFacadeUtil.Counting(scannedCursor.withFilter(filter));
+            scanned.add(scannedCursor);
+            matched.add(matchedCursor);
+            return new Adapter(matchedCursor, dataColumns);
+        }
+
+        private IteratorWithIO<Object[]> distinct(IteratorWithIO<Object[]> rows) {
+            return distinct = new Counting(rows);
+        }
+
+        private IteratorWithIO<Object[]> sorted(IteratorWithIO<Object[]> rows) {
+            return sorted = new Counting(rows);
+        }
+
+        private IteratorWithIO<Object[]> returned(IteratorWithIO<Object[]> rows, JackcessQueryListener listener) {
+            return new Reporting(rows, this, listener);
+        }
+
+        private JackcessQueryEvent toEvent(long returnedRows) {
+            long matchedRows = sum(matched);
+            return JackcessQueryEvent
+                    .builder()
+                    .query(query)
+                    .ranged(ranged)
+                    .parallel(parallel)
+                    .cached(cached)
+                    .openTime(openTime)
+                    .scannedRows(sum(scanned))
+                    .matchedRows(matchedRows)
+                    .distinctRows(distinct != null ? distinct.count : -1)
+                    .sortedRows(sorted != null ? sorted.count : sortedParts ? matchedRows : -1)
+                    .sortTime(Duration.ofNanos(sortNanos))
+                    .returnedRows(returnedRows)
+                    .totalTime(Duration.ofNanos(System.nanoTime() - start))
+                    .build();
+        }
+
+        private static long sum(List<CursorFacadeUtil.Counting> list) {
+            synchronized (list) {
+                return list.stream().mapToLong(CursorFacadeUtil.Counting::getCount).sum();
+            }
+        }
+    }
+
+    private static class Counting implements IteratorWithIO<Object[]> {
+
+        protected final IteratorWithIO<Object[]> delegate;
+        protected long count;
+
+        private Counting(IteratorWithIO<Object[]> delegate) {
+            this.delegate = delegate;
+            this.count = 0;
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Object[] next() throws IOException, NoSuchElementException {
+            Object[] result = delegate.next();
+            count++;
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static final class Reporting extends Counting {
+
+        private final Metrics metrics;
+        private final JackcessQueryListener listener;
+        private boolean closed;
+
+        private Reporting(IteratorWithIO<Object[]> delegate, Metrics metrics, JackcessQueryListener listener) {
+            super(delegate);
+            this.metrics = metrics;
+            this.listener = listener;
+            this.closed = false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    report();
+                }
+            }
+        }
+
+        private void report() {
+            try {
+                listener.onQuery(metrics.toEvent(count));
+            } catch (RuntimeException ex) {
+                log.warn("While reporting query", ex);
+            }
+        }
+    }
+
     private static final class ToDataType implements Function<Column, DbRawDataUtil.SuperDataType> {
 
         private static final ToDataType INSTANCE = new ToDataType();
@@ -145,15 +426,23 @@ public final class JackcessStatement implements Closeable {
 
     private static final class Aggregator implements BiConsumer<Object[], Object[]> {
 
+        private final int firstPosIdx;
         private final int lastPosIdx;
 
-        public Aggregator(int lastPosIdx) {
-            this.lastPosIdx = lastPosIdx;
+        public Aggregator(int firstPosIdx) {
+            this.firstPosIdx = firstPosIdx;
+            this.lastPosIdx = firstPosIdx + 1;
         }
 
         @Override
         public void accept(Object[] t, Object[] u) {
-            t[lastPosIdx] = u[lastPosIdx];
+            // rows are not sorted by id when read through an index
+            if (((RowId) u[firstPosIdx]).compareTo((RowId) t[firstPosIdx]) < 0) {
+                t[firstPosIdx] = u[firstPosIdx];
+            }
+            if (((RowId) u[lastPosIdx]).compareTo((RowId) t[lastPosIdx]) > 0) {
+                t[lastPosIdx] = u[lastPosIdx];
+            }
         }
     }
 
@@ -161,10 +450,12 @@ public final class JackcessStatement implements Closeable {
 
         private final CursorFacade cursor;
         private final Column[] dataColumns;
+        private final Object[] buffer;
 
         public Adapter(CursorFacade cursor, SortedSet<Column> dataColumns) {
             this.cursor = cursor;
             this.dataColumns = dataColumns.toArray(new Column[dataColumns.size()]);
+            this.buffer = new Object[this.dataColumns.length + 2];
         }
 
         @Override
@@ -174,12 +465,12 @@ public final class JackcessStatement implements Closeable {
 
         @Override
         public Object[] next() throws IOException {
-            Object[] result = new Object[dataColumns.length + 2];
-            for (int i = 0; i < result.length - 2; i++) {
-                result[i] = cursor.getCurrentRowValue(dataColumns[i]);
+            // the same array is returned on each row; distinct and sort copy the rows they retain
+            for (int i = 0; i < dataColumns.length; i++) {
+                buffer[i] = cursor.getCurrentRowValue(dataColumns[i]);
             }
-            result[dataColumns.length] = result[dataColumns.length + 1] = cursor.getRowId();
-            return result;
+            buffer[dataColumns.length] = buffer[dataColumns.length + 1] = cursor.getRowId();
+            return buffer;
         }
 
         @Override
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import internal.xdb.DbSortOptions;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Options of statements.
+ *
+ * @author Philippe Charles
+ */
+@lombok.Value
+@lombok.Builder(toBuilder = true)
+public class JackcessStatementOptions {
+
+    public static final JackcessStatementOptions DEFAULT = builder().build();
+
+    /**
+     * Memory budget in bytes of sort and distinct operations before spilling
+     * to disk; zero to keep them in memory.
+     */
+    long sortMemoryBudget;
+
+    /**
+     * Number of concurrent handles used to scan a table when its rows must be
+     * sorted or made distinct; one to disable parallel scans.
+     */
+    @lombok.Builder.Default
+    int parallelism = 1;
+
+    /**
+     * Whether bitmaps of the rows of filtered and distinct columns are
+     * recorded while scanning whole tables and then used to read only the
+     * matching rows of filtered queries. Bitmaps are shared by all the files
+     * and use up to 64MB.
+     */
+    boolean bitmapIndex;
+
+    /**
+     * Whether the ranges of rows of dimension values are persisted in a
+     * sidecar file next to the database so that they survive restarts.
+     */
+    boolean persistentRangeIndex;
+
+    /**
+     * Whether the values of filtered and distinct columns are summarized per
+     * data page while scanning whole tables so that filtered queries skip the
+     * pages that cannot match.
+     */
+    boolean zoneMap;
+
+    /**
+     * Whether the complete results of queries are kept in a cache shared by
+     * all statements on the same file version.
+     */
+    boolean resultCache;
+
+    /**
+     * Memory budget in bytes of the result cache; zero for the default budget
+     * of 32MB. Statements with the same budget share the same cache.
+     */
+    long resultCacheBudget;
+
+    /**
+     * How the databases of statements access their files.
+     */
+    @NonNull
+    @lombok.Builder.Default
+    JackcessChannelMode channel = JackcessChannelMode.DEFAULT;
+
+    /**
+     * Listener notified of each executed query.
+     */
+    @NonNull
+    @lombok.Builder.Default
+    JackcessQueryListener listener = JackcessQueryListener.getDefault();
+
+    @NonNull
+    DbSortOptions toSortOptions() {
+        return DbSortOptions.builder()
+                .memoryBudget(DbSortOptions.resolveMemoryBudget(sortMemoryBudget))
+                .codec(JackcessValueCodec.INSTANCE)
+                .build();
+    }
+}
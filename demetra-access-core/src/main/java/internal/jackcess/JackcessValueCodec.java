@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.healthmarketscience.jackcess.impl.RowIdImpl;
+import internal.xdb.DbValueCodec;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Spills the row ids appended to rows by the statement.
+ *
+ * @author Philippe Charles
+ */
+enum JackcessValueCodec implements DbValueCodec {
+
+    INSTANCE;
+
+    @Override
+    public boolean isSupported(Object value) {
+        return value instanceof RowIdImpl && ((RowIdImpl) value).getType() == RowIdImpl.Type.NORMAL;
+    }
+
+    @Override
+    public void write(DataOutput output, Object value) throws IOException {
+        RowIdImpl rowId = (RowIdImpl) value;
+        output.writeInt(rowId.getPageNumber());
+        output.writeInt(rowId.getRowNumber());
+    }
+
+    @Override
+    public Object read(DataInput input) throws IOException {
+        return new RowIdImpl(input.readInt(), input.readInt());
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.healthmarketscience.jackcess.Column;
+import com.healthmarketscience.jackcess.RowId;
+import com.healthmarketscience.jackcess.impl.RowIdImpl;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.SortedMap;
+import java.util.TreeSet;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Summaries of the values of some columns for each data page of a table.
+ * <p>
+ * A zone keeps the values of a column in a page if they are few, or their
+ * min and max otherwise. Zones are recorded while scanning whole tables and
+ * are cached per file version. A filtered scan then only visits the pages
+ * whose zones may contain the filter values. This is cheaper to keep than
+ * row bitmaps and works well when rows are appended per series or per year.
+ *
+ * @author Philippe Charles
+ */
+@lombok.extern.slf4j.Slf4j
+final class JackcessZoneMap {
+
+    /**
+     * Maximum number of distinct values kept per page before falling back to
+     * a min-max range.
+     */
+    static final int MAX_VALUES = 16;
+
+    private static final Cache<Key, JackcessZoneMap> ZONE_MAPS = CacheBuilder.newBuilder().maximumSize(256).build();
+
+    /**
+     * Gets the zone map of a table if it covers at least one of the filter
+     * columns.
+     *
+     * @param version
+     * @param table
+     * @param filter
+     * @return a zone map if usable, null otherwise
+     */
+    @Nullable
+    static JackcessZoneMap get(@NonNull FileVersion version, @NonNull String table, @NonNull SortedMap<Column, String> filter) {
+        JackcessZoneMap result = ZONE_MAPS.getIfPresent(new Key(version, table));
+        if (result != null) {
+            for (Column o : filter.keySet()) {
+                if (result.zones.containsKey(o.getName())) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records the zones of some columns while scanning a whole table. Columns
+     * that are already recorded are skipped.
+     *
+     * @param cursor a cursor on the whole table
+     * @param version
+     * @param table
+     * @param columns
+     * @return a cursor that records the zones
+     */
+    @NonNull
+    static CursorFacade recording(@NonNull CursorFacade cursor, @NonNull FileVersion version, @NonNull String table, @NonNull Collection<Column> columns) {
+        JackcessZoneMap current = ZONE_MAPS.getIfPresent(new Key(version, table));
+        List<Column> missing = new ArrayList<>();
+        for (Column o : columns) {
+            if (current == null || !current.zones.containsKey(o.getName())) {
+                missing.add(o);
+            }
+        }
+        return missing.isEmpty() ? cursor : new Recording(cursor, version, table, missing.toArray(new Column[missing.size()]));
+    }
+
+    static void clear() {
+        ZONE_MAPS.invalidateAll();
+    }
+
+    /**
+     * Drops the zone maps of all the versions of a file.
+     *
+     * @param file an absolute file
+     */
+    static void invalidate(@NonNull File file) {
+        ZONE_MAPS.asMap().keySet().removeIf(o -> o.getVersion().getFile().equals(file));
+    }
+
+    private final int[] pages;
+    private final int[] rowCounts;
+    private final Map<String, Zone[]> zones;
+
+    private JackcessZoneMap(int[] pages, int[] rowCounts, Map<String, Zone[]> zones) {
+        this.pages = pages;
+        this.rowCounts = rowCounts;
+        this.zones = zones;
+    }
+
+    /**
+     * Iterates over the positions of the rows of the pages that may match a
+     * filter, in ascending order.
+     *
+     * @param filter
+     * @return
+     * @see JackcessRowBitmap#toPosition(RowId)
+     */
+    PrimitiveIterator.@NonNull OfInt iterator(@NonNull SortedMap<Column, String> filter) {
+        List<Map.Entry<Zone[], String>> conditions = new ArrayList<>();
+        filter.forEach((k, v) -> {
+            Zone[] o = zones.get(k.getName());
+            if (o != null) {
+                conditions.add(new java.util.AbstractMap.SimpleImmutableEntry<>(o, v));
+            }
+        });
+        return new PositionIterator(conditions);
+    }
+
+    int getPageCount() {
+        return pages.length;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    @lombok.Value
+    private static class Key {
+
+        FileVersion version;
+        String table;
+    }
+
+    @lombok.AllArgsConstructor
+    private static final class Zone {
+
+        private static final Zone EMPTY = new Zone(new String[0], null, null);
+
+        // sorted values or null if too many values
+        private final String[] values;
+        private final String min;
+        private final String max;
+
+        boolean mayContain(String expected) {
+            return values != null
+                    ? Arrays.binarySearch(values, expected) >= 0
+                    : min.compareTo(expected) <= 0 && max.compareTo(expected) >= 0;
+        }
+    }
+
+    private static final class ZoneBuilder {
+
+        private final TreeSet<String> values = new TreeSet<>();
+        private String min = null;
+        private String max = null;
+
+        void add(String value) {
+            if (min == null || value.compareTo(min) < 0) {
+                min = value;
+            }
+            if (max == null || value.compareTo(max) > 0) {
+                max = value;
+            }
+            if (values.size() <= MAX_VALUES) {
+                values.add(value);
+            }
+        }
+
+        Zone build() {
+            return min == null ? Zone.EMPTY
+                    : values.size() <= MAX_VALUES ? new Zone(values.toArray(new String[values.size()]), min, max)
+                    : new Zone(null, min, max);
+        }
+    }
+
+    private final class PositionIterator implements PrimitiveIterator.OfInt {
+
+        private final List<Map.Entry<Zone[], String>> conditions;
+        private int page = -1;
+        private int row = 0;
+
+        private PositionIterator(List<Map.Entry<Zone[], String>> conditions) {
+            this.conditions = conditions;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (page >= pages.length) {
+                return false;
+            }
+            while (page == -1 || row >= rowCounts[page]) {
+                if (++page >= pages.length) {
+                    page = pages.length;
+                    return false;
+                }
+                row = 0;
+                if (!mayMatch(page)) {
+                    row = rowCounts[page];
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return JackcessRowBitmap.toPosition(pages[page], row++);
+        }
+
+        private boolean mayMatch(int index) {
+            for (Map.Entry<Zone[], String> o : conditions) {
+                if (!o.getKey()[index].mayContain(o.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Recording implements CursorFacade {
+
+        private final CursorFacade delegate;
+        private final FileVersion version;
+        private final String table;
+        private final Column[] columns;
+        private final Map<Integer, PageBuilder> builders;
+        private PageBuilder current;
+        private boolean aborted;
+
+        private Recording(CursorFacade delegate, FileVersion version, String table, Column[] columns) {
+            this.delegate = delegate;
+            this.version = version;
+            this.table = table;
+            this.columns = columns;
+            this.builders = new HashMap<>();
+            this.current = null;
+            this.aborted = false;
+        }
+
+        @Override
+        public boolean moveToNextRow() throws IOException {
+            boolean result = delegate.moveToNextRow();
+            if (!aborted) {
+                if (result) {
+                    record();
+                } else {
+                    publish();
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Object getCurrentRowValue(Column column) throws IOException {
+            return delegate.getCurrentRowValue(column);
+        }
+
+        @Override
+        public RowId getRowId() throws IOException {
+            return delegate.getRowId();
+        }
+
+        @Override
+        public void moveBefore(RowId rowId) throws IOException {
+            aborted = true;
+            delegate.moveBefore(rowId);
+        }
+
+        private void record() throws IOException {
+            RowId rowId = delegate.getRowId();
+            if (!JackcessRowBitmap.isSupported(rowId)) {
+                aborted = true;
+                return;
+            }
+            RowIdImpl impl = (RowIdImpl) rowId;
+            if (current == null || current.page != impl.getPageNumber()) {
+                current = builders.computeIfAbsent(impl.getPageNumber(), o -> new PageBuilder(o, columns.length));
+            }
+            current.rowCount = Math.max(current.rowCount, impl.getRowNumber() + 1);
+            for (int i = 0; i < columns.length; i++) {
+                Object value = delegate.getCurrentRowValue(columns[i]);
+                if (value != null) {
+                    current.zones[i].add(value.toString());
+                }
+            }
+        }
+
+        private void publish() {
+            aborted = true;
+            int[] pages = builders.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            Key key = new Key(version, table);
+            JackcessZoneMap current = ZONE_MAPS.getIfPresent(key);
+            Map<String, Zone[]> zones = current != null && Arrays.equals(current.pages, pages) ? new HashMap<>(current.zones) : new HashMap<>();
+            for (int i = 0; i < columns.length; i++) {
+                Zone[] column = new Zone[pages.length];
+                for (int j = 0; j < pages.length; j++) {
+                    column[j] = builders.get(pages[j]).zones[i].build();
+                }
+                zones.put(columns[i].getName(), column);
+            }
+            int[] counts = Arrays.stream(pages).map(o -> builders.get(o).rowCount).toArray();
+            ZONE_MAPS.put(key, new JackcessZoneMap(pages, counts, zones));
+            log.debug("Zone map of '{}' recorded on {} pages", table, pages.length);
+        }
+
+    }
+
+    private static final class PageBuilder {
+
+        private final int page;
+        private final ZoneBuilder[] zones;
+        private int rowCount;
+
+        private PageBuilder(int page, int columnCount) {
+            this.page = page;
+            this.zones = new ZoneBuilder[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                zones[i] = new ZoneBuilder();
+            }
+            this.rowCount = 0;
+        }
+    }
+    //</editor-fold>
+}
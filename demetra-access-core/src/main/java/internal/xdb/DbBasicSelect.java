@@ -105,6 +105,27 @@ public final class DbBasicSelect {
         return toSql();
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DbBasicSelect)) {
+            return false;
+        }
+        DbBasicSelect that = (DbBasicSelect) obj;
+        return tableName.equals(that.tableName)
+                && distinct == that.distinct
+                && selectColumns.equals(that.selectColumns)
+                && filterItems.equals(that.filterItems)
+                && orderColumns.equals(that.orderColumns);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tableName, distinct, selectColumns, filterItems, orderColumns);
+    }
+
     @NonNull
     public static Builder from(@NonNull String tableName) {
         return new Builder(tableName);
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.xdb;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Groups of rows keyed on dictionary codes of their select columns.
+ * <p>
+ * Each select column has its own dictionary that maps values to dense codes.
+ * The key of a row is then the tuple of its codes, looked up in an
+ * open-addressing table of group ids. Values are considered equal if their
+ * data type considers them equal: byte arrays are compared by content,
+ * decimals regardless of their scale and other values by their string
+ * representation.
+ *
+ * @author Philippe Charles
+ */
+final class DbHashDistinct {
+
+    private static final int EMPTY = -1;
+
+    private final int[] indexes;
+    private final DbRawDataUtil.SuperDataType[] dataTypes;
+    private final Map<Object, Integer>[] dictionaries;
+    private final int[] codes;
+    private final List<Object[]> groups;
+    private int[] groupCodes;
+    private int[] table;
+    private int slot;
+
+    @SuppressWarnings("unchecked")
+    DbHashDistinct(int[] indexes, DbRawDataUtil.SuperDataType[] dataTypes) {
+        this.indexes = indexes;
+        this.dataTypes = dataTypes;
+        this.dictionaries = new Map[indexes.length];
+        this.codes = new int[indexes.length];
+        this.groups = new ArrayList<>();
+        clear();
+    }
+
+    /**
+     * Finds the group of a row.
+     *
+     * @param row
+     * @return the first row of the group if any, null otherwise
+     */
+    @Nullable
+    Object[] get(Object[] row) {
+        for (int i = 0; i < indexes.length; i++) {
+            Map<Object, Integer> dictionary = dictionaries[i];
+            Object key = toKey(dataTypes[i], row[indexes[i]]);
+            Integer code = dictionary.get(key);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.put(key, code);
+            }
+            codes[i] = code;
+        }
+        int mask = table.length - 1;
+        slot = hash(codes) & mask;
+        while (table[slot] != EMPTY) {
+            if (isSameCodes(table[slot])) {
+                return groups.get(table[slot]);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Adds a new group for the row that was last passed to
+     * {@link #get(Object[])} and that has no group.
+     *
+     * @param first the first row of the group
+     */
+    void add(Object[] first) {
+        int group = groups.size();
+        groups.add(first);
+        if (groupCodes.length < (group + 1) * codes.length) {
+            groupCodes = Arrays.copyOf(groupCodes, Math.max(16, groupCodes.length * 2));
+        }
+        System.arraycopy(codes, 0, groupCodes, group * codes.length, codes.length);
+        table[slot] = group;
+        if (groups.size() * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+    }
+
+    List<Object[]> getGroups() {
+        return groups;
+    }
+
+    void clear() {
+        for (int i = 0; i < dictionaries.length; i++) {
+            dictionaries[i] = new HashMap<>();
+        }
+        groups.clear();
+        groupCodes = new int[16 * Math.max(1, codes.length)];
+        table = new int[16];
+        Arrays.fill(table, EMPTY);
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private boolean isSameCodes(int group) {
+        int offset = group * codes.length;
+        for (int i = 0; i < codes.length; i++) {
+            if (groupCodes[offset + i] != codes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        int[] result = new int[capacity];
+        Arrays.fill(result, EMPTY);
+        int mask = capacity - 1;
+        int[] tmp = new int[codes.length];
+        for (int group = 0; group < groups.size(); group++) {
+            System.arraycopy(groupCodes, group * codes.length, tmp, 0, codes.length);
+            int i = hash(tmp) & mask;
+            while (result[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            result[i] = group;
+        }
+        table = result;
+    }
+
+    private static int hash(int[] codes) {
+        int result = 1;
+        for (int code : codes) {
+            result = 31 * result + code;
+        }
+        // spreads the bits since codes are small consecutive integers
+        result *= 0x9E3779B9;
+        return result ^ (result >>> 16);
+    }
+
+    @Nullable
+    static Object toKey(DbRawDataUtil.SuperDataType dataType, @Nullable Object value) {
+        if (value == null) {
+            return null;
+        }
+        switch (dataType) {
+            case BYTE_ARRAY:
+                return ByteBuffer.wrap((byte[]) value);
+            case OTHER:
+                return value.toString();
+            default:
+                // decimals are ordered regardless of their scale
+                return value instanceof BigDecimal ? ((BigDecimal) value).stripTrailingZeros() : value;
+        }
+    }
+    //</editor-fold>
+}
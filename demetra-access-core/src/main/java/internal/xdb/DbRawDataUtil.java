@@ -22,12 +22,16 @@ import com.google.common.collect.Ordering;
 import com.google.common.primitives.UnsignedBytes;
 import ec.tss.tsproviders.utils.IteratorWithIO;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.SortedMap;
 import java.util.SortedSet;
@@ -132,26 +136,99 @@ public class DbRawDataUtil {
             @NonNull ToIntFunction<C> toIndex,
             @NonNull Function<C, SuperDataType> toDataType,
             @NonNull BiConsumer<Object[], Object[]> aggregator) throws IOException {
+        return distinct(rows, selectColumns, toIndex, toDataType, aggregator, DbSortOptions.IN_MEMORY);
+    }
+
+    /**
+     * Removes duplicated rows and sorts them on the select columns. Rows are
+     * grouped in a hash table keyed on dictionary codes of the select columns
+     * so that only the distinct rows are sorted. Distinct rows exceeding the
+     * memory budget are spilled to disk as sorted runs that are merged and
+     * aggregated while iterating.
+     * <p>
+     * The input may reuse its array between rows since only the first row of
+     * each distinct value is copied.
+     *
+     * @param <C>
+     * @param rows
+     * @param selectColumns
+     * @param toIndex
+     * @param toDataType
+     * @param aggregator a commutative aggregator
+     * @param options
+     * @return
+     * @throws IOException
+     */
+    @NonNull
+    @SuppressWarnings("null")
+    public <C> IteratorWithIO<Object[]> distinct(
+            @NonNull IteratorWithIO<Object[]> rows,
+            @NonNull List<C> selectColumns,
+            @NonNull ToIntFunction<C> toIndex,
+            @NonNull Function<C, SuperDataType> toDataType,
+            @NonNull BiConsumer<Object[], Object[]> aggregator,
+            @NonNull DbSortOptions options) throws IOException {
 
-        TreeMap<Object[], Object[]> result = new TreeMap<>(newRowOrdering(selectColumns, toIndex, toDataType));
-        Equivalence<Object[]> equivalence = newRowEquivalence(selectColumns, toIndex);
-        Object[] first = null;
-        while (rows.hasNext()) {
-            Object[] current = rows.next();
-            // pre-check to avoid using TreeMap#get(Object)
-            if (!equivalence.equivalent(first, current)) {
-                first = result.get(current);
-                if (first == null) {
-                    result.put(current, current);
-                    first = current;
+        Comparator<Object[]> ordering = newRowOrdering(selectColumns, toIndex, toDataType);
+        DbHashDistinct result = new DbHashDistinct(createIndexes(selectColumns, toIndex), createDataTypes(selectColumns, toDataType));
+        Equivalence<Object[]> equivalence = newRowEquivalence(selectColumns, toIndex, toDataType);
+        try (DbSpill spill = new DbSpill(options, ordering)) {
+            long size = 0;
+            Object[] first = null;
+            while (rows.hasNext()) {
+                checkInterrupted();
+                Object[] current = rows.next();
+                // pre-check to avoid computing the key of consecutive duplicates
+                if (!equivalence.equivalent(first, current)) {
+                    first = result.get(current);
+                    if (first == null) {
+                        first = current.clone();
+                        result.add(first);
+                        size += DbSpill.estimateSize(first);
+                        if (spill.isExceeded(size) && spill.spill(sorted(result.getGroups(), ordering))) {
+                            result.clear();
+                            first = null;
+                            size = 0;
+                        }
+                    } else {
+                        aggregator.accept(first, current);
+                    }
                 } else {
                     aggregator.accept(first, current);
                 }
-            } else {
-                aggregator.accept(first, current);
             }
+            List<Object[]> survivors = sorted(result.getGroups(), ordering);
+            return spill.isEmpty()
+                    ? IteratorWithIO.from(survivors.iterator())
+                    : new SortedDistinctIterator(spill.merge(survivors.iterator()), equivalence, aggregator);
         }
-        return IteratorWithIO.from(result.keySet().iterator());
+    }
+
+    /**
+     * Removes duplicated rows from rows that are already sorted on the select
+     * columns. Contrary to {@link #distinct} it does not retain the rows in
+     * memory.
+     * <p>
+     * The input may reuse its array between rows since the first row of each
+     * distinct value is copied.
+     *
+     * @param <C>
+     * @param rows
+     * @param selectColumns
+     * @param toIndex
+     * @param toDataType
+     * @param aggregator
+     * @return
+     */
+    @NonNull
+    public <C> IteratorWithIO<Object[]> distinctSorted(
+            @NonNull IteratorWithIO<Object[]> rows,
+            @NonNull List<C> selectColumns,
+            @NonNull ToIntFunction<C> toIndex,
+            @NonNull Function<C, SuperDataType> toDataType,
+            @NonNull BiConsumer<Object[], Object[]> aggregator) {
+
+        return new SortedDistinctIterator(rows, newRowEquivalence(selectColumns, toIndex, toDataType), aggregator);
     }
 
     @NonNull
@@ -160,10 +237,89 @@ public class DbRawDataUtil {
             @NonNull List<C> orderColumns,
             @NonNull ToIntFunction<C> toIndex,
             @NonNull Function<C, SuperDataType> toDataType) throws IOException {
+        return sort(rows, orderColumns, toIndex, toDataType, DbSortOptions.IN_MEMORY);
+    }
+
+    /**
+     * Sorts rows on the order columns. Rows exceeding the memory budget are
+     * spilled to disk as sorted runs that are merged while iterating.
+     * <p>
+     * The input may reuse its array between rows since retained rows are
+     * copied.
+     *
+     * @param <C>
+     * @param rows
+     * @param orderColumns
+     * @param toIndex
+     * @param toDataType
+     * @param options
+     * @return
+     * @throws IOException
+     */
+    @NonNull
+    public <C> IteratorWithIO<Object[]> sort(
+            @NonNull IteratorWithIO<Object[]> rows,
+            @NonNull List<C> orderColumns,
+            @NonNull ToIntFunction<C> toIndex,
+            @NonNull Function<C, SuperDataType> toDataType,
+            @NonNull DbSortOptions options) throws IOException {
+
+        Comparator<Object[]> ordering = newRowOrdering(orderColumns, toIndex, toDataType);
+        List<Object[]> tmp = new ArrayList<>();
+        try (DbSpill spill = new DbSpill(options, ordering)) {
+            long size = 0;
+            while (rows.hasNext()) {
+                checkInterrupted();
+                Object[] current = rows.next().clone();
+                tmp.add(current);
+                size += DbSpill.estimateSize(current);
+                if (spill.isExceeded(size)) {
+                    tmp.sort(ordering);
+                    if (spill.spill(tmp)) {
+                        tmp.clear();
+                        size = 0;
+                    }
+                }
+            }
+            tmp.sort(ordering);
+            return spill.isEmpty() ? IteratorWithIO.from(tmp.iterator()) : spill.merge(tmp.iterator());
+        }
+    }
+
+    /**
+     * Merges rows that are already sorted on the order columns. Ties keep the
+     * order of the iterators in the list so that merging stable sorts of
+     * consecutive parts gives a stable sort of the whole.
+     *
+     * @param <C>
+     * @param sortedRows
+     * @param orderColumns
+     * @param toIndex
+     * @param toDataType
+     * @return
+     * @throws IOException
+     */
+    @NonNull
+    public <C> IteratorWithIO<Object[]> merge(
+            @NonNull List<IteratorWithIO<Object[]>> sortedRows,
+            @NonNull List<C> orderColumns,
+            @NonNull ToIntFunction<C> toIndex,
+            @NonNull Function<C, SuperDataType> toDataType) throws IOException {
 
-        List<Object[]> tmp = toList(rows);
-        tmp.sort(newRowOrdering(orderColumns, toIndex, toDataType));
-        return IteratorWithIO.from(tmp.iterator());
+        return DbSpill.merge(sortedRows, newRowOrdering(orderColumns, toIndex, toDataType));
+    }
+
+    /**
+     * Checks if the current thread has been interrupted so that long scans,
+     * sorts and distincts can be cancelled.
+     *
+     * @throws InterruptedIOException if the current thread has been
+     * interrupted
+     */
+    public void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Query interrupted");
+        }
     }
 
     @NonNull
@@ -180,8 +336,18 @@ public class DbRawDataUtil {
         return result;
     }
 
-    private <C> Equivalence<Object[]> newRowEquivalence(List<C> selectColumns, ToIntFunction<C> index) {
-        return new ArrayEquivalence(createIndexes(selectColumns, index));
+    private <C> SuperDataType[] createDataTypes(List<C> selectColumns, Function<C, SuperDataType> toDataType) {
+        return selectColumns.stream().map(toDataType).toArray(SuperDataType[]::new);
+    }
+
+    private static List<Object[]> sorted(List<Object[]> rows, Comparator<Object[]> ordering) {
+        List<Object[]> result = new ArrayList<>(rows);
+        result.sort(ordering);
+        return result;
+    }
+
+    private <C> Equivalence<Object[]> newRowEquivalence(List<C> selectColumns, ToIntFunction<C> index, Function<C, SuperDataType> toDataType) {
+        return new ArrayEquivalence(createIndexes(selectColumns, index), createDataTypes(selectColumns, toDataType));
     }
 
     private <C> Comparator<Object[]> newRowOrdering(List<C> orderColumns, ToIntFunction<C> toIndex, Function<C, SuperDataType> toDataType) {
@@ -191,6 +357,61 @@ public class DbRawDataUtil {
         return Ordering.compound(result);
     }
 
+    private static final class SortedDistinctIterator implements IteratorWithIO<Object[]> {
+
+        private final IteratorWithIO<Object[]> rows;
+        private final Equivalence<Object[]> equivalence;
+        private final BiConsumer<Object[], Object[]> aggregator;
+        private Object[] current;
+        private Object[] lookahead;
+
+        private SortedDistinctIterator(IteratorWithIO<Object[]> rows, Equivalence<Object[]> equivalence, BiConsumer<Object[], Object[]> aggregator) {
+            this.rows = rows;
+            this.equivalence = equivalence;
+            this.aggregator = aggregator;
+            this.current = null;
+            this.lookahead = null;
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            if (current != null) {
+                return true;
+            }
+            Object[] first = lookahead != null ? lookahead : rows.hasNext() ? rows.next().clone() : null;
+            lookahead = null;
+            if (first == null) {
+                return false;
+            }
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+                if (equivalence.equivalent(first, row)) {
+                    aggregator.accept(first, row);
+                } else {
+                    lookahead = row.clone();
+                    break;
+                }
+            }
+            current = first;
+            return true;
+        }
+
+        @Override
+        public Object[] next() throws IOException, NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object[] result = current;
+            current = null;
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+
     private static final class ArrayItemComparator implements Comparator<Object[]> {
 
         private final int index;
@@ -212,15 +433,17 @@ public class DbRawDataUtil {
     private static final class ArrayEquivalence extends Equivalence<Object[]> {
 
         private final int[] indexes;
+        private final SuperDataType[] dataTypes;
 
-        public ArrayEquivalence(int[] indexes) {
+        public ArrayEquivalence(int[] indexes, SuperDataType[] dataTypes) {
             this.indexes = indexes;
+            this.dataTypes = dataTypes;
         }
 
         @Override
         protected boolean doEquivalent(Object[] a, Object[] b) {
-            for (int o : indexes) {
-                if (!Objects.equals(a[o], b[o])) {
+            for (int i = 0; i < indexes.length; i++) {
+                if (!equivalent(dataTypes[i], a[indexes[i]], b[indexes[i]])) {
                     return false;
                 }
             }
@@ -230,11 +453,31 @@ public class DbRawDataUtil {
         @Override
         protected int doHash(Object[] t) {
             int result = 1;
-            for (int o : indexes) {
-                result = 31 * result + Objects.hashCode(t[o]);
+            for (int i = 0; i < indexes.length; i++) {
+                result = 31 * result + Objects.hashCode(DbHashDistinct.toKey(dataTypes[i], t[indexes[i]]));
             }
             return result;
         }
+
+        // same as comparing the keys of DbHashDistinct but without wrapping the values
+        private static boolean equivalent(SuperDataType dataType, Object l, Object r) {
+            if (l == r) {
+                return true;
+            }
+            if (l == null || r == null) {
+                return false;
+            }
+            switch (dataType) {
+                case BYTE_ARRAY:
+                    return Arrays.equals((byte[]) l, (byte[]) r);
+                case OTHER:
+                    return l.toString().equals(r.toString());
+                default:
+                    return l instanceof BigDecimal && r instanceof BigDecimal
+                            ? ((BigDecimal) l).compareTo((BigDecimal) r) == 0
+                            : l.equals(r);
+            }
+        }
     }
     //</editor-fold>
 }
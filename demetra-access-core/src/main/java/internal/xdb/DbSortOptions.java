@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.xdb;
+
+import java.io.File;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Options of sort and distinct operations.
+ *
+ * @author Philippe Charles
+ */
+@lombok.Value
+@lombok.Builder(toBuilder = true)
+public class DbSortOptions {
+
+    public static final DbSortOptions IN_MEMORY = builder().build();
+
+    /**
+     * Estimated size in bytes of the rows kept in memory before spilling
+     * sorted runs to disk.
+     */
+    @lombok.Builder.Default
+    long memoryBudget = Long.MAX_VALUE;
+
+    /**
+     * Directory of the spill files; null for the default temporary directory.
+     */
+    @Nullable
+    File tempDirectory;
+
+    /**
+     * Codec of values that are not natively spillable.
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    DbValueCodec codec = DbValueCodec.NONE;
+
+    /**
+     * Computes the memory budget of a parameter where zero disables spilling.
+     *
+     * @param budget a budget in bytes or zero to keep everything in memory
+     * @return a positive budget
+     */
+    public static long resolveMemoryBudget(long budget) {
+        return budget > 0 ? budget : Long.MAX_VALUE;
+    }
+}
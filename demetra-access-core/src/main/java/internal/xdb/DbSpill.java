@@ -0,0 +1,524 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.xdb;
+
+import ec.tss.tsproviders.utils.IteratorWithIO;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Sorted runs of rows spilled to temporary files and merged back in order.
+ * <p>
+ * Runs are merged with a k-way merge that keeps ties in run order so that
+ * spilling doesn't break the stability of the sort.
+ *
+ * @author Philippe Charles
+ */
+@lombok.extern.slf4j.Slf4j
+final class DbSpill implements Closeable {
+
+    private final DbSortOptions options;
+    private final Comparator<Object[]> ordering;
+    private final List<Path> runs;
+    private boolean disabled;
+
+    DbSpill(DbSortOptions options, Comparator<Object[]> ordering) {
+        this.options = options;
+        this.ordering = ordering;
+        this.runs = new ArrayList<>();
+        this.disabled = false;
+    }
+
+    boolean isExceeded(long estimatedSize) {
+        return !disabled && estimatedSize > options.getMemoryBudget();
+    }
+
+    boolean isEmpty() {
+        return runs.isEmpty();
+    }
+
+    /**
+     * Writes rows that are already sorted as a new run.
+     *
+     * @param rows
+     * @return false if some values cannot be spilled, true otherwise
+     * @throws IOException
+     */
+    boolean spill(Collection<Object[]> rows) throws IOException {
+        if (!rows.stream().allMatch(this::isSupported)) {
+            log.warn("Rows cannot be spilled to disk; keeping them in memory");
+            disabled = true;
+            return false;
+        }
+        Path run = Files.createTempFile(getTempDirectory(), "xdb", ".run");
+        runs.add(run);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))) {
+            for (Object[] row : rows) {
+                output.writeBoolean(true);
+                writeRow(output, row);
+            }
+            output.writeBoolean(false);
+        }
+        log.debug("Spilled {} rows to '{}'", rows.size(), run);
+        return true;
+    }
+
+    /**
+     * Merges the spilled runs with the remaining sorted rows. The returned
+     * iterator takes ownership of the spill files.
+     *
+     * @param remaining
+     * @return
+     * @throws IOException
+     */
+    IteratorWithIO<Object[]> merge(Iterator<Object[]> remaining) throws IOException {
+        MergeIterator result = new MergeIterator(ordering);
+        try {
+            for (Path run : runs) {
+                result.add(new RunSource(run, result.sources.size(), options.getCodec()));
+            }
+            result.add(new MemorySource(remaining, result.sources.size()));
+        } catch (IOException ex) {
+            result.close();
+            throw ex;
+        }
+        runs.clear();
+        return result;
+    }
+
+    /**
+     * Merges iterators that are already sorted. Ties keep the order of the
+     * iterators in the list.
+     *
+     * @param sortedRows
+     * @param ordering
+     * @return
+     * @throws IOException
+     */
+    static IteratorWithIO<Object[]> merge(List<IteratorWithIO<Object[]>> sortedRows, Comparator<Object[]> ordering) throws IOException {
+        MergeIterator result = new MergeIterator(ordering);
+        try {
+            for (IteratorWithIO<Object[]> o : sortedRows) {
+                result.add(new IteratorSource(o, result.sources.size()));
+            }
+        } catch (IOException ex) {
+            result.close();
+            throw ex;
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+    }
+
+    /**
+     * Estimates the heap size of a row.
+     *
+     * @param row
+     * @return an estimated size in bytes
+     */
+    static long estimateSize(Object[] row) {
+        long result = 16 + 8L * row.length;
+        for (Object o : row) {
+            result += estimateSize(o);
+        }
+        return result;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Implementation details">
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int INTEGER = 2;
+    private static final int LONG = 3;
+    private static final int SHORT = 4;
+    private static final int BYTE = 5;
+    private static final int DOUBLE = 6;
+    private static final int FLOAT = 7;
+    private static final int BOOLEAN = 8;
+    private static final int DATE = 9;
+    private static final int BIG_DECIMAL = 10;
+    private static final int BIG_INTEGER = 11;
+    private static final int BYTES = 12;
+    private static final int UUID_VALUE = 13;
+    private static final int EXTENSION = 14;
+
+    private static long estimateSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 40 + 2L * ((String) value).length();
+        }
+        if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return 64;
+        }
+        if (value instanceof Date) {
+            return 32;
+        }
+        return 24;
+    }
+
+    private Path getTempDirectory() throws IOException {
+        File result = options.getTempDirectory();
+        return result != null ? result.toPath() : new File(System.getProperty("java.io.tmpdir")).toPath();
+    }
+
+    private boolean isSupported(Object[] row) {
+        for (Object o : row) {
+            if (getTag(o) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int getTag(Object value) {
+        if (value == null) {
+            return NULL;
+        }
+        // exact classes only so that subclasses are not silently truncated,
+        // except dates that are compared and restored by their time
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            return STRING;
+        }
+        if (type == Integer.class) {
+            return INTEGER;
+        }
+        if (type == Long.class) {
+            return LONG;
+        }
+        if (type == Short.class) {
+            return SHORT;
+        }
+        if (type == Byte.class) {
+            return BYTE;
+        }
+        if (type == Double.class) {
+            return DOUBLE;
+        }
+        if (type == Float.class) {
+            return FLOAT;
+        }
+        if (type == Boolean.class) {
+            return BOOLEAN;
+        }
+        if (value instanceof Date && !options.getCodec().isSupported(value)) {
+            return DATE;
+        }
+        if (type == BigDecimal.class) {
+            return BIG_DECIMAL;
+        }
+        if (type == BigInteger.class) {
+            return BIG_INTEGER;
+        }
+        if (type == byte[].class) {
+            return BYTES;
+        }
+        if (type == UUID.class) {
+            return UUID_VALUE;
+        }
+        return options.getCodec().isSupported(value) ? EXTENSION : -1;
+    }
+
+    private void writeRow(DataOutputStream output, Object[] row) throws IOException {
+        output.writeInt(row.length);
+        for (Object o : row) {
+            int tag = getTag(o);
+            output.writeByte(tag);
+            switch (tag) {
+                case NULL:
+                    break;
+                case STRING:
+                    writeBytes(output, ((String) o).getBytes(StandardCharsets.UTF_8));
+                    break;
+                case INTEGER:
+                    output.writeInt((Integer) o);
+                    break;
+                case LONG:
+                    output.writeLong((Long) o);
+                    break;
+                case SHORT:
+                    output.writeShort((Short) o);
+                    break;
+                case BYTE:
+                    output.writeByte((Byte) o);
+                    break;
+                case DOUBLE:
+                    output.writeDouble((Double) o);
+                    break;
+                case FLOAT:
+                    output.writeFloat((Float) o);
+                    break;
+                case BOOLEAN:
+                    output.writeBoolean((Boolean) o);
+                    break;
+                case DATE:
+                    output.writeLong(((Date) o).getTime());
+                    break;
+                case BIG_DECIMAL:
+                    writeBytes(output, ((BigDecimal) o).unscaledValue().toByteArray());
+                    output.writeInt(((BigDecimal) o).scale());
+                    break;
+                case BIG_INTEGER:
+                    writeBytes(output, ((BigInteger) o).toByteArray());
+                    break;
+                case BYTES:
+                    writeBytes(output, (byte[]) o);
+                    break;
+                case UUID_VALUE:
+                    output.writeLong(((UUID) o).getMostSignificantBits());
+                    output.writeLong(((UUID) o).getLeastSignificantBits());
+                    break;
+                case EXTENSION:
+                    options.getCodec().write(output, o);
+                    break;
+                default:
+                    throw new IOException("Unsupported value type " + o.getClass());
+            }
+        }
+    }
+
+    private static Object[] readRow(DataInputStream input, DbValueCodec codec) throws IOException {
+        Object[] result = new Object[input.readInt()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = readValue(input, codec);
+        }
+        return result;
+    }
+
+    private static Object readValue(DataInputStream input, DbValueCodec codec) throws IOException {
+        int tag = input.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return new String(readBytes(input), StandardCharsets.UTF_8);
+            case INTEGER:
+                return input.readInt();
+            case LONG:
+                return input.readLong();
+            case SHORT:
+                return input.readShort();
+            case BYTE:
+                return input.readByte();
+            case DOUBLE:
+                return input.readDouble();
+            case FLOAT:
+                return input.readFloat();
+            case BOOLEAN:
+                return input.readBoolean();
+            case DATE:
+                return new Date(input.readLong());
+            case BIG_DECIMAL:
+                return new BigDecimal(new BigInteger(readBytes(input)), input.readInt());
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(input));
+            case BYTES:
+                return readBytes(input);
+            case UUID_VALUE:
+                return new UUID(input.readLong(), input.readLong());
+            case EXTENSION:
+                return codec.read(input);
+            default:
+                throw new IOException("Invalid tag " + tag);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        byte[] result = new byte[input.readInt()];
+        input.readFully(result);
+        return result;
+    }
+
+    private static abstract class Source implements Closeable {
+
+        protected final int order;
+        protected Object[] head;
+
+        protected Source(int order) {
+            this.order = order;
+        }
+
+        abstract boolean advance() throws IOException;
+    }
+
+    private static final class MemorySource extends Source {
+
+        private final Iterator<Object[]> rows;
+
+        private MemorySource(Iterator<Object[]> rows, int order) {
+            super(order);
+            this.rows = rows;
+        }
+
+        @Override
+        boolean advance() {
+            head = rows.hasNext() ? rows.next() : null;
+            return head != null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class IteratorSource extends Source {
+
+        private final IteratorWithIO<Object[]> rows;
+
+        private IteratorSource(IteratorWithIO<Object[]> rows, int order) {
+            super(order);
+            this.rows = rows;
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            head = rows.hasNext() ? rows.next() : null;
+            return head != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+
+    private static final class RunSource extends Source {
+
+        private final Path run;
+        private final DataInputStream input;
+        private final DbValueCodec codec;
+
+        private RunSource(Path run, int order, DbValueCodec codec) throws IOException {
+            super(order);
+            this.run = run;
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(run)));
+            this.codec = codec;
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            head = input.readBoolean() ? readRow(input, codec) : null;
+            return head != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                input.close();
+            } finally {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    private static final class MergeIterator implements IteratorWithIO<Object[]> {
+
+        private final List<Source> sources;
+        private final PriorityQueue<Source> queue;
+
+        private MergeIterator(Comparator<Object[]> ordering) {
+            this.sources = new ArrayList<>();
+            Comparator<Source> byHead = (l, r) -> ordering.compare(l.head, r.head);
+            this.queue = new PriorityQueue<>(byHead.thenComparingInt(o -> o.order));
+        }
+
+        private void add(Source source) throws IOException {
+            sources.add(source);
+            if (source.advance()) {
+                queue.add(source);
+            }
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            if (queue.isEmpty()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Object[] next() throws IOException, NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Source source = queue.poll();
+            Object[] result = source.head;
+            if (source.advance()) {
+                queue.add(source);
+            }
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException root = null;
+            for (Source o : sources) {
+                try {
+                    o.close();
+                } catch (IOException ex) {
+                    if (root == null) {
+                        root = ex;
+                    } else {
+                        root.addSuppressed(ex);
+                    }
+                }
+            }
+            sources.clear();
+            queue.clear();
+            if (root != null) {
+                throw root;
+            }
+        }
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.xdb;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Binary encoding of values that are not handled natively when rows are
+ * spilled to disk.
+ *
+ * @author Philippe Charles
+ */
+public interface DbValueCodec {
+
+    boolean isSupported(@NonNull Object value);
+
+    void write(@NonNull DataOutput output, @NonNull Object value) throws IOException;
+
+    @NonNull
+    Object read(@NonNull DataInput input) throws IOException;
+
+    static final DbValueCodec NONE = new DbValueCodec() {
+        @Override
+        public boolean isSupported(Object value) {
+            return false;
+        }
+
+        @Override
+        public void write(DataOutput output, Object value) throws IOException {
+            throw new IOException("Unsupported value type " + value.getClass());
+        }
+
+        @Override
+        public Object read(DataInput input) throws IOException {
+            throw new IOException("Unsupported value");
+        }
+    };
+}
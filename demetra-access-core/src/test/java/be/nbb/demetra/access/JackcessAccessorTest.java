@@ -27,13 +27,21 @@ import com.healthmarketscience.jackcess.RowId;
 import com.healthmarketscience.jackcess.Table;
 import com.healthmarketscience.jackcess.TableBuilder;
 import ec.tss.tsproviders.db.DbAccessor;
+import ec.tss.tsproviders.db.DbSeries;
+import ec.tss.tsproviders.db.DbSetId;
 import ec.tss.tsproviders.utils.DataFormat;
 import ec.tss.tsproviders.utils.Parsers;
 import java.io.BufferedReader;
+import internal.jackcess.FileVersion;
+import internal.jackcess.JackcessChannelMode;
+import internal.jackcess.JackcessFileWatcher;
+import internal.jackcess.JackcessRangeIndex;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Map;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -41,6 +49,9 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  *
@@ -56,8 +67,9 @@ public class JackcessAccessorTest extends DbAccessorTest<JackcessBean> {
     }
 
     @AfterAll
-    public static void afterClass() {
+    public static void afterClass() throws IOException {
         TOP5.delete();
+        JackcessRangeIndex.deleteSidecarFiles(TOP5);
     }
 
     public static File createResource() throws IOException {
@@ -144,17 +156,85 @@ public class JackcessAccessorTest extends DbAccessorTest<JackcessBean> {
 
         accessor.getChildren();
         assertEquals(Top5Table.DIM0.length, accessor.rangeIndex.size());
-        Range<RowId> r1 = accessor.rangeIndex.getIfPresent(accessor.getRoot().child(Top5Table.DIM0[1]));
+        Range<RowId> r1 = accessor.getRange(FileVersion.of(TOP5), accessor.getRoot().child(Top5Table.DIM0[1]));
+        assertNotNull(r1);
 //        assertEquals(246, r1.lowerEndpoint());
 //        assertEquals(329, r1.upperEndpoint());
 
         accessor.getChildren(Top5Table.DIM0[1]);
         assertEquals(Top5Table.DIM0.length + Top5Table.DIM1.length, accessor.rangeIndex.size());
-        Range<RowId> r2 = accessor.rangeIndex.getIfPresent(accessor.getRoot().child(Top5Table.DIM0[1], Top5Table.DIM1[3]));
+        Range<RowId> r2 = accessor.getRange(FileVersion.of(TOP5), accessor.getRoot().child(Top5Table.DIM0[1], Top5Table.DIM1[3]));
+        assertNotNull(r2);
 //        assertEquals(288, r2.lowerEndpoint());
 //        assertEquals(301, r2.upperEndpoint());
 //
         assertArrayEquals(Top5Table.QUARTERLY[3], accessor.getSeriesWithData(Top5Table.DIM0[1], Top5Table.DIM1[3]).getData().get().getValues().internalStorage(), 0);
         assertArrayEquals(Top5Table.QUARTERLY[5], accessor.getSeriesWithData(Top5Table.DIM0[1], Top5Table.DIM1[5]).getData().get().getValues().internalStorage(), 0);
     }
+
+    @Test
+    public void testPersistentRangeIndex() throws Exception {
+        JackcessBean bean = createTop5();
+        bean.setPersistentRangeIndex(true);
+        try {
+            new JackcessAccessor(bean).getChildren();
+
+            JackcessAccessor accessor = new JackcessAccessor(bean);
+            assertNotNull(accessor.getRange(FileVersion.of(TOP5), accessor.getRoot().child(Top5Table.DIM0[1])));
+            assertEquals(Top5Table.DIM0.length, accessor.rangeIndex.size());
+        } finally {
+            JackcessRangeIndex.deleteSidecarFiles(TOP5);
+        }
+
+        JackcessAccessor accessor = new JackcessAccessor(createTop5());
+        assertNull(accessor.getRange(FileVersion.of(TOP5), accessor.getRoot().child(Top5Table.DIM0[1])));
+    }
+
+    @Test
+    public void testStatementOptions() throws Exception {
+        JackcessBean bean = createTop5();
+        bean.setResultCache(true);
+        bean.setBitmapIndex(true);
+        bean.setZoneMap(true);
+        bean.setChannel(JackcessChannelMode.HEAP);
+        assertEquals(bean.getChannel(), new JackcessBean(bean.toDataSource("test", "1")).getChannel());
+
+        JackcessAccessor accessor = new JackcessAccessor(bean);
+        JackcessAccessor expected = new JackcessAccessor(createTop5());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(expected.getAllSeriesWithData(), accessor.getAllSeriesWithData());
+            assertEquals(expected.getChildren(Top5Table.DIM0[1]), accessor.getChildren(Top5Table.DIM0[1]));
+        }
+    }
+
+    @Test
+    public void testFileWatcher() throws Exception {
+        JackcessAccessor accessor = new JackcessAccessor(createTop5());
+
+        accessor.getChildren();
+        assertEquals(Top5Table.DIM0.length, accessor.rangeIndex.size());
+
+        JackcessFileWatcher.getDefault().invalidate(TOP5);
+        assertEquals(0, accessor.rangeIndex.size());
+
+        accessor.getChildren();
+        assertEquals(Top5Table.DIM0.length, accessor.rangeIndex.size());
+    }
+
+    @Test
+    public void testBatchedSeriesWithData() throws Exception {
+        JackcessAccessor accessor = new JackcessAccessor(createTop5());
+
+        DbSetId s3 = accessor.getRoot().child(Top5Table.DIM0[1], Top5Table.DIM1[3]);
+        DbSetId s5 = accessor.getRoot().child(Top5Table.DIM0[1], Top5Table.DIM1[5]);
+        DbSetId missing = accessor.getRoot().child(Top5Table.DIM0[1], "Missing");
+
+        Map<DbSetId, DbSeries> result = accessor.getSeriesWithData(Arrays.asList(s3, s5, missing));
+        assertEquals(2, result.size());
+        assertArrayEquals(Top5Table.QUARTERLY[3], result.get(s3).getData().get().getValues().internalStorage(), 0);
+        assertArrayEquals(Top5Table.QUARTERLY[5], result.get(s5).getData().get().getValues().internalStorage(), 0);
+        assertEquals(accessor.getSeriesWithData(Top5Table.DIM0[1], Top5Table.DIM1[3]).getData(), result.get(s3).getData());
+
+        assertThrows(IllegalArgumentException.class, () -> accessor.getSeriesWithData(Arrays.asList(accessor.getRoot())));
+    }
 }
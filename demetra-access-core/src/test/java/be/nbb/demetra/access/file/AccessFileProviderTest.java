@@ -21,11 +21,24 @@ import be.nbb.demetra.access.JackcessBean;
 import be.nbb.demetra.access.JackcessProvider;
 import static ec.tss.tsproviders.Assertions.assertThat;
 import ec.tss.tsproviders.DataSource;
+import ec.tss.tsproviders.HasFilePaths;
 import ec.tss.tsproviders.IDataSourceLoaderAssert;
+import ec.tss.tsproviders.cube.CubeAccessor;
+import ec.tss.tsproviders.cube.CubeId;
+import ec.tss.tsproviders.cube.TableAsCubeAccessor;
+import ec.tss.tsproviders.cube.TableDataParams;
 import ec.tss.tsproviders.utils.DataFormat;
+import ec.tss.tsproviders.utils.ObsGathering;
+import internal.demetra.jackcess.JackcessTableAsCubeResource;
+import internal.jackcess.JackcessRangeIndex;
+import internal.jackcess.JackcessStatementOptions;
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -45,8 +58,9 @@ public class AccessFileProviderTest {
     }
 
     @AfterAll
-    public static void afterClass() {
+    public static void afterClass() throws IOException {
         FILE.delete();
+        JackcessRangeIndex.deleteSidecarFiles(FILE);
     }
 
     @Test
@@ -57,16 +71,46 @@ public class AccessFileProviderTest {
 
     @Test
     public void testTspCompliance() {
-        IDataSourceLoaderAssert.assertCompliance(AccessFileProviderTest::getProvider, o -> {
-            AccessFileBean result = o.newBean();
-            result.setFile(FILE);
-            result.setTable("Top5");
-            result.setDimColumns(asList("Freq", "Browser"));
-            result.setPeriodColumn("Period");
-            result.setValueColumn("MarketShare");
-            result.setObsFormat(DataFormat.create(null, "yyyy-MM-dd", null));
-            return result;
-        });
+        IDataSourceLoaderAssert.assertCompliance(AccessFileProviderTest::getProvider, AccessFileProviderTest::getSampleBean);
+    }
+
+    @Test
+    public void testBulkRefreshCompliance() {
+        IDataSourceLoaderAssert.assertCompliance(() -> new AccessFileProvider(true), AccessFileProviderTest::getSampleBean);
+    }
+
+    @Test
+    public void testWarmUp() throws IOException {
+        ConcurrentMap<CubeId, Object> cache = new ConcurrentHashMap<>();
+        CubeAccessor accessor = TableAsCubeAccessor.create(createResource()).bulk(1, cache);
+
+        AccessFileWarmUp.Stats stats = new AccessFileWarmUp(1, Duration.ofMinutes(1), Long.MAX_VALUE, () -> true).crawl(accessor);
+        assertThat(stats.isComplete()).isTrue();
+        assertThat(stats.getNodes()).isGreaterThan(1);
+        assertThat(stats.getSeries()).isGreaterThan(0);
+        assertThat(stats.getMemory()).isGreaterThan(0);
+        assertThat(cache).isNotEmpty();
+
+        assertThat(new AccessFileWarmUp(1, Duration.ZERO, Long.MAX_VALUE, () -> true).crawl(accessor))
+                .returns(false, AccessFileWarmUp.Stats::isComplete)
+                .returns(0, AccessFileWarmUp.Stats::getNodes);
+
+        assertThat(new AccessFileWarmUp(1, Duration.ofMinutes(1), 1, () -> true).crawl(accessor))
+                .returns(false, AccessFileWarmUp.Stats::isComplete);
+
+        assertThat(new AccessFileWarmUp(1, Duration.ofMinutes(1), Long.MAX_VALUE, () -> false).crawl(accessor))
+                .returns(false, AccessFileWarmUp.Stats::isComplete);
+    }
+
+    private static JackcessTableAsCubeResource createResource() {
+        TableDataParams tdp = TableDataParams.builder()
+                .periodColumn("Period")
+                .valueColumn("MarketShare")
+                .versionColumn("")
+                .obsFormat(DataFormat.create(null, "yyyy-MM-dd", null))
+                .build();
+        return JackcessTableAsCubeResource.create(HasFilePaths.of(() -> {
+        }), FILE, "Top5", asList("Freq", "Browser"), tdp, ObsGathering.DEFAULT, "", JackcessStatementOptions.DEFAULT, false);
     }
 
     private static AccessFileProvider getProvider() {
@@ -74,6 +118,17 @@ public class AccessFileProviderTest {
         return result;
     }
 
+    private static AccessFileBean getSampleBean(AccessFileProvider provider) {
+        AccessFileBean result = provider.newBean();
+        result.setFile(FILE);
+        result.setTable("Top5");
+        result.setDimColumns(asList("Freq", "Browser"));
+        result.setPeriodColumn("Period");
+        result.setValueColumn("MarketShare");
+        result.setObsFormat(DataFormat.create(null, "yyyy-MM-dd", null));
+        return result;
+    }
+
     private static JackcessProvider getPreviousProvider() {
         JackcessProvider result = new JackcessProvider();
         return result;
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.demetra.jackcess;
+
+import be.nbb.demetra.access.JackcessAccessorTest;
+import ec.tss.tsproviders.HasFilePaths;
+import ec.tss.tsproviders.cube.CubeId;
+import ec.tss.tsproviders.cube.TableAsCubeAccessor;
+import ec.tss.tsproviders.cube.TableDataParams;
+import ec.tss.tsproviders.utils.DataFormat;
+import ec.tss.tsproviders.utils.ObsGathering;
+import ec.tss.tsproviders.utils.OptionalTsData;
+import internal.jackcess.JackcessStatementOptions;
+import internal.jackcess.JackcessRangeIndex;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Philippe Charles
+ */
+public class JackcessTableSnapshotTest {
+
+    private static File TOP5;
+
+    @BeforeAll
+    public static void beforeClass() throws IOException {
+        TOP5 = JackcessAccessorTest.createResource();
+    }
+
+    @AfterAll
+    public static void afterClass() throws IOException {
+        TOP5.delete();
+        JackcessRangeIndex.deleteSidecarFiles(TOP5);
+    }
+
+    @Test
+    public void testEquivalence() throws Exception {
+        JackcessTableAsCubeResource scan = createResource(false);
+        JackcessTableAsCubeResource snapshot = createResource(true);
+
+        CubeId root = scan.getRoot();
+        List<CubeId> ids = new ArrayList<>();
+        ids.add(root);
+        ids.add(root.child("Monthly"));
+        ids.add(root.child("Monthly", "Firefox"));
+        ids.add(root.child("Missing"));
+
+        for (CubeId id : ids) {
+            if (id.isSeries()) {
+                assertThatIllegalArgumentException().isThrownBy(() -> snapshot.getChildrenCursor(id));
+                assertThatIllegalArgumentException().isThrownBy(() -> scan.getChildrenCursor(id));
+                assertThatIllegalArgumentException().isThrownBy(() -> snapshot.getAllSeriesCursor(id));
+                assertThatIllegalArgumentException().isThrownBy(() -> scan.getAllSeriesCursor(id));
+            } else {
+                assertThat(toList(snapshot.getChildrenCursor(id))).isEqualTo(toList(scan.getChildrenCursor(id)));
+                assertThat(toList(snapshot.getAllSeriesCursor(id))).isEqualTo(toList(scan.getAllSeriesCursor(id)));
+            }
+            assertThat(toList(snapshot.getAllSeriesWithDataCursor(id))).isEqualTo(toList(scan.getAllSeriesWithDataCursor(id)));
+            assertThat(toList(snapshot.getSeriesWithDataCursor(id))).isEqualTo(toList(scan.getSeriesWithDataCursor(id)));
+        }
+
+        assertThat(toList(snapshot.getChildrenCursor(root))).isNotEmpty();
+        assertThat(toList(snapshot.getSeriesWithDataCursor(root.child("Monthly", "Firefox")))).isNotEmpty();
+    }
+
+    @Test
+    public void testBatchedSeriesWithData() throws Exception {
+        JackcessTableAsCubeResource scan = createResource(false);
+        JackcessTableAsCubeResource snapshot = createResource(true);
+
+        CubeId root = scan.getRoot();
+        List<CubeId> ids = asList(root.child("Monthly", "Firefox"), root.child("Monthly", "Chrome"), root.child("Monthly", "Missing"));
+
+        Map<CubeId, OptionalTsData> batch = scan.getSeriesWithData(ids);
+        assertThat(batch).containsOnlyKeys(ids.get(0), ids.get(1));
+        assertThat(batch).isEqualTo(snapshot.getSeriesWithData(ids));
+        for (CubeId id : batch.keySet()) {
+            OptionalTsData.Builder2<Date> single = scan.newBuilder();
+            TableAsCubeAccessor.SeriesWithDataCursor<Date> cursor = scan.getSeriesWithDataCursor(id);
+            try {
+                while (cursor.nextRow()) {
+                    single.add(cursor.getPeriod(), cursor.getValue());
+                }
+            } finally {
+                cursor.close();
+            }
+            assertThat(batch.get(id)).isEqualTo(single.build());
+        }
+
+        assertThatIllegalArgumentException().isThrownBy(() -> scan.getSeriesWithData(asList(root.child("Monthly"))));
+    }
+
+    private static JackcessTableAsCubeResource createResource(boolean snapshot) {
+        TableDataParams tdp = TableDataParams.builder()
+                .periodColumn("Period")
+                .valueColumn("MarketShare")
+                .versionColumn("")
+                .obsFormat(DataFormat.create(null, "yyyy-MM-dd", null))
+                .build();
+        return JackcessTableAsCubeResource.create(HasFilePaths.of(() -> {
+        }), TOP5, "Top5", asList("Freq", "Browser"), tdp, ObsGathering.DEFAULT, "", JackcessStatementOptions.DEFAULT, snapshot);
+    }
+
+    private static List<String> toList(TableAsCubeAccessor.TableCursor cursor) throws Exception {
+        List<String> result = new ArrayList<>();
+        try {
+            while (cursor.nextRow()) {
+                result.add(toString(cursor));
+            }
+        } finally {
+            cursor.close();
+        }
+        return result;
+    }
+
+    private static String toString(TableAsCubeAccessor.TableCursor cursor) throws Exception {
+        StringBuilder result = new StringBuilder();
+        if (cursor instanceof TableAsCubeAccessor.ChildrenCursor) {
+            result.append(((TableAsCubeAccessor.ChildrenCursor) cursor).getChild());
+        }
+        if (cursor instanceof TableAsCubeAccessor.AllSeriesCursor) {
+            result.append(Arrays.toString(((TableAsCubeAccessor.AllSeriesCursor) cursor).getDimValues()));
+        }
+        if (cursor instanceof TableAsCubeAccessor.AllSeriesWithDataCursor) {
+            result.append(Arrays.toString(((TableAsCubeAccessor.AllSeriesWithDataCursor) cursor).getDimValues()));
+        }
+        if (cursor instanceof TableAsCubeAccessor.SeriesCursor) {
+            result.append(((TableAsCubeAccessor.SeriesCursor) cursor).getLabel());
+        }
+        if (cursor instanceof TableAsCubeAccessor.SeriesWithDataCursor) {
+            TableAsCubeAccessor.SeriesWithDataCursor<?> data = (TableAsCubeAccessor.SeriesWithDataCursor<?>) cursor;
+            result.append(data.getPeriod()).append('=').append(data.getValue() != null ? data.getValue().doubleValue() : null);
+        }
+        if (cursor instanceof TableAsCubeAccessor.AllSeriesWithDataCursor) {
+            TableAsCubeAccessor.AllSeriesWithDataCursor<?> data = (TableAsCubeAccessor.AllSeriesWithDataCursor<?>) cursor;
+            result.append(data.getPeriod()).append('=').append(data.getValue() != null ? data.getValue().doubleValue() : null);
+        }
+        return result.toString();
+    }
+}
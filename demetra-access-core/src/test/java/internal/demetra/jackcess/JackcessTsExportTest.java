@@ -0,0 +1,203 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.demetra.jackcess;
+
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.Row;
+import com.healthmarketscience.jackcess.Table;
+import ec.tss.TsCollectionInformation;
+import ec.tss.TsInformation;
+import ec.tss.TsInformationType;
+import ec.tss.TsMoniker;
+import ec.tstoolkit.timeseries.simplets.TsData;
+import ec.tstoolkit.timeseries.simplets.TsFrequency;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Philippe Charles
+ */
+public class JackcessTsExportTest {
+
+    @Test
+    public void testWriteContent() throws IOException {
+        TsCollectionInformation col = new TsCollectionInformation();
+        for (int i = 0; i < 50; i++) {
+            double[] values = new double[12];
+            for (int j = 0; j < values.length; j++) {
+                values[j] = i * 100 + j;
+            }
+            TsInformation ts = new TsInformation("S" + i, new TsMoniker(), TsInformationType.All);
+            ts.data = new TsData(TsFrequency.Monthly, 2000, 0, values, false);
+            col.items.add(ts);
+        }
+        col.items.add(new TsInformation("Empty", new TsMoniker(), TsInformationType.All));
+
+        File file = File.createTempFile("JackcessTsExportTest", ".accdb");
+        Files.delete(file.toPath());
+        try {
+            for (int batchSize : new int[]{1, 7, 600, 10000}) {
+                try (Database database = JackcessTsExport.getDatabase(file, Database.FileFormat.V2010, JackcessTsExport.WriteOption.TRUNCATE_EXISTING)) {
+                    Table table = JackcessTsExport.getTable(database, JackcessTsExport.WriteOption.TRUNCATE_EXISTING, "Export", "Series", "Period", "Value", "");
+                    JackcessTsExport.writeContent(table, JackcessTsExport.getRowWriter(table, true, "Series", "Period", "Value", ""), col, batchSize);
+
+                    assertThat(table.getRowCount()).isEqualTo(600);
+                    Map<String, Double> sums = new HashMap<>();
+                    for (Row row : table) {
+                        sums.merge(row.getString("Series"), row.getDouble("Value"), Double::sum);
+                    }
+                    assertThat(sums).hasSize(50).containsEntry("S0", 66.0).containsEntry("S49", 4900 * 12 + 66.0);
+                }
+                Files.delete(file.toPath());
+            }
+
+            try (Database database = JackcessTsExport.getDatabase(file, Database.FileFormat.V2010, JackcessTsExport.WriteOption.TRUNCATE_EXISTING)) {
+                Table table = JackcessTsExport.getTable(database, JackcessTsExport.WriteOption.TRUNCATE_EXISTING, "Export", "Series", "Period", "Value", "");
+                JackcessTsExport.RowWriter writer = JackcessTsExport.getRowWriter(table, true, "Series", "Period", "Value", "");
+
+                assertThatIllegalArgumentException().isThrownBy(() -> JackcessTsExport.writeContent(table, writer, col, 0));
+
+                // duplicated primary keys are reported by the writing thread
+                TsCollectionInformation duplicates = new TsCollectionInformation();
+                duplicates.items.add(col.items.get(0));
+                duplicates.items.add(col.items.get(0));
+                assertThatIOException().isThrownBy(() -> JackcessTsExport.writeContent(table, writer, duplicates, 5));
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testMergeContent() throws IOException {
+        TsCollectionInformation col = new TsCollectionInformation();
+        col.items.add(newTs("A", 1, 2, 3));
+        col.items.add(newTs("B", 4, 5));
+
+        TsCollectionInformation changes = new TsCollectionInformation();
+        changes.items.add(newTs("A", 1, 2, 30));
+        changes.items.add(newTs("B", 4, 5, 6));
+        changes.items.add(newTs("C", 7));
+
+        File file = File.createTempFile("JackcessTsExportTest", ".accdb");
+        Files.delete(file.toPath());
+        try {
+            try (Database database = JackcessTsExport.getDatabase(file, Database.FileFormat.V2010, JackcessTsExport.WriteOption.MERGE)) {
+                Table table = JackcessTsExport.getTable(database, JackcessTsExport.WriteOption.MERGE, "Export", "Series", "Period", "Value", "");
+                JackcessTsExport.RowWriter writer = JackcessTsExport.getRowWriter(table, true, "Series", "Period", "Value", "");
+
+                assertThat(JackcessTsExport.mergeContent(table, writer, col, "Series", "Period", "Value", "", 2))
+                        .isEqualTo(new JackcessTsExport.MergeResult(5, 0, 0));
+            }
+
+            try (Database database = JackcessTsExport.getDatabase(file, Database.FileFormat.V2010, JackcessTsExport.WriteOption.MERGE)) {
+                Table table = JackcessTsExport.getTable(database, JackcessTsExport.WriteOption.MERGE, "Export", "Series", "Period", "Value", "");
+                JackcessTsExport.RowWriter writer = JackcessTsExport.getRowWriter(table, true, "Series", "Period", "Value", "");
+
+                assertThat(JackcessTsExport.mergeContent(table, writer, changes, "Series", "Period", "Value", "", 2))
+                        .isEqualTo(new JackcessTsExport.MergeResult(2, 1, 4));
+                assertThat(table.getRowCount()).isEqualTo(7);
+                assertThat(sum(table, "A")).isEqualTo(33.0);
+
+                assertThatIllegalArgumentException()
+                        .isThrownBy(() -> JackcessTsExport.mergeContent(table, writer, changes, "Series", "Period", "Value", "Version", 2));
+            }
+
+            try (Database database = JackcessTsExport.getDatabase(file, Database.FileFormat.V2010, JackcessTsExport.WriteOption.MERGE)) {
+                Table table = JackcessTsExport.getTable(database, JackcessTsExport.WriteOption.MERGE, "Versions", "Series", "Period", "Value", "Version");
+
+                assertThat(JackcessTsExport.mergeContent(table, withVersion(table, 1), col, "Series", "Period", "Value", "Version", 10))
+                        .isEqualTo(new JackcessTsExport.MergeResult(5, 0, 0));
+                assertThat(JackcessTsExport.mergeContent(table, withVersion(table, 2), changes, "Series", "Period", "Value", "Version", 10))
+                        .isEqualTo(new JackcessTsExport.MergeResult(3, 0, 4));
+                assertThat(JackcessTsExport.mergeContent(table, withVersion(table, 3), changes, "Series", "Period", "Value", "Version", 10))
+                        .isEqualTo(new JackcessTsExport.MergeResult(0, 0, 7));
+                assertThat(table.getRowCount()).isEqualTo(8);
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testBulkLoad() throws IOException {
+        TsCollectionInformation col = new TsCollectionInformation();
+        col.items.add(newTs("b", 4, 5));
+        col.items.add(newTs("C", 6));
+        col.items.add(newTs("A", 1, 2, 3));
+
+        File file = File.createTempFile("JackcessTsExportTest", ".accdb");
+        Files.delete(file.toPath());
+        try {
+            try (Database database = JackcessTsExport.getDatabase(file, Database.FileFormat.V2010, JackcessTsExport.WriteOption.TRUNCATE_EXISTING)) {
+                Table table = JackcessTsExport.bulkLoad(database, "Export", true, "Series", "Period", "Value", "Version", col, 2);
+
+                assertThat(table.getRowCount()).isEqualTo(6);
+                assertThat(table.getPrimaryKeyIndex().getColumns())
+                        .extracting(o -> o.getName())
+                        .containsExactly("Series", "Period", "Version");
+                assertThat(sum(table, "A")).isEqualTo(6.0);
+
+                // the primary key is usable once built
+                assertThat(JackcessTsExport.mergeContent(table, JackcessTsExport.getRowWriter(table, true, "Series", "Period", "Value", "Version"), col, "Series", "Period", "Value", "Version", 2))
+                        .isEqualTo(new JackcessTsExport.MergeResult(0, 0, 6));
+
+                TsCollectionInformation duplicates = new TsCollectionInformation();
+                duplicates.items.add(newTs("A", 1));
+                duplicates.items.add(newTs("A", 1));
+                assertThatIOException().isThrownBy(() -> JackcessTsExport.bulkLoad(database, "Duplicates", true, "Series", "Period", "Value", "", duplicates, 2));
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    private static TsInformation newTs(String name, double... values) {
+        TsInformation result = new TsInformation(name, new TsMoniker(), TsInformationType.All);
+        result.data = new TsData(TsFrequency.Monthly, 2000, 0, values, false);
+        return result;
+    }
+
+    private static JackcessTsExport.RowWriter withVersion(Table table, long version) {
+        JackcessTsExport.RowWriter writer = JackcessTsExport.getRowWriter(table, true, "Series", "Period", "Value", "Version");
+        int versionIndex = table.getColumn("Version").getColumnIndex();
+        return (row, name, obs) -> {
+            writer.write(row, name, obs);
+            row[versionIndex] = new Date(version * 86400000L);
+        };
+    }
+
+    private static double sum(Table table, String series) {
+        double result = 0;
+        for (Row row : table) {
+            if (series.equals(row.getString("Series"))) {
+                result += row.getDouble("Value");
+            }
+        }
+        return result;
+    }
+}
@@ -125,6 +125,25 @@ public class CursorFacadeTest {
         }
     }
 
+    @Test
+    public void testPositionCursorMoveBefore() throws IOException {
+        try (Database db = open(file)) {
+            Table table = db.getTable("MyTable");
+            Collection<String> columnNames = Arrays.asList("Col0", "Col1");
+            List<RowId> all = toRowIds(CursorFacade.basic(table, columnNames));
+
+            CursorFacade cursor = new CursorFacadeUtil.PositionCursor(table, columnNames, all.stream().mapToInt(JackcessRowBitmap::toPosition).iterator(), Range.all());
+            cursor.moveBefore(all.get(4));
+            assertThat(toRowIds(cursor)).containsExactlyElementsOf(all.subList(4, 10));
+
+            cursor = new CursorFacadeUtil.PositionCursor(table, columnNames, all.stream().mapToInt(JackcessRowBitmap::toPosition).iterator(), Range.all());
+            cursor.moveToNextRow();
+            cursor.moveToNextRow();
+            cursor.moveBefore(all.get(6));
+            assertThat(toRowIds(cursor)).containsExactlyElementsOf(all.subList(6, 10));
+        }
+    }
+
     @Test
     public void testWithFilter() throws IOException {
         try (Database db = open(file)) {
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.DatabaseBuilder;
+import com.healthmarketscience.jackcess.TableBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Philippe Charles
+ */
+public class JackcessDatabasePoolTest {
+
+    private static File file;
+
+    @BeforeAll
+    public static void beforeClass() throws IOException {
+        file = createResource();
+    }
+
+    @AfterAll
+    public static void afterClass() {
+        file.delete();
+    }
+
+    @Test
+    public void testLease() throws IOException {
+        JackcessDatabasePool pool = new JackcessDatabasePool(Duration.ofMinutes(1), 4);
+
+        Database first;
+        try (JackcessDatabasePool.Lease lease = pool.lease(file)) {
+            first = lease.getDatabase();
+            assertThat(first.getTableNames()).containsExactly("T");
+            assertThat(pool.getIdleCount(file)).isEqualTo(0);
+        }
+        assertThat(pool.getIdleCount(file)).isEqualTo(1);
+
+        try (JackcessDatabasePool.Lease lease = pool.lease(file)) {
+            assertThat(lease.getDatabase()).isSameAs(first);
+            try (JackcessDatabasePool.Lease other = pool.lease(file)) {
+                assertThat(other.getDatabase()).isNotSameAs(first);
+            }
+        }
+        assertThat(pool.getIdleCount(file)).isEqualTo(2);
+
+        JackcessDatabasePool.Lease released = pool.lease(file);
+        released.close();
+        assertThatIOException().isThrownBy(released::getDatabase);
+
+        pool.clear();
+        assertThat(pool.getIdleCount(file)).isEqualTo(0);
+    }
+
+    @Test
+    public void testFileChange() throws IOException {
+        File copy = createResource();
+        try {
+            JackcessDatabasePool pool = new JackcessDatabasePool(Duration.ofMinutes(1), 4);
+
+            Database first;
+            try (JackcessDatabasePool.Lease lease = pool.lease(copy)) {
+                first = lease.getDatabase();
+            }
+
+            assertThat(copy.setLastModified(copy.lastModified() - 10000)).isTrue();
+
+            try (JackcessDatabasePool.Lease lease = pool.lease(copy)) {
+                assertThat(lease.getDatabase()).isNotSameAs(first);
+                assertThat(lease.getVersion()).isEqualTo(FileVersion.of(copy));
+            }
+            assertThat(pool.getIdleCount(copy)).isEqualTo(1);
+            pool.clear();
+        } finally {
+            copy.delete();
+        }
+    }
+
+    @Test
+    public void testWatchedFile() throws IOException {
+        File copy = createResource();
+        try {
+            JackcessDatabasePool pool = new JackcessDatabasePool(Duration.ofMinutes(1), 4);
+            pool.setWatched(copy, true);
+
+            Database first;
+            FileVersion version;
+            try (JackcessDatabasePool.Lease lease = pool.lease(copy)) {
+                first = lease.getDatabase();
+                version = lease.getVersion();
+            }
+
+            assertThat(copy.setLastModified(copy.lastModified() - 10000)).isTrue();
+
+            try (JackcessDatabasePool.Lease lease = pool.lease(copy)) {
+                assertThat(lease.getDatabase()).isSameAs(first);
+                assertThat(lease.getVersion()).isEqualTo(version);
+            }
+
+            pool.invalidate(copy);
+
+            try (JackcessDatabasePool.Lease lease = pool.lease(copy)) {
+                assertThat(lease.getDatabase()).isNotSameAs(first);
+                assertThat(lease.getVersion()).isEqualTo(FileVersion.of(copy));
+            }
+            pool.clear();
+        } finally {
+            copy.delete();
+        }
+    }
+
+    @Test
+    public void testChannel() throws IOException {
+        JackcessDatabasePool pool = new JackcessDatabasePool(Duration.ofMinutes(1), 4);
+
+        for (JackcessChannelMode mode : JackcessChannelMode.values()) {
+            try (JackcessDatabasePool.Lease lease = pool.lease(file, mode)) {
+                assertThat(lease.getDatabase().getTableNames()).containsExactly("T");
+                assertThat(lease.getDatabase().getTable("T").getNextRow().get("C0")).isEqualTo("A");
+            }
+            assertThat(pool.getIdleCount(file, mode)).isEqualTo(1);
+        }
+
+        try (JackcessDatabasePool.Lease first = pool.lease(file, JackcessChannelMode.HEAP)) {
+            try (JackcessDatabasePool.Lease second = pool.lease(file, JackcessChannelMode.HEAP)) {
+                assertThat(second.getDatabase()).isNotSameAs(first.getDatabase());
+                assertThat(second.getDatabase().getTable("T").getRowCount()).isEqualTo(1);
+            }
+        }
+        assertThat(pool.getIdleCount(file, JackcessChannelMode.HEAP)).isEqualTo(2);
+        assertThat(pool.getIdleCount(file)).isEqualTo(1);
+
+        pool.clear();
+    }
+
+    @Test
+    public void testEvictIdle() throws IOException {
+        AtomicLong clock = new AtomicLong(0);
+        JackcessDatabasePool pool = new JackcessDatabasePool(Duration.ofNanos(10), 4, clock::get);
+
+        pool.lease(file).close();
+        assertThat(pool.getIdleCount(file)).isEqualTo(1);
+
+        clock.set(5);
+        pool.evictIdle();
+        assertThat(pool.getIdleCount(file)).isEqualTo(1);
+
+        clock.set(10);
+        pool.evictIdle();
+        assertThat(pool.getIdleCount(file)).isEqualTo(0);
+    }
+
+    private static File createResource() throws IOException {
+        File result = File.createTempFile("JackcessDatabasePoolTest", ".mdb");
+        try (Database db = new DatabaseBuilder(result).setFileFormat(Database.FileFormat.V2007).create()) {
+            new TableBuilder("T")
+                    .addColumn(new ColumnBuilder("C0", DataType.TEXT))
+                    .toTable(db)
+                    .addRow("A");
+        }
+        return result;
+    }
+}
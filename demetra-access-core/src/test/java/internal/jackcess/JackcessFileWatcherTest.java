@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.DatabaseBuilder;
+import com.healthmarketscience.jackcess.TableBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Philippe Charles
+ */
+public class JackcessFileWatcherTest {
+
+    @Test
+    public void testInvalidate() throws IOException {
+        File file = createResource();
+        try {
+            JackcessDatabasePool pool = new JackcessDatabasePool(Duration.ofMinutes(1), 4);
+            JackcessPageCache pageCache = new JackcessPageCache(1024 * 1024);
+            JackcessFileWatcher watcher = new JackcessFileWatcher(pool, pageCache);
+
+            AtomicInteger count = new AtomicInteger();
+            Runnable listener = count::incrementAndGet;
+            assertThat(watcher.watch(file, listener)).isTrue();
+            assertThat(watcher.watch(file, listener)).isTrue();
+            assertThat(watcher.isWatched(file)).isTrue();
+
+            pool.lease(file).close();
+            assertThat(pool.getIdleCount(file)).isEqualTo(1);
+
+            watcher.invalidate(file);
+            assertThat(pool.getIdleCount(file)).isEqualTo(0);
+            assertThat(count).hasValue(1);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testWatch() throws IOException, InterruptedException {
+        File file = createResource();
+        try {
+            JackcessDatabasePool pool = new JackcessDatabasePool(Duration.ofMinutes(1), 4);
+            JackcessFileWatcher watcher = new JackcessFileWatcher(pool, new JackcessPageCache(1024 * 1024));
+
+            CountDownLatch changed = new CountDownLatch(1);
+            Runnable listener = changed::countDown;
+            assertThat(watcher.watch(file, listener)).isTrue();
+
+            pool.lease(file).close();
+            assertThat(pool.getIdleCount(file)).isEqualTo(1);
+
+            Files.write(file.toPath(), new byte[]{0}, StandardOpenOption.APPEND);
+            assertThat(changed.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(pool.getIdleCount(file)).isEqualTo(0);
+            assertThat(listener).isNotNull();
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testUnwatchable() {
+        JackcessFileWatcher watcher = new JackcessFileWatcher(new JackcessDatabasePool(Duration.ofMinutes(1), 4), new JackcessPageCache(0));
+
+        File missing = new File(new File(System.getProperty("java.io.tmpdir"), "JackcessFileWatcherTest-missing"), "file.mdb");
+        assertThat(watcher.watch(missing, () -> {
+        })).isFalse();
+        assertThat(watcher.isWatched(missing)).isFalse();
+    }
+
+    private static File createResource() throws IOException {
+        File result = File.createTempFile("JackcessFileWatcherTest", ".mdb");
+        try (Database db = new DatabaseBuilder(result).setFileFormat(Database.FileFormat.V2007).create()) {
+            new TableBuilder("T")
+                    .addColumn(new ColumnBuilder("C0", DataType.TEXT))
+                    .toTable(db)
+                    .addRow("A");
+        }
+        return result;
+    }
+}
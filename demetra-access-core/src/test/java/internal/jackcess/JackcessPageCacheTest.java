@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.DatabaseBuilder;
+import com.healthmarketscience.jackcess.Table;
+import com.healthmarketscience.jackcess.TableBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Philippe Charles
+ */
+public class JackcessPageCacheTest {
+
+    private static File file;
+
+    @BeforeAll
+    public static void beforeClass() throws IOException {
+        file = createResource();
+    }
+
+    @AfterAll
+    public static void afterClass() {
+        file.delete();
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        JackcessPageCache cache = new JackcessPageCache(1024 * 1024);
+        byte[] expected = Files.readAllBytes(file.toPath());
+
+        try (FileChannel channel = cache.wrap(FileVersion.of(file), FileChannel.open(file.toPath(), StandardOpenOption.READ))) {
+            assertThat(channel.size()).isEqualTo(expected.length);
+
+            // a read spanning several pages
+            ByteBuffer buffer = ByteBuffer.allocate(JackcessPageCache.PAGE_SIZE * 2 + 10);
+            assertThat(channel.read(buffer, 100)).isEqualTo(buffer.capacity());
+            assertThat(buffer.array()).isEqualTo(Arrays.copyOfRange(expected, 100, 100 + buffer.capacity()));
+
+            // a read beyond the end of the file
+            buffer.clear();
+            assertThat(channel.read(buffer, expected.length - 5)).isEqualTo(5);
+            assertThat(channel.read(buffer, expected.length)).isEqualTo(-1);
+
+            // a sequential read of the whole file
+            ByteBuffer all = ByteBuffer.allocate(expected.length);
+            channel.position(0);
+            int n;
+            do {
+                n = channel.read(all);
+            } while (n > 0 && all.hasRemaining());
+            assertThat(all.array()).isEqualTo(expected);
+        }
+
+        assertThat(cache.getStats().hitCount()).isGreaterThan(0);
+        assertThat(cache.getStats().missCount()).isEqualTo((expected.length + JackcessPageCache.PAGE_SIZE - 1) / JackcessPageCache.PAGE_SIZE);
+    }
+
+    @Test
+    public void testPool() throws IOException {
+        JackcessPageCache cache = new JackcessPageCache(1024 * 1024);
+        JackcessDatabasePool pool = new JackcessDatabasePool(Duration.ofMinutes(1), 4, System::nanoTime, cache);
+
+        assertThat(readAll(pool)).isEqualTo(1000);
+        long misses = cache.getStats().missCount();
+        assertThat(misses).isGreaterThan(0);
+
+        // a new handle reads the same pages from the cache
+        pool.clear();
+        assertThat(readAll(pool)).isEqualTo(1000);
+        assertThat(cache.getStats().missCount()).isEqualTo(misses);
+        assertThat(cache.getStats().hitCount()).isGreaterThan(0);
+
+        pool.clear();
+    }
+
+    @Test
+    public void testBudget() throws IOException {
+        assertThatIllegalArgumentException().isThrownBy(() -> new JackcessPageCache(-1));
+
+        JackcessPageCache disabled = new JackcessPageCache(0);
+        assertThat(disabled.isEnabled()).isFalse();
+        JackcessDatabasePool pool = new JackcessDatabasePool(Duration.ofMinutes(1), 4, System::nanoTime, disabled);
+        assertThat(readAll(pool)).isEqualTo(1000);
+        assertThat(disabled.getStats().requestCount()).isEqualTo(0);
+        pool.clear();
+
+        JackcessPageCache small = new JackcessPageCache(JackcessPageCache.PAGE_SIZE * 2);
+        pool = new JackcessDatabasePool(Duration.ofMinutes(1), 4, System::nanoTime, small);
+        assertThat(readAll(pool)).isEqualTo(1000);
+        assertThat(small.getStats().evictionCount()).isGreaterThan(0);
+        pool.clear();
+    }
+
+    private static int readAll(JackcessDatabasePool pool) throws IOException {
+        try (JackcessDatabasePool.Lease lease = pool.lease(file)) {
+            Table table = lease.getDatabase().getTable("T");
+            int result = 0;
+            while (table.getNextRow() != null) {
+                result++;
+            }
+            return result;
+        }
+    }
+
+    private static File createResource() throws IOException {
+        File result = File.createTempFile("JackcessPageCacheTest", ".mdb");
+        try (Database db = new DatabaseBuilder(result).setFileFormat(Database.FileFormat.V2007).create()) {
+            Table table = new TableBuilder("T")
+                    .addColumn(new ColumnBuilder("C0", DataType.TEXT))
+                    .toTable(db);
+            for (int i = 0; i < 1000; i++) {
+                table.addRow("Value " + i);
+            }
+        }
+        return result;
+    }
+}
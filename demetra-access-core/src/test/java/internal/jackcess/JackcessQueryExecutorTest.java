@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import internal.xdb.DbRawDataUtil;
+import java.io.File;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Philippe Charles
+ */
+public class JackcessQueryExecutorTest {
+
+    private final File file = new File("JackcessQueryExecutorTest.mdb");
+
+    @Test
+    public void testSubmit() throws Exception {
+        JackcessQueryExecutor executor = new JackcessQueryExecutor(1);
+
+        assertThat(executor.submit(file, () -> "hello").get(5, TimeUnit.SECONDS)).isEqualTo("hello");
+
+        assertThatThrownBy(() -> executor.submit(file, () -> {
+            throw new InterruptedIOException("boom");
+        }).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(InterruptedIOException.class);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> new JackcessQueryExecutor(0));
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        JackcessQueryExecutor executor = new JackcessQueryExecutor(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+
+        CompletableFuture<Object> future = executor.submit(file, () -> {
+            started.countDown();
+            try {
+                while (true) {
+                    DbRawDataUtil.checkInterrupted();
+                }
+            } catch (InterruptedIOException ex) {
+                interrupted.set(true);
+                throw ex;
+            } finally {
+                stopped.countDown();
+            }
+        });
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(future.cancel(true)).isTrue();
+        assertThat(stopped.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(interrupted).isTrue();
+        assertThat(future).isCancelled();
+
+        // the thread is reusable after an interruption
+        assertThat(executor.submit(file, () -> Thread.currentThread().isInterrupted()).get(5, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    public void testLanes() throws Exception {
+        JackcessQueryExecutor executor = new JackcessQueryExecutor(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        CompletableFuture<?> first = executor.submit(file, () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            release.await();
+            return running.decrementAndGet();
+        });
+        CompletableFuture<?> second = executor.submit(file, () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            return running.decrementAndGet();
+        });
+        CompletableFuture<?> cancelled = executor.submit(file, () -> "never");
+        cancelled.cancel(true);
+        assertThat(executor.getLaneCount()).isEqualTo(1);
+
+        release.countDown();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertThat(maxRunning).hasValue(1);
+
+        // idle lanes are dropped
+        long timeout = System.currentTimeMillis() + 5000;
+        while (executor.getLaneCount() > 0 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.getLaneCount()).isZero();
+    }
+}
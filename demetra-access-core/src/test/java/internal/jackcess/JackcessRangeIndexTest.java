@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.jackcess;
+
+import com.google.common.collect.Range;
+import com.healthmarketscience.jackcess.ColumnBuilder;
+import com.healthmarketscience.jackcess.DataType;
+import com.healthmarketscience.jackcess.Database;
+import com.healthmarketscience.jackcess.DatabaseBuilder;
+import com.healthmarketscience.jackcess.RowId;
+import com.healthmarketscience.jackcess.TableBuilder;
+import com.healthmarketscience.jackcess.impl.RowIdImpl;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author Philippe Charles
+ */
+public class JackcessRangeIndexTest {
+
+    private static final List<String> DIMS = asList("K0", "K1");
+    private static final Range<RowId> RANGE = Range.closed(new RowIdImpl(1, 2), new RowIdImpl(3, 4));
+
+    @Test
+    public void testPersistence() throws IOException {
+        File file = createResource();
+        try {
+            FileVersion version = FileVersion.of(file);
+            JackcessRangeIndex first = JackcessRangeIndex.of("T", DIMS, true);
+            assertThat(first.get(version, asList("A"))).isNull();
+            first.put(version, asList("A"), RANGE);
+            assertThat(first.getSidecarFile(file)).doesNotExist();
+            first.flush();
+            assertThat(first.getSidecarFile(file)).exists();
+
+            assertThat(JackcessRangeIndex.of("T", DIMS, true).get(version, asList("A"))).isEqualTo(RANGE);
+            assertThat(JackcessRangeIndex.of("T", DIMS, true).get(version, asList("B"))).isNull();
+            assertThat(JackcessRangeIndex.of("T", asList("K0"), true).get(version, asList("A"))).isNull();
+            assertThat(JackcessRangeIndex.of("T", DIMS).get(version, asList("A"))).isNull();
+
+            assertThat(file.setLastModified(file.lastModified() - 10000)).isTrue();
+            JackcessRangeIndex stale = JackcessRangeIndex.of("T", DIMS, true);
+            assertThat(stale.get(FileVersion.of(file), asList("A"))).isNull();
+            assertThat(stale.size()).isEqualTo(0);
+        } finally {
+            JackcessDatabasePool.getDefault().clear();
+            file.delete();
+            JackcessRangeIndex.deleteSidecarFiles(file);
+        }
+    }
+
+    @Test
+    public void testInMemory() throws IOException {
+        File file = createResource();
+        try {
+            FileVersion version = FileVersion.of(file);
+            JackcessRangeIndex index = JackcessRangeIndex.of("T", DIMS);
+            assertThat(index.isPersistent()).isFalse();
+            index.put(version, asList("A"), RANGE);
+            assertThat(index.get(version, asList("A"))).isEqualTo(RANGE);
+            index.flush();
+            assertThat(index.getSidecarFile(file)).doesNotExist();
+
+            // another version doesn't see the ranges
+            FileVersion other = new FileVersion(version.getFile(), version.getLastModified() + 1, version.getLength());
+            assertThat(index.get(other, asList("A"))).isNull();
+
+            index.clear();
+            assertThat(index.size()).isEqualTo(0);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testNullValues() throws IOException {
+        File file = createResource();
+        try {
+            JackcessRangeIndex index = JackcessRangeIndex.of("T", DIMS, true);
+            index.put(FileVersion.of(file), Collections.singletonList(null), RANGE);
+            assertThat(index.size()).isEqualTo(0);
+            index.flush();
+            assertThat(index.getSidecarFile(file)).doesNotExist();
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static File createResource() throws IOException {
+        File result = File.createTempFile("JackcessRangeIndexTest", ".mdb");
+        try (Database db = new DatabaseBuilder(result).setFileFormat(Database.FileFormat.V2007).create()) {
+            new TableBuilder("T")
+                    .addColumn(new ColumnBuilder("K0", DataType.TEXT))
+                    .addColumn(new ColumnBuilder("K1", DataType.TEXT))
+                    .toTable(db)
+                    .addRow("A", "X");
+        }
+        return result;
+    }
+}
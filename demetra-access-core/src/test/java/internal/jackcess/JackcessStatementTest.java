@@ -17,8 +17,10 @@
 package internal.jackcess;
 
 import internal.xdb.DbBasicSelect;
+import internal.xdb.DbRawDataUtil;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Range;
+import com.healthmarketscience.jackcess.Column;
 import com.healthmarketscience.jackcess.ColumnBuilder;
 import com.healthmarketscience.jackcess.DataType;
 import com.healthmarketscience.jackcess.Database;
@@ -27,10 +29,15 @@ import com.healthmarketscience.jackcess.DateTimeType;
 import com.healthmarketscience.jackcess.RowId;
 import com.healthmarketscience.jackcess.Table;
 import com.healthmarketscience.jackcess.TableBuilder;
+import ec.tss.tsproviders.utils.IteratorWithIO;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.SortedMap;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.AfterAll;
@@ -103,6 +110,305 @@ public class JackcessStatementTest {
         }
     }
 
+    @Test
+    public void testExecuteQueryWithLookupIndex() throws IOException {
+        try (Database db = open(file)) {
+            Table table = db.getTable("I");
+
+            SortedMap<Column, String> f1 = DbRawDataUtil.getFilter(Column::getColumnIndex, table::getColumn, ImmutableMap.of("K0", "A"));
+            assertThat(JackcessIndexUtil.findLookupIndex(table, f1)).isNotNull();
+            SortedMap<Column, String> f2 = DbRawDataUtil.getFilter(Column::getColumnIndex, table::getColumn, ImmutableMap.of("K1", "X"));
+            assertThat(JackcessIndexUtil.findLookupIndex(table, f2)).isNull();
+
+            try (JackcessStatement stmt = new JackcessStatement(db, null)) {
+
+                DbBasicSelect q1 = DbBasicSelect.from("I").select("V").filter(ImmutableMap.of("K0", "A")).orderBy("V").build();
+                try (JackcessResultSet rs = stmt.executeQuery(q1)) {
+                    assertThat(toValues(rs, 0)).containsExactly(1, 2);
+                }
+
+                DbBasicSelect q2 = DbBasicSelect.from("I").select("V").filter(ImmutableMap.of("K0", "a")).orderBy("V").build();
+                try (JackcessResultSet rs = stmt.executeQuery(q2)) {
+                    assertThat(toValues(rs, 0)).containsExactly(3);
+                }
+
+                DbBasicSelect q3 = DbBasicSelect.from("I").select("V").filter(ImmutableMap.of("K0", "A", "K1", "Y")).build();
+                try (JackcessResultSet rs = stmt.executeQuery(q3)) {
+                    assertThat(toValues(rs, 0)).containsExactly(2);
+                }
+
+                DbBasicSelect q4 = DbBasicSelect.from("I").select("K1").distinct(true).filter(ImmutableMap.of("K0", "A")).orderBy("K1").build();
+                try (JackcessResultSet rs = stmt.executeQuery(q4)) {
+                    List<Range<RowId>> ranges = toRanges(rs);
+                    assertThat(ranges).hasSize(2);
+                    assertThat(ranges.get(0).lowerEndpoint()).isEqualTo(ranges.get(0).upperEndpoint());
+                }
+
+                DbBasicSelect q5 = DbBasicSelect.from("I").select("V").filter(ImmutableMap.of("K0", "B")).build();
+                try (JackcessResultSet rs = stmt.executeQuery(q5)) {
+                    assertThat(toValues(rs, 0)).isEmpty();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testExecuteQueryWithOrderedIndex() throws IOException {
+        try (Database db = open(file)) {
+            Table table = db.getTable("O");
+
+            SortedMap<Column, String> f1 = DbRawDataUtil.getFilter(Column::getColumnIndex, table::getColumn, ImmutableMap.of("K0", "A"));
+            assertThat(JackcessIndexUtil.findOrderedIndex(table, f1, Arrays.asList(table.getColumn("N")))).isNotNull();
+            assertThat(JackcessIndexUtil.findOrderedIndex(table, f1, Arrays.asList(table.getColumn("V")))).isNull();
+            SortedMap<Column, String> f2 = DbRawDataUtil.getFilter(Column::getColumnIndex, table::getColumn, ImmutableMap.of());
+            assertThat(JackcessIndexUtil.findOrderedIndex(table, f2, Arrays.asList(table.getColumn("N")))).isNull();
+
+            List<JackcessQueryEvent> events = new ArrayList<>();
+            try (JackcessStatement stmt = new JackcessStatement(db, null, JackcessStatementOptions.builder().listener(events::add).build())) {
+
+                DbBasicSelect q1 = DbBasicSelect.from("O").select("V").filter(ImmutableMap.of("K0", "A")).orderBy("N").build();
+                try (JackcessResultSet rs = stmt.executeQuery(q1)) {
+                    assertThat(toValues(rs, 0)).containsExactly("first", "second", "third");
+                }
+
+                DbBasicSelect q2 = DbBasicSelect.from("O").select("N").distinct(true).filter(ImmutableMap.of("K0", "A")).orderBy("N").build();
+                try (JackcessResultSet rs = stmt.executeQuery(q2)) {
+                    assertThat(toValues(rs, 0)).containsExactly(1, 2, 3);
+                }
+
+                DbBasicSelect q3 = DbBasicSelect.from("O").select("V").filter(ImmutableMap.of("K0", "B")).orderBy("N").build();
+                try (JackcessResultSet rs = stmt.executeQuery(q3)) {
+                    assertThat(toValues(rs, 0)).containsExactly("other");
+                }
+            }
+
+            // the index lookup only reads the matching rows and skips the sort
+            assertThat(events).hasSize(3);
+            assertThat(events.get(0))
+                    .returns(3L, JackcessQueryEvent::getScannedRows)
+                    .returns(-1L, JackcessQueryEvent::getSortedRows);
+            assertThat(events.get(1))
+                    .returns(3L, JackcessQueryEvent::getScannedRows)
+                    .returns(-1L, JackcessQueryEvent::getSortedRows);
+            assertThat(events.get(2))
+                    .returns(1L, JackcessQueryEvent::getScannedRows)
+                    .returns(-1L, JackcessQueryEvent::getSortedRows);
+        }
+    }
+
+    @Test
+    public void testExecuteQueryWithParallelism() throws IOException {
+        JackcessStatementOptions parallel = JackcessStatementOptions.builder().parallelism(4).build();
+        List<DbBasicSelect> queries = Arrays.asList(
+                DbBasicSelect.from("P").select("K").distinct(true).orderBy("K").build(),
+                DbBasicSelect.from("P").select("K", "V").orderBy("K").build(),
+                DbBasicSelect.from("P").select("K").distinct(true).filter(ImmutableMap.of("G", "even")).orderBy("K").build(),
+                DbBasicSelect.from("P").select("V", "K").distinct(true).orderBy("K").build()
+        );
+        try (Database db = open(file)) {
+            for (DbBasicSelect query : queries) {
+                try (JackcessStatement serial = new JackcessStatement(db, null);
+                        JackcessStatement concurrent = new JackcessStatement(db, null, parallel)) {
+                    assertThat(toRows(concurrent.executeQuery(query), query.getSelectColumns().size()))
+                            .isNotEmpty()
+                            .isEqualTo(toRows(serial.executeQuery(query), query.getSelectColumns().size()));
+                }
+            }
+        } finally {
+            JackcessDatabasePool.getDefault().clear();
+        }
+    }
+
+    @Test
+    public void testParallelismOnChangedFile() throws IOException {
+        List<JackcessQueryEvent> events = new ArrayList<>();
+        JackcessStatementOptions parallel = JackcessStatementOptions.builder().parallelism(4).listener(events::add).build();
+        DbBasicSelect query = DbBasicSelect.from("P").select("K").distinct(true).orderBy("K").build();
+        long lastModified = file.lastModified();
+        try (JackcessDatabasePool.Lease lease = JackcessDatabasePool.getDefault().lease(file)) {
+            try (JackcessStatement stmt = new JackcessStatement(lease, null, parallel)) {
+                List<Object> expected = values(stmt, query);
+                assertThat(events.get(0).isParallel()).isTrue();
+
+                // partitions must not be read on another version than the one of the statement
+                file.setLastModified(lastModified + 2000);
+                assertThat(values(stmt, query)).isEqualTo(expected);
+                assertThat(events.get(1).isParallel()).isFalse();
+            }
+        } finally {
+            file.setLastModified(lastModified);
+            JackcessDatabasePool.getDefault().clear();
+        }
+    }
+
+    @Test
+    public void testDistinctBinary() throws IOException {
+        JackcessStatementOptions spill = JackcessStatementOptions.builder().sortMemoryBudget(1).build();
+        DbBasicSelect query = DbBasicSelect.from("B").select("K").distinct(true).orderBy("K").build();
+        try (Database db = open(file)) {
+            for (JackcessStatementOptions options : Arrays.asList(JackcessStatementOptions.DEFAULT, spill)) {
+                try (JackcessStatement stmt = new JackcessStatement(db, null, options)) {
+                    assertThat(values(stmt, query)).containsExactly(new byte[]{1}, new byte[]{1, 2}, new byte[]{3});
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testQueryListener() throws IOException {
+        List<JackcessQueryEvent> events = new ArrayList<>();
+        JackcessStatementOptions options = JackcessStatementOptions.builder().listener(events::add).build();
+        try (Database db = open(file)) {
+            try (JackcessStatement stmt = new JackcessStatement(db, null, options)) {
+
+                DbBasicSelect q1 = DbBasicSelect.from("T").select("C0").distinct(true).orderBy("C0").build();
+                try (JackcessResultSet rs = stmt.executeQuery(q1)) {
+                    assertThat(toValues(rs, 0)).containsExactly("A", "B");
+                    assertThat(events).isEmpty();
+                }
+                assertThat(events).hasSize(1);
+                assertThat(events.get(0))
+                        .returns(q1, JackcessQueryEvent::getQuery)
+                        .returns(false, JackcessQueryEvent::isRanged)
+                        .returns(4L, JackcessQueryEvent::getScannedRows)
+                        .returns(4L, JackcessQueryEvent::getMatchedRows)
+                        .returns(2L, JackcessQueryEvent::getDistinctRows)
+                        .returns(-1L, JackcessQueryEvent::getSortedRows)
+                        .returns(2L, JackcessQueryEvent::getReturnedRows);
+
+                DbBasicSelect q2 = DbBasicSelect.from("T").select("C3").filter(ImmutableMap.of("C0", "A")).orderBy("C3").build();
+                try (JackcessResultSet rs = stmt.executeQuery(q2)) {
+                    assertThat(toValues(rs, 0)).containsExactly(1, 2);
+                }
+                assertThat(events).hasSize(2);
+                assertThat(events.get(1))
+                        .returns(4L, JackcessQueryEvent::getScannedRows)
+                        .returns(2L, JackcessQueryEvent::getMatchedRows)
+                        .returns(-1L, JackcessQueryEvent::getDistinctRows)
+                        .returns(2L, JackcessQueryEvent::getSortedRows)
+                        .returns(2L, JackcessQueryEvent::getReturnedRows);
+            }
+        }
+    }
+
+    @Test
+    public void testBitmapIndex() throws IOException {
+        List<JackcessQueryEvent> events = new ArrayList<>();
+        JackcessStatementOptions options = JackcessStatementOptions.builder().bitmapIndex(true).listener(events::add).build();
+        JackcessStatementOptions disabled = JackcessStatementOptions.DEFAULT;
+        DbBasicSelect children = DbBasicSelect.from("P").select("K").distinct(true).orderBy("K").build();
+        DbBasicSelect q1 = DbBasicSelect.from("P").select("V").filter(ImmutableMap.of("K", "K3")).build();
+        DbBasicSelect q2 = DbBasicSelect.from("P").select("V").filter(ImmutableMap.of("K", "K3", "G", "odd")).build();
+        try (JackcessDatabasePool.Lease lease = JackcessDatabasePool.getDefault().lease(file)) {
+            try (JackcessStatement stmt = new JackcessStatement(lease, null, options);
+                    JackcessStatement reference = new JackcessStatement(lease, null, disabled)) {
+
+                values(stmt, children);
+                assertThat(values(stmt, q1)).isEqualTo(values(reference, q1));
+                assertThat(events.get(1).getScannedRows())
+                        .isEqualTo(events.get(1).getMatchedRows())
+                        .isEqualTo(77);
+
+                // first scan on G records its bitmaps; second one uses them
+                assertThat(values(stmt, q2)).isEqualTo(values(reference, q2));
+                assertThat(events.get(2).getScannedRows()).isEqualTo(1000);
+                assertThat(values(stmt, q2)).isNotEmpty().isEqualTo(values(reference, q2));
+                assertThat(events.get(3).getScannedRows()).isEqualTo(events.get(3).getMatchedRows());
+            }
+        } finally {
+            JackcessBitmapIndex.clear();
+            JackcessDatabasePool.getDefault().clear();
+        }
+    }
+
+    @Test
+    public void testZoneMap() throws IOException {
+        List<JackcessQueryEvent> events = new ArrayList<>();
+        JackcessStatementOptions options = JackcessStatementOptions.builder().zoneMap(true).listener(events::add).build();
+        JackcessStatementOptions disabled = JackcessStatementOptions.DEFAULT;
+        DbBasicSelect children = DbBasicSelect.from("Z").select("K").distinct(true).orderBy("K").build();
+        DbBasicSelect q1 = DbBasicSelect.from("Z").select("V").filter(ImmutableMap.of("K", "K5")).build();
+        DbBasicSelect q2 = DbBasicSelect.from("Z").select("V").filter(ImmutableMap.of("K", "K55")).build();
+        try (JackcessDatabasePool.Lease lease = JackcessDatabasePool.getDefault().lease(file)) {
+            try (JackcessStatement stmt = new JackcessStatement(lease, null, options);
+                    JackcessStatement reference = new JackcessStatement(lease, null, disabled)) {
+
+                assertThat(values(stmt, children)).hasSize(10);
+                assertThat(events.get(0).getScannedRows()).isEqualTo(1000);
+
+                assertThat(values(stmt, q1)).hasSize(100).isEqualTo(values(reference, q1));
+                assertThat(events.get(1).getScannedRows()).isBetween(100L, 999L);
+
+                assertThat(values(stmt, q2)).isEmpty();
+                assertThat(events.get(2).getScannedRows()).isLessThan(1000);
+            }
+        } finally {
+            JackcessZoneMap.clear();
+            JackcessDatabasePool.getDefault().clear();
+        }
+    }
+
+    @Test
+    public void testResultCache() throws IOException {
+        List<JackcessQueryEvent> events = new ArrayList<>();
+        JackcessStatementOptions options = JackcessStatementOptions.builder().resultCache(true).listener(events::add).build();
+        DbBasicSelect q1 = DbBasicSelect.from("P").select("K").distinct(true).orderBy("K").build();
+        DbBasicSelect q2 = DbBasicSelect.from("P").select("V").filter(ImmutableMap.of("K", "K3")).build();
+        JackcessResultCache.clear();
+        try (JackcessDatabasePool.Lease lease = JackcessDatabasePool.getDefault().lease(file)) {
+            try (JackcessStatement stmt = new JackcessStatement(lease, null, options)) {
+
+                List<String> expected = toRows(stmt.executeQuery(q1), 1);
+                assertThat(events.get(0))
+                        .returns(false, JackcessQueryEvent::isCached)
+                        .returns(1000L, JackcessQueryEvent::getScannedRows);
+
+                assertThat(toRows(stmt.executeQuery(DbBasicSelect.from("P").select("K").distinct(true).orderBy("K").build()), 1)).isEqualTo(expected);
+                assertThat(events.get(1))
+                        .returns(true, JackcessQueryEvent::isCached)
+                        .returns(0L, JackcessQueryEvent::getScannedRows)
+                        .returns(13L, JackcessQueryEvent::getReturnedRows);
+
+                // partially read results are not cached
+                try (JackcessResultSet rs = stmt.executeQuery(q2)) {
+                    assertThat(rs.next()).isTrue();
+                }
+                assertThat(values(stmt, q2)).hasSize(77);
+                assertThat(events.get(3).isCached()).isFalse();
+                assertThat(values(stmt, q2)).hasSize(77);
+                assertThat(events.get(4).isCached()).isTrue();
+            }
+        } finally {
+            JackcessResultCache.clear();
+            JackcessDatabasePool.getDefault().clear();
+        }
+    }
+
+    @Test
+    public void testResultCacheRows() throws IOException {
+        assertThat(JackcessResultCache.of(0)).isSameAs(JackcessResultCache.of(JackcessResultCache.DEFAULT_BUDGET));
+
+        JackcessResultCache cache = JackcessResultCache.of(1024 * 1024);
+        FileVersion version = FileVersion.of(file);
+        DbBasicSelect query = DbBasicSelect.from("P").select("K", "D").build();
+        Date date = new Date(0);
+        try {
+            IteratorWithIO<Object[]> rows = cache.recording(IteratorWithIO.from(Collections.singletonList(new Object[]{"K0", date, null, null}).iterator()), new int[]{0, 1}, version, query, Range.all());
+            while (rows.hasNext()) {
+                rows.next();
+            }
+            date.setTime(1);
+
+            // readers cannot alter the cached rows
+            Object[] row = cache.get(version, query, Range.all()).next();
+            row[0] = "other";
+            ((Date) row[1]).setTime(2);
+            assertThat(cache.get(version, query, Range.all()).next()).containsExactly("K0", new Date(0), null, null);
+        } finally {
+            JackcessResultCache.clear();
+        }
+    }
+
     private static File createResource() throws IOException {
         File result = File.createTempFile("JackcessStatementTest", ".mdb");
         try (Database db = new DatabaseBuilder(result).setFileFormat(Database.FileFormat.V2007).create()) {
@@ -125,6 +431,69 @@ public class JackcessStatementTest {
             for (Object[] o : data) {
                 table.addRow(o);
             }
+
+            Table indexed = new TableBuilder("I")
+                    .addColumn(new ColumnBuilder("K0", DataType.TEXT))
+                    .addColumn(new ColumnBuilder("K1", DataType.TEXT))
+                    .addColumn(new ColumnBuilder("V", DataType.LONG))
+                    .setPrimaryKey("K0", "K1")
+                    .toTable(db);
+
+            Object[][] indexedData = {
+                {"C", "X", 0},
+                {"A", "Y", 2},
+                {"a", "Z", 3},
+                {"A", "X", 1}
+            };
+
+            for (Object[] o : indexedData) {
+                indexed.addRow(o);
+            }
+
+            Table ordered = new TableBuilder("O")
+                    .addColumn(new ColumnBuilder("K0", DataType.TEXT))
+                    .addColumn(new ColumnBuilder("N", DataType.LONG))
+                    .addColumn(new ColumnBuilder("V", DataType.TEXT))
+                    .setPrimaryKey("K0", "N")
+                    .toTable(db);
+
+            Object[][] orderedData = {
+                {"A", 3, "third"},
+                {"B", 2, "other"},
+                {"A", 1, "first"},
+                {"A", 2, "second"}
+            };
+
+            for (Object[] o : orderedData) {
+                ordered.addRow(o);
+            }
+
+            Table partitioned = new TableBuilder("P")
+                    .addColumn(new ColumnBuilder("K", DataType.TEXT))
+                    .addColumn(new ColumnBuilder("G", DataType.TEXT))
+                    .addColumn(new ColumnBuilder("V", DataType.LONG))
+                    .toTable(db);
+
+            for (int i = 0; i < 1000; i++) {
+                partitioned.addRow("K" + (i * 7 % 13), i % 2 == 0 ? "even" : "odd", i % 5);
+            }
+
+            Table zoned = new TableBuilder("Z")
+                    .addColumn(new ColumnBuilder("K", DataType.TEXT))
+                    .addColumn(new ColumnBuilder("V", DataType.LONG))
+                    .toTable(db);
+
+            for (int i = 0; i < 1000; i++) {
+                zoned.addRow("K" + (i / 100), i);
+            }
+
+            Table binary = new TableBuilder("B")
+                    .addColumn(new ColumnBuilder("K", DataType.BINARY))
+                    .toTable(db);
+
+            for (byte[] o : new byte[][]{{1, 2}, {3}, {1, 2}, {1}, {3}, {1, 2}}) {
+                binary.addRow((Object) o);
+            }
         }
         return result;
     }
@@ -135,6 +504,12 @@ public class JackcessStatementTest {
         return result;
     }
 
+    private static List<Object> values(JackcessStatement stmt, DbBasicSelect query) throws IOException {
+        try (JackcessResultSet rs = stmt.executeQuery(query)) {
+            return toValues(rs, 0);
+        }
+    }
+
     private static List<Object> toValues(JackcessResultSet rs, int index) throws IOException {
         List<Object> result = new ArrayList<>();
         while (rs.next()) {
@@ -143,6 +518,22 @@ public class JackcessStatementTest {
         return result;
     }
 
+    private static List<String> toRows(JackcessResultSet rs, int columnCount) throws IOException {
+        List<String> result = new ArrayList<>();
+        try {
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 0; i < columnCount; i++) {
+                    row.append(rs.getValue(i)).append(';');
+                }
+                result.add(row.append(rs.getRange()).toString());
+            }
+        } finally {
+            rs.close();
+        }
+        return result;
+    }
+
     private static List<Range<RowId>> toRanges(JackcessResultSet rs) throws IOException {
         List<Range<RowId>> result = new ArrayList<>();
         while (rs.next()) {
@@ -18,15 +18,22 @@ package internal.xdb;
 
 import com.google.common.collect.Iterators;
 import ec.tss.tsproviders.utils.IteratorWithIO;
+import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.ToIntFunction;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 
 /**
@@ -74,6 +81,75 @@ public final class DbRawDataUtilTest {
         }
     }
 
+    @Test
+    public void testDistinctWithManyGroups() throws IOException {
+        BiConsumer<Object[], Object[]> aggregator = (t, u) -> t[2] = Math.max((int) t[2], (int) u[2]);
+        Function<Integer, DbRawDataUtil.SuperDataType> toDataType = o -> o == 2 ? DbRawDataUtil.SuperDataType.BYTE_ARRAY : DbRawDataUtil.SuperDataType.OTHER;
+        Object[][] data = new Object[1000][];
+        Map<String, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < data.length; i++) {
+            String key = "K" + (i * 7 % 50);
+            byte[] bytes = i % 3 == 0 ? null : new byte[]{(byte) (i % 5)};
+            data[i] = new Object[]{key, bytes, i};
+            expected.merge(key + Arrays.toString(bytes), i, Math::max);
+        }
+        List<Object[]> found = DbRawDataUtil.toList(DbRawDataUtil.distinct(forArray(data), Arrays.asList(1, 2), TO_INDEX, toDataType, aggregator));
+        assertThat(found).hasSize(expected.size());
+        for (Object[] row : found) {
+            assertThat(row[2]).isEqualTo(expected.get(row[0] + Arrays.toString((byte[]) row[1])));
+        }
+        assertThat(found).isSortedAccordingTo((l, r) -> {
+            int result = ((String) l[0]).compareTo((String) r[0]);
+            return result != 0 ? result : Integer.compare(l[1] != null ? ((byte[]) l[1])[0] : -1, r[1] != null ? ((byte[]) r[1])[0] : -1);
+        });
+    }
+
+    @Test
+    public void testDistinctSorted() throws IOException {
+        BiConsumer<Object[], Object[]> aggregator = (t, u) -> t[3] = Math.max((int) t[3], (int) u[3]);
+        {
+            Object[][] data = {
+                {"A", 12.34, null, 1},
+                {"A", 12.34, null, 2},
+                {"B", 56.78, null, 0},
+                {"B", 56.78, null, 3},
+                {"C", 56.78, null, 4}
+            };
+            List<Integer> selectColumns = Arrays.asList(1, 2);
+            Object[][] expected = {
+                {"A", 12.34, null, 2},
+                {"B", 56.78, null, 3},
+                {"C", 56.78, null, 4}
+            };
+            assertIterEquals(expected, DbRawDataUtil.distinctSorted(forArray(data), selectColumns, TO_INDEX, TO_DATA_TYPE, aggregator));
+        }
+        {
+            Object[][] data = {};
+            List<Integer> selectColumns = Collections.emptyList();
+            Object[][] expected = {};
+            assertIterEquals(expected, DbRawDataUtil.distinctSorted(forArray(data), selectColumns, TO_INDEX, TO_DATA_TYPE, aggregator));
+        }
+    }
+
+    @Test
+    public void testDistinctDecimals() throws IOException {
+        BiConsumer<Object[], Object[]> aggregator = (t, u) -> t[1] = Math.max((int) t[1], (int) u[1]);
+        Function<Integer, DbRawDataUtil.SuperDataType> toDataType = o -> DbRawDataUtil.SuperDataType.COMPARABLE;
+        Object[][] data = {
+            {new BigDecimal("1.0"), 0},
+            {new BigDecimal("1.00"), 1},
+            {new BigDecimal("2"), 2},
+            {new BigDecimal("2.000"), 3}
+        };
+        List<Integer> selectColumns = Arrays.asList(1);
+        Object[][] expected = {
+            {new BigDecimal("1.0"), 1},
+            {new BigDecimal("2"), 3}
+        };
+        assertIterEquals(expected, DbRawDataUtil.distinct(forArray(data), selectColumns, TO_INDEX, toDataType, aggregator));
+        assertIterEquals(expected, DbRawDataUtil.distinctSorted(forArray(data), selectColumns, TO_INDEX, toDataType, aggregator));
+    }
+
     @Test
     public void testSort() throws IOException {
         {
@@ -100,6 +176,101 @@ public final class DbRawDataUtilTest {
         }
     }
 
+    @Test
+    public void testSortWithSpill(@TempDir File tmp) throws IOException {
+        DbSortOptions options = DbSortOptions.builder().memoryBudget(1).tempDirectory(tmp).build();
+        Object[][] data = {
+            {"B", 56.78, null, 0},
+            {"A", 12.34, new Date(1000), 1},
+            {"A", 12.34, null, 2},
+            {"B", 56.78, null, 3},
+            {"A", 12.34, null, 4}
+        };
+        List<Integer> orderColumns = Arrays.asList(1, 2);
+        Object[][] expected = {
+            {"A", 12.34, new Date(1000), 1},
+            {"A", 12.34, null, 2},
+            {"A", 12.34, null, 4},
+            {"B", 56.78, null, 0},
+            {"B", 56.78, null, 3}
+        };
+        IteratorWithIO<Object[]> found = DbRawDataUtil.sort(forArray(data), orderColumns, TO_INDEX, TO_DATA_TYPE, options);
+        assertThat(tmp.listFiles()).isNotEmpty();
+        assertIterEquals(expected, found);
+        assertThat(tmp.listFiles()).isEmpty();
+    }
+
+    @Test
+    public void testSortWithoutBudget(@TempDir File tmp) throws IOException {
+        DbSortOptions options = DbSortOptions.builder().memoryBudget(DbSortOptions.resolveMemoryBudget(0)).tempDirectory(tmp).build();
+        Object[][] data = {
+            {"B", 56.78, null, 0},
+            {"A", 12.34, null, 1}
+        };
+        List<Integer> orderColumns = Arrays.asList(1);
+        IteratorWithIO<Object[]> found = DbRawDataUtil.sort(forArray(data), orderColumns, TO_INDEX, TO_DATA_TYPE, options);
+        assertThat(tmp.listFiles()).isEmpty();
+        assertIterEquals(new Object[][]{data[1], data[0]}, found);
+    }
+
+    @Test
+    public void testDistinctWithSpill(@TempDir File tmp) throws IOException {
+        DbSortOptions options = DbSortOptions.builder().memoryBudget(1).tempDirectory(tmp).build();
+        BiConsumer<Object[], Object[]> aggregator = (t, u) -> t[3] = Math.max((int) t[3], (int) u[3]);
+        Object[][] data = {
+            {"B", 56.78, null, 0},
+            {"A", 12.34, null, 1},
+            {"A", 12.34, null, 2},
+            {"B", 56.78, null, 3},
+            {"A", 12.34, null, 0}
+        };
+        List<Integer> selectColumns = Arrays.asList(1, 2);
+        Object[][] expected = {
+            {"A", 12.34, null, 2},
+            {"B", 56.78, null, 3}
+        };
+        IteratorWithIO<Object[]> found = DbRawDataUtil.distinct(forArray(data), selectColumns, TO_INDEX, TO_DATA_TYPE, aggregator, options);
+        assertThat(tmp.listFiles()).isNotEmpty();
+        assertIterEquals(expected, found);
+        assertThat(tmp.listFiles()).isEmpty();
+    }
+
+    @Test
+    public void testSortWithUnsupportedSpill(@TempDir File tmp) throws IOException {
+        DbSortOptions options = DbSortOptions.builder().memoryBudget(1).tempDirectory(tmp).build();
+        Object[][] data = {
+            {"B", new StringBuilder("x")},
+            {"A", new StringBuilder("y")}
+        };
+        List<Integer> orderColumns = Arrays.asList(1);
+        Object[][] expected = {data[1], data[0]};
+        assertIterEquals(expected, DbRawDataUtil.sort(forArray(data), orderColumns, TO_INDEX, TO_DATA_TYPE, options));
+        assertThat(tmp.listFiles()).isEmpty();
+    }
+
+    @Test
+    public void testReusedInput() throws IOException {
+        BiConsumer<Object[], Object[]> aggregator = (t, u) -> t[1] = Math.max((int) t[1], (int) u[1]);
+        Object[][] data = {
+            {"B", 0},
+            {"A", 1},
+            {"A", 2},
+            {"B", 3}
+        };
+        List<Integer> columns = Arrays.asList(1);
+        assertIterEquals(new Object[][]{{"A", 2}, {"B", 3}}, DbRawDataUtil.distinct(reusing(data), columns, TO_INDEX, TO_DATA_TYPE, aggregator));
+        assertIterEquals(new Object[][]{{"A", 1}, {"A", 2}, {"B", 0}, {"B", 3}}, DbRawDataUtil.sort(reusing(data), columns, TO_INDEX, TO_DATA_TYPE));
+        assertIterEquals(new Object[][]{{"B", 0}, {"A", 2}, {"B", 3}}, DbRawDataUtil.distinctSorted(reusing(data), columns, TO_INDEX, TO_DATA_TYPE, aggregator));
+    }
+
+    private static IteratorWithIO<Object[]> reusing(Object[][] data) {
+        Object[] buffer = new Object[data[0].length];
+        return IteratorWithIO.from(Iterators.transform(Iterators.forArray(data), o -> {
+            System.arraycopy(o, 0, buffer, 0, buffer.length);
+            return buffer;
+        }));
+    }
+
     static void assertIterEquals(Object[][] expected, IteratorWithIO<Object[]> found) throws IOException {
         assertArrayEquals(expected, DbRawDataUtil.toList(found).toArray());
     }
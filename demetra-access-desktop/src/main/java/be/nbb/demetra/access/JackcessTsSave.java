@@ -27,14 +27,12 @@ import ec.nbdemetra.ui.tssave.TsSaveUtil;
 import ec.tss.Ts;
 import ec.tss.TsCollection;
 import ec.tss.TsCollectionInformation;
-import ec.tstoolkit.timeseries.simplets.TsObservation;
 import ec.util.various.swing.OnAnyThread;
 import ec.util.various.swing.OnEDT;
 import internal.demetra.jackcess.JackcessTsExport;
 import java.awt.Image;
 import java.io.File;
 import java.io.IOException;
-import java.util.function.BiFunction;
 import javax.swing.filechooser.FileFilter;
 import org.netbeans.api.progress.ProgressHandle;
 import org.openide.filesystems.FileChooserBuilder;
@@ -106,11 +104,21 @@ public final class JackcessTsSave implements ITsSave {
 
         ph.progress("Creating content");
         try (Database database = JackcessTsExport.getDatabase(file, opts.fileFormat, opts.writeOption)) {
+            if (opts.writeOption == JackcessTsExport.WriteOption.TRUNCATE_EXISTING) {
+                ph.progress("Writing file");
+                JackcessTsExport.bulkLoad(database, opts.tableName, opts.beginPeriod, opts.dimColumn, opts.periodColumn, opts.valueColumn, opts.versionColumn, content, 10000);
+                return;
+            }
+
             Table table = JackcessTsExport.getTable(database, opts.writeOption, opts.tableName, opts.dimColumn, opts.periodColumn, opts.valueColumn, opts.versionColumn);
-            BiFunction<String, TsObservation, Object[]> rowFunc = JackcessTsExport.getRowFunc(table, opts.beginPeriod, opts.dimColumn, opts.periodColumn, opts.valueColumn, opts.versionColumn);
+            JackcessTsExport.RowWriter writer = JackcessTsExport.getRowWriter(table, opts.beginPeriod, opts.dimColumn, opts.periodColumn, opts.valueColumn, opts.versionColumn);
 
             ph.progress("Writing file");
-            JackcessTsExport.writeContent(table, rowFunc, content, 10000);
+            if (opts.writeOption == JackcessTsExport.WriteOption.MERGE) {
+                JackcessTsExport.mergeContent(table, writer, content, opts.dimColumn, opts.periodColumn, opts.valueColumn, opts.versionColumn, 10000);
+            } else {
+                JackcessTsExport.writeContent(table, writer, content, 10000);
+            }
         }
     }
 
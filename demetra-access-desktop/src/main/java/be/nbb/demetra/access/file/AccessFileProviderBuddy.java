@@ -34,6 +34,7 @@ import ec.tstoolkit.utilities.GuavaCaches;
 import ec.util.completion.AutoCompletionSource;
 import internal.demetra.jackcess.JackcessAutoCompletion;
 import internal.demetra.jackcess.JackcessColumnRenderer;
+import internal.jackcess.JackcessChannelMode;
 import java.awt.Image;
 import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
@@ -246,7 +247,29 @@ public final class AccessFileProviderBuddy implements IDataSourceProviderBuddy {
         "bean.cacheDepth.display=Depth",
         "bean.cacheDepth.description=The data retrieval depth. It is always more performant to get one big chunk of data instead of several smaller parts. The downside of it is the increase of memory usage. Setting this value to zero disables the cache.",
         "bean.cacheTtl.display=Time to live",
-        "bean.cacheTtl.description=The lifetime of the data stored in the cache. Setting this value to zero disables the cache."})
+        "bean.cacheTtl.description=The lifetime of the data stored in the cache. Setting this value to zero disables the cache.",
+        "bean.sortMemoryBudget.display=Sort memory",
+        "bean.sortMemoryBudget.description=The memory in bytes used to sort data before spilling it to temporary files. Setting this value to zero keeps all the data in memory.",
+        "bean.snapshot.display=Snapshot",
+        "bean.snapshot.description=Loads the whole table in memory once per file version and answers all queries from it. It is faster to browse big tables at the cost of memory usage.",
+        "bean.persistentRangeIndex.display=Persistent range index",
+        "bean.persistentRangeIndex.description=Persists the ranges of rows of the dimension values in a sidecar file next to the database so that they are reused after a restart. The directory of the database must be writable.",
+        "bean.bitmapIndex.display=Bitmap index",
+        "bean.bitmapIndex.description=Records the rows of each dimension value while scanning the whole table so that filtered queries only read the matching rows. It uses up to 64MB shared by all the files.",
+        "bean.zoneMap.display=Zone map",
+        "bean.zoneMap.description=Summarizes the dimension values of each data page while scanning the whole table so that filtered queries skip the pages that cannot match.",
+        "bean.resultCache.display=Result cache",
+        "bean.resultCache.description=Keeps the complete results of queries in memory until the file changes.",
+        "bean.parallelism.display=Parallelism",
+        "bean.parallelism.description=The number of concurrent readers used to scan the table when its data must be sorted. Setting this value to one disables parallel scans.",
+        "bean.channel.display=Channel",
+        "bean.channel.description=How the file is read: through a regular file channel (DEFAULT), a memory mapping (MAPPED) or a copy of the whole file in memory (HEAP or DIRECT). The last three reduce the number of reads on slow network shares; the copy is shared by all queries until the file changes.",
+        "bean.warmUp.display=Warm-up",
+        "bean.warmUp.description=Crawls the tree of the data source in the background when it is opened in order to fill the caches up to the data retrieval depth.",
+        "bean.warmUpTimeout.display=Warm-up timeout",
+        "bean.warmUpTimeout.description=The maximum duration of the warm-up.",
+        "bean.warmUpMemoryBudget.display=Warm-up memory",
+        "bean.warmUpMemoryBudget.description=The estimated memory in bytes of the data loaded by the warm-up before it stops. Setting this value to zero uses a quarter of the maximum heap size."})
     private static NodePropertySetBuilder withCache(NodePropertySetBuilder b, AccessFileBean bean) {
         b.withInt()
                 .select(bean, "cacheDepth")
@@ -260,6 +283,63 @@ public final class AccessFileProviderBuddy implements IDataSourceProviderBuddy {
                 .display(Bundle.bean_cacheTtl_display())
                 .description(Bundle.bean_cacheTtl_description())
                 .add();
+        b.with(long.class)
+                .select(bean, "sortMemoryBudget")
+                .display(Bundle.bean_sortMemoryBudget_display())
+                .description(Bundle.bean_sortMemoryBudget_description())
+                .add();
+        b.withBoolean()
+                .select(bean, "snapshot")
+                .display(Bundle.bean_snapshot_display())
+                .description(Bundle.bean_snapshot_description())
+                .add();
+        b.withBoolean()
+                .select(bean, "persistentRangeIndex")
+                .display(Bundle.bean_persistentRangeIndex_display())
+                .description(Bundle.bean_persistentRangeIndex_description())
+                .add();
+        b.withBoolean()
+                .select(bean, "bitmapIndex")
+                .display(Bundle.bean_bitmapIndex_display())
+                .description(Bundle.bean_bitmapIndex_description())
+                .add();
+        b.withBoolean()
+                .select(bean, "zoneMap")
+                .display(Bundle.bean_zoneMap_display())
+                .description(Bundle.bean_zoneMap_description())
+                .add();
+        b.withBoolean()
+                .select(bean, "resultCache")
+                .display(Bundle.bean_resultCache_display())
+                .description(Bundle.bean_resultCache_description())
+                .add();
+        b.withInt()
+                .select(bean, "parallelism")
+                .display(Bundle.bean_parallelism_display())
+                .description(Bundle.bean_parallelism_description())
+                .min(1)
+                .add();
+        b.withEnum(JackcessChannelMode.class)
+                .select(bean, "channel")
+                .display(Bundle.bean_channel_display())
+                .description(Bundle.bean_channel_description())
+                .add();
+        b.withBoolean()
+                .select(bean, "warmUp")
+                .display(Bundle.bean_warmUp_display())
+                .description(Bundle.bean_warmUp_description())
+                .add();
+        b.with(long.class)
+                .select(bean, "warmUpTimeout", Duration.class, Duration::toMillis, Duration::ofMillis)
+                .editor(DhmsPropertyEditor.class)
+                .display(Bundle.bean_warmUpTimeout_display())
+                .description(Bundle.bean_warmUpTimeout_description())
+                .add();
+        b.with(long.class)
+                .select(bean, "warmUpMemoryBudget")
+                .display(Bundle.bean_warmUpMemoryBudget_display())
+                .description(Bundle.bean_warmUpMemoryBudget_description())
+                .add();
         return b;
     }
     //</editor-fold>